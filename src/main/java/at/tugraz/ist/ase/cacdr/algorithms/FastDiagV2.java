@@ -10,8 +10,11 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
-import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.events.AlgorithmEvent;
+import at.tugraz.ist.ase.cacdr.eval.events.RecursionStepEvent;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import com.google.common.collect.Sets;
 import lombok.NonNull;
@@ -58,11 +61,14 @@ public class FastDiagV2 {
     // for evaluation
     public static final String TIMER_FASTDIAGV2 = "Timer for FD V2:";
     public static final String COUNTER_FASTDIAGV2_CALLS = "The number of FD V2 calls:";
+    private static final Counter FASTDIAGV2_CALLS = Counter.of(COUNTER_FASTDIAGV2_CALLS);
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
+    protected final SessionContext context;
 
-    public FastDiagV2(@NonNull ChocoConsistencyChecker checker) {
+    public FastDiagV2(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
+        this.context = checker.getContext();
     }
 
     /**
@@ -78,28 +84,32 @@ public class FastDiagV2 {
      * @return a diagnosis or an empty set
      */
     public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> C, @NonNull Set<Constraint> AC) {
-        log.debug("{}Identifying diagnosis for [C={}, AC={}] >>>", LoggerUtils.tab, C, AC);
-        LoggerUtils.indent();
+        AlgorithmEvent event = AlgorithmEvent.begin("FastDiagV2", C, AC);
 
-        Set<Constraint> ACwithoutC = Sets.difference(AC, C); incrementCounter(COUNTER_DIFFERENT_OPERATOR);
+        log.debug("{}Identifying diagnosis for [C={}, AC={}] >>>", context.tab(), C, AC);
+        context.indent();
+
+        Set<Constraint> ACwithoutC = Sets.difference(AC, C); context.increment(DIFFERENT_OPERATOR);
 
         // if isEmpty(C) or inconsistent(AC - C) return Φ
         if (C.isEmpty() || checker.isConsistent(AC) ||
                 (!ACwithoutC.isEmpty() && !checker.isConsistent(ACwithoutC))) {
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< No diagnosis found", LoggerUtils.tab);
+            context.outdent();
+            log.debug("{}<<< No diagnosis found", context.tab());
 
+            event.finish(Collections.emptySet());
             return Collections.emptySet();
         } else { // else return FD(Φ, C, AC)
-            incrementCounter(COUNTER_FASTDIAGV2_CALLS);
-            start(TIMER_FASTDIAGV2);
+            context.increment(FASTDIAGV2_CALLS);
+            context.start(TIMER_FASTDIAGV2);
             Set<Constraint> Δ = fd(Collections.emptySet(), C, AC);
-            stop(TIMER_FASTDIAGV2);
+            context.stop(TIMER_FASTDIAGV2);
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< Found diagnosis [diag={}]", LoggerUtils.tab, Δ);
+            context.outdent();
+            log.debug("{}<<< Found diagnosis [diag={}]", context.tab(), Δ);
 
+            event.finish(Δ);
             return Δ;
         }
     }
@@ -122,15 +132,16 @@ public class FastDiagV2 {
      * @return a diagnosis or an empty set
      */
     private Set<Constraint> fd(Set<Constraint> D, Set<Constraint> C, Set<Constraint> AC) {
-        log.trace("{}FD [D={}, C={}, AC={}] >>>", LoggerUtils.tab, D, C, AC);
-        LoggerUtils.indent();
+        log.trace("{}FD [D={}, C={}, AC={}] >>>", context.tab(), D, C, AC);
+        RecursionStepEvent.emit("FastDiagV2", C, AC);
+        context.indent();
 
         // if D != Φ and consistent(AC) return Φ;
         if( !D.isEmpty() ) {
-            incrementCounter(COUNTER_CONSISTENCY_CHECKS);
+            context.increment(CONSISTENCY_CHECKS);
             if (checker.isConsistent(AC)) {
-                log.trace("{}<<< return Φ", LoggerUtils.tab);
-                LoggerUtils.outdent();
+                log.trace("{}<<< return Φ", context.tab());
+                context.outdent();
 
                 return Collections.emptySet();
             }
@@ -139,8 +150,8 @@ public class FastDiagV2 {
         // if singleton(C) return C;
         int q = C.size();
         if (q == 1) {
-            LoggerUtils.outdent();
-            log.trace("{}<<< return [{}]", LoggerUtils.tab, C);
+            context.outdent();
+            log.trace("{}<<< return [{}]", context.tab(), C);
 
             return C;
         }
@@ -151,26 +162,26 @@ public class FastDiagV2 {
         List<Constraint> secondSubList = new ArrayList<>(C).subList(k, q);
         Set<Constraint> C1 = new LinkedHashSet<>(firstSubList);
         Set<Constraint> C2 = new LinkedHashSet<>(secondSubList);
-        incrementCounter(COUNTER_SPLIT_SET);
-        log.trace("{}Split C into [C1={}, C2={}]", LoggerUtils.tab, C1, C2);
+        context.increment(SPLIT_SET);
+        log.trace("{}Split C into [C1={}, C2={}]", context.tab(), C1, C2);
 
         // D1 = FD(C2, C1, AC - C2);
-        Set<Constraint> ACwithoutC2 = Sets.difference(AC, C2); incrementCounter(COUNTER_DIFFERENT_OPERATOR);
-        incrementCounter(COUNTER_LEFT_BRANCH_CALLS);
-        incrementCounter(COUNTER_FASTDIAGV2_CALLS);
+        Set<Constraint> ACwithoutC2 = Sets.difference(AC, C2); context.increment(DIFFERENT_OPERATOR);
+        context.increment(LEFT_BRANCH_CALLS);
+        context.increment(FASTDIAGV2_CALLS);
         Set<Constraint> D1 = fd(C2, C1, ACwithoutC2);
 
         // D2 = FD(D1, C2, AC - D1);
-        Set<Constraint> ACwithoutD1 = Sets.difference(AC, D1); incrementCounter(COUNTER_DIFFERENT_OPERATOR);
-        incrementCounter(COUNTER_RIGHT_BRANCH_CALLS);
-        incrementCounter(COUNTER_FASTDIAGV2_CALLS);
+        Set<Constraint> ACwithoutD1 = Sets.difference(AC, D1); context.increment(DIFFERENT_OPERATOR);
+        context.increment(RIGHT_BRANCH_CALLS);
+        context.increment(FASTDIAGV2_CALLS);
         Set<Constraint> D2 = fd(D1, C2, ACwithoutD1);
 
-        LoggerUtils.outdent();
-        log.trace("{}<<< return [D1={} ∪ D2={}]", LoggerUtils.tab, D1, D2);
+        context.outdent();
+        log.trace("{}<<< return [D1={} ∪ D2={}]", context.tab(), D1, D2);
 
         // return(D1 ∪ D2);
-        incrementCounter(COUNTER_UNION_OPERATOR);
+        context.increment(UNION_OPERATOR);
         return Sets.union(D1, D2);
     }
 
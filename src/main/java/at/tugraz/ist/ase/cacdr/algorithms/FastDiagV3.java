@@ -10,8 +10,11 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
-import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.events.AlgorithmEvent;
+import at.tugraz.ist.ase.cacdr.eval.events.RecursionStepEvent;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import com.google.common.collect.Sets;
 import lombok.NonNull;
@@ -49,11 +52,14 @@ public class FastDiagV3 {
     // for evaluation
     public static final String TIMER_FASTDIAGV3 = "Timer for FD V3:";
     public static final String COUNTER_FASTDIAGV3_CALLS = "The number of FD V3 calls:";
+    private static final Counter FASTDIAGV3_CALLS = Counter.of(COUNTER_FASTDIAGV3_CALLS);
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
+    protected final SessionContext context;
 
-    public FastDiagV3(@NonNull ChocoConsistencyChecker checker) {
+    public FastDiagV3(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
+        this.context = checker.getContext();
     }
 
     /**
@@ -69,31 +75,35 @@ public class FastDiagV3 {
      * @return a diagnosis or an empty set
      */
     public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
-        log.debug("{}Identifying diagnosis for [C={}, B={}] >>>", LoggerUtils.tab, C, B);
-        LoggerUtils.indent();
+        AlgorithmEvent event = AlgorithmEvent.begin("FastDiagV3", C, B);
 
-        Set<Constraint> BwithC = Sets.union(B, C); incrementCounter(COUNTER_UNION_OPERATOR);
+        log.debug("{}Identifying diagnosis for [C={}, B={}] >>>", context.tab(), C, B);
+        context.indent();
+
+        Set<Constraint> BwithC = Sets.union(B, C); context.increment(UNION_OPERATOR);
 
         // if isEmpty(C) or consistent(B U C) return Φ
         if (C.isEmpty()
                 || checker.isConsistent(BwithC)) {
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< No diagnosis found", LoggerUtils.tab);
+            context.outdent();
+            log.debug("{}<<< No diagnosis found", context.tab());
 
+            event.finish(Collections.emptySet());
             return Collections.emptySet();
         } else { // else return C \ FD(C, B, Φ)
-            incrementCounter(COUNTER_FASTDIAGV3_CALLS);
-            start(TIMER_FASTDIAGV3);
+            context.increment(FASTDIAGV3_CALLS);
+            context.start(TIMER_FASTDIAGV3);
             Set<Constraint> mss = fd(Collections.emptySet(), C, B);
-            stop(TIMER_FASTDIAGV3);
+            context.stop(TIMER_FASTDIAGV3);
 
-            incrementCounter(COUNTER_DIFFERENT_OPERATOR);
+            context.increment(DIFFERENT_OPERATOR);
             Set<Constraint> diag = Sets.difference(C, mss);
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< Found diagnosis [diag={}]", LoggerUtils.tab, diag);
+            context.outdent();
+            log.debug("{}<<< Found diagnosis [diag={}]", context.tab(), diag);
 
+            event.finish(diag);
             return diag;
         }
     }
@@ -117,17 +127,18 @@ public class FastDiagV3 {
      * @return a maximal satisfiable subset MSS of C U B.
      */
     private Set<Constraint> fd(Set<Constraint> Δ, Set<Constraint> C, Set<Constraint> B) {
-        log.trace("{}FD [Δ={}, C={}, B={}] >>>", LoggerUtils.tab, Δ, C, B);
-        LoggerUtils.indent();
+        log.trace("{}FD [Δ={}, C={}, B={}] >>>", context.tab(), Δ, C, B);
+        RecursionStepEvent.emit("FastDiagV3", C, B);
+        context.indent();
 
         // if Δ != Φ and consistent(B U C) return C;
         if( !Δ.isEmpty()) {
-            Set<Constraint> BwithC = Sets.union(B, C); incrementCounter(COUNTER_UNION_OPERATOR);
+            Set<Constraint> BwithC = Sets.union(B, C); context.increment(UNION_OPERATOR);
 
-            incrementCounter(COUNTER_CONSISTENCY_CHECKS);
+            context.increment(CONSISTENCY_CHECKS);
             if (checker.isConsistent(BwithC)) {
-                LoggerUtils.outdent();
-                log.trace("{}<<< return [{}]", LoggerUtils.tab, C);
+                context.outdent();
+                log.trace("{}<<< return [{}]", context.tab(), C);
 
                 return C;
             }
@@ -136,8 +147,8 @@ public class FastDiagV3 {
         // if singleton(C) return Φ;
         int n = C.size();
         if (n == 1) {
-            LoggerUtils.outdent();
-            log.trace("{}<<< return Φ", LoggerUtils.tab);
+            context.outdent();
+            log.trace("{}<<< return Φ", context.tab());
 
             return Collections.emptySet();
         }
@@ -148,26 +159,26 @@ public class FastDiagV3 {
         List<Constraint> secondSubList = new ArrayList<>(C).subList(k, n);
         Set<Constraint> C1 = new LinkedHashSet<>(firstSubList);
         Set<Constraint> C2 = new LinkedHashSet<>(secondSubList);
-        incrementCounter(COUNTER_SPLIT_SET);
-        log.trace("{}Split C into [C1={}, C2={}]", LoggerUtils.tab, C1, C2);
+        context.increment(SPLIT_SET);
+        log.trace("{}Split C into [C1={}, C2={}]", context.tab(), C1, C2);
 
         // Δ1 = FD(C2, C1, B);
-        incrementCounter(COUNTER_LEFT_BRANCH_CALLS);
-        incrementCounter(COUNTER_FASTDIAGV3_CALLS);
+        context.increment(LEFT_BRANCH_CALLS);
+        context.increment(FASTDIAGV3_CALLS);
         Set<Constraint> Δ1 = fd(C2, C1, B);
 
         // Δ2 = FD(C1 - Δ1, C2, B U Δ1);
-        Set<Constraint> BwithΔ1 = Sets.union(B, Δ1); incrementCounter(COUNTER_UNION_OPERATOR);
-        Set<Constraint> C1withoutΔ1 = Sets.difference(C1, Δ1); incrementCounter(COUNTER_DIFFERENT_OPERATOR);
-        incrementCounter(COUNTER_RIGHT_BRANCH_CALLS);
-        incrementCounter(COUNTER_FASTDIAGV3_CALLS);
+        Set<Constraint> BwithΔ1 = Sets.union(B, Δ1); context.increment(UNION_OPERATOR);
+        Set<Constraint> C1withoutΔ1 = Sets.difference(C1, Δ1); context.increment(DIFFERENT_OPERATOR);
+        context.increment(RIGHT_BRANCH_CALLS);
+        context.increment(FASTDIAGV3_CALLS);
         Set<Constraint> Δ2 = fd(C1withoutΔ1, C2, BwithΔ1);
 
-        LoggerUtils.outdent();
-        log.trace("{}<<< return [Δ1={} ∪ Δ2={}]", LoggerUtils.tab, Δ1, Δ2);
+        context.outdent();
+        log.trace("{}<<< return [Δ1={} ∪ Δ2={}]", context.tab(), Δ1, Δ2);
 
         // return Δ1 ∪ Δ2;
-        incrementCounter(COUNTER_UNION_OPERATOR);
+        context.increment(UNION_OPERATOR);
         return Sets.union(Δ1, Δ2);
     }
 
@@ -10,8 +10,11 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
-import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.events.AlgorithmEvent;
+import at.tugraz.ist.ase.cacdr.eval.events.RecursionStepEvent;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import com.google.common.collect.Sets;
 import lombok.NonNull;
@@ -52,11 +55,14 @@ public class FlexDiag {
     // for evaluation
     public static final String TIMER_FLEXDIAG = "Timer for FlexDiag:";
     public static final String COUNTER_FLEXDIAG_CALLS = "The number of FlexDiag calls:";
+    private static final Counter FLEXDIAG_CALLS = Counter.of(COUNTER_FLEXDIAG_CALLS);
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
+    protected final SessionContext context;
 
-    public FlexDiag(@NonNull ChocoConsistencyChecker checker) {
+    public FlexDiag(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
+        this.context = checker.getContext();
     }
 
     /**
@@ -73,28 +79,32 @@ public class FlexDiag {
      * @return a diagnosis or an empty set
      */
     public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> S, @NonNull Set<Constraint> AC, int m) {
-        log.debug("{}Identifying diagnosis for [S={}, AC={}, {}] >>>", LoggerUtils.tab, S, AC, m);
-        LoggerUtils.indent();
+        AlgorithmEvent event = AlgorithmEvent.begin("FlexDiag", S, AC);
 
-        Set<Constraint> ACwithoutS = Sets.difference(AC, S); incrementCounter(COUNTER_DIFFERENT_OPERATOR);
+        log.debug("{}Identifying diagnosis for [S={}, AC={}, {}] >>>", context.tab(), S, AC, m);
+        context.indent();
+
+        Set<Constraint> ACwithoutS = Sets.difference(AC, S); context.increment(DIFFERENT_OPERATOR);
 
         // if isEmpty(S) or inconsistent(AC - S) return Φ
         if (S.isEmpty() || checker.isConsistent(AC) ||
                 (!ACwithoutS.isEmpty() && !checker.isConsistent(ACwithoutS))) {
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< No diagnosis found", LoggerUtils.tab);
+            context.outdent();
+            log.debug("{}<<< No diagnosis found", context.tab());
 
+            event.finish(Collections.emptySet());
             return Collections.emptySet();
         } else { // else return FlexD(Φ, C, AC, m)
-            incrementCounter(COUNTER_FLEXDIAG_CALLS);
-            start(TIMER_FLEXDIAG);
+            context.increment(FLEXDIAG_CALLS);
+            context.start(TIMER_FLEXDIAG);
             Set<Constraint> Δ = flexd(Collections.emptySet(), S, AC, m);
-            stop(TIMER_FLEXDIAG);
+            context.stop(TIMER_FLEXDIAG);
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< Found diagnosis [diag={}]", LoggerUtils.tab, Δ);
+            context.outdent();
+            log.debug("{}<<< Found diagnosis [diag={}]", context.tab(), Δ);
 
+            event.finish(Δ);
             return Δ;
         }
     }
@@ -118,15 +128,16 @@ public class FlexDiag {
      * @return a diagnosis or an empty set
      */
     private Set<Constraint> flexd(Set<Constraint> D, Set<Constraint> S, Set<Constraint> AC, int m) {
-        log.trace("{}FlexD [D={}, S={}, AC={}, m={}] >>>", LoggerUtils.tab, D, S, AC, m);
-        LoggerUtils.indent();
+        log.trace("{}FlexD [D={}, S={}, AC={}, m={}] >>>", context.tab(), D, S, AC, m);
+        RecursionStepEvent.emit("FlexDiag", S, AC);
+        context.indent();
 
         // if D != Φ and consistent(AC) return Φ;
         if( !D.isEmpty() ) {
-            incrementCounter(COUNTER_CONSISTENCY_CHECKS);
+            context.increment(CONSISTENCY_CHECKS);
             if (checker.isConsistent(AC)) {
-                log.trace("{}<<< return Φ", LoggerUtils.tab);
-                LoggerUtils.outdent();
+                log.trace("{}<<< return Φ", context.tab());
+                context.outdent();
 
                 return Collections.emptySet();
             }
@@ -135,8 +146,8 @@ public class FlexDiag {
         // if size(S) <= m return S;
         int q = S.size();
         if (q <= m) {
-            LoggerUtils.outdent();
-            log.trace("{}<<< return [{}]", LoggerUtils.tab, S);
+            context.outdent();
+            log.trace("{}<<< return [{}]", context.tab(), S);
 
             return S;
         }
@@ -147,26 +158,26 @@ public class FlexDiag {
         List<Constraint> secondSubList = new ArrayList<>(S).subList(k, q);
         Set<Constraint> S1 = new LinkedHashSet<>(firstSubList);
         Set<Constraint> S2 = new LinkedHashSet<>(secondSubList);
-        incrementCounter(COUNTER_SPLIT_SET);
-        log.trace("{}Split S into [S1={}, S2={}]", LoggerUtils.tab, S1, S2);
+        context.increment(SPLIT_SET);
+        log.trace("{}Split S into [S1={}, S2={}]", context.tab(), S1, S2);
 
         // D1 = FlexD(S2, S1, AC - S2, m);
-        Set<Constraint> ACwithoutS2 = Sets.difference(AC, S2); incrementCounter(COUNTER_DIFFERENT_OPERATOR);
-        incrementCounter(COUNTER_LEFT_BRANCH_CALLS);
-        incrementCounter(COUNTER_FLEXDIAG_CALLS);
+        Set<Constraint> ACwithoutS2 = Sets.difference(AC, S2); context.increment(DIFFERENT_OPERATOR);
+        context.increment(LEFT_BRANCH_CALLS);
+        context.increment(FLEXDIAG_CALLS);
         Set<Constraint> D1 = flexd(S2, S1, ACwithoutS2, m);
 
         // D2 = FlexD(D1, S2, AC - D1, m);
-        Set<Constraint> ACwithoutD1 = Sets.difference(AC, D1); incrementCounter(COUNTER_DIFFERENT_OPERATOR);
-        incrementCounter(COUNTER_RIGHT_BRANCH_CALLS);
-        incrementCounter(COUNTER_FLEXDIAG_CALLS);
+        Set<Constraint> ACwithoutD1 = Sets.difference(AC, D1); context.increment(DIFFERENT_OPERATOR);
+        context.increment(RIGHT_BRANCH_CALLS);
+        context.increment(FLEXDIAG_CALLS);
         Set<Constraint> D2 = flexd(D1, S2, ACwithoutD1, m);
 
-        LoggerUtils.outdent();
-        log.trace("{}<<< return [D1={} ∪ D2={}]", LoggerUtils.tab, D1, D2);
+        context.outdent();
+        log.trace("{}<<< return [D1={} ∪ D2={}]", context.tab(), D1, D2);
 
         // return(D1 ∪ D2);
-        incrementCounter(COUNTER_UNION_OPERATOR);
+        context.increment(UNION_OPERATOR);
         return Sets.union(D1, D2);
     }
 }
@@ -0,0 +1,246 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms;
+
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.events.AlgorithmEvent;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import com.google.common.collect.Sets;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.variables.BoolVar;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+
+/**
+ * Implementation of the MARCO algorithm, which enumerates the minimal conflicts (MUSes)
+ * and the minimal diagnoses (complements of MSSes) of C together.
+ *
+ * A map solver over the power set of C, i.e., a SAT problem with a Boolean variable per constraint,
+ * proposes seeds which are neither a superset of a found conflict nor a subset of a found MSS.
+ * A consistent seed S is grown to an MSS with {@link FastDiagV3}, i.e., the diagnosis
+ * FastDiag(C \ S, B ∪ S), and an inconsistent seed is shrunk to a conflict with {@link QuickXPlain}.
+ * Each result is blocked in the map: a conflict by the clause OR(¬c, c ∈ CS),
+ * a diagnosis by the clause OR(c, c ∈ Δ). The enumeration ends when the map is unsatisfiable,
+ * i.e., all conflicts and diagnoses are found, or when every set maximum number is reached.
+ * With only one maximum number, e.g., of diagnoses, the enumeration stops as soon as this number
+ * is reached, regardless of the number of found conflicts.
+ *
+ * The map solver prefers large seeds, so that the first results are rather diagnoses,
+ * and the results are passed to the consumers as soon as they are found.
+ *
+ * // Func MARCO(C, B)
+ * // map = the power set of C
+ * // while map has a seed S:
+ * //   if consistent(B ∪ S): Δ = FastDiag(C \ S, B ∪ S); block the subsets of C \ Δ in map
+ * //   else: CS = QuickXPlain(S, B); block the supersets of CS in map
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class MARCO {
+
+    // for evaluation
+    public static final String TIMER_MARCO = "Timer for MARCO:";
+    public static final String COUNTER_MARCO_SEEDS = "The number of MARCO seeds:";
+    private static final Counter MARCO_SEEDS = Counter.of(COUNTER_MARCO_SEEDS);
+
+    protected final IConsistencyChecker checker;
+    protected final SessionContext context;
+
+    private final QuickXPlain quickXPlain;
+    private final FastDiagV3 fastDiag;
+
+    /**
+     * The maximum number of conflicts, -1 - all conflicts
+     */
+    @Getter @Setter
+    private int maxNumberOfConflicts = -1;
+
+    /**
+     * The maximum number of diagnoses, -1 - all diagnoses
+     */
+    @Getter @Setter
+    private int maxNumberOfDiagnoses = -1;
+
+    @Getter
+    private final List<Set<Constraint>> conflicts = new LinkedList<>();
+    @Getter
+    private final List<Set<Constraint>> diagnoses = new LinkedList<>();
+
+    public MARCO(@NonNull IConsistencyChecker checker) {
+        this.checker = checker;
+        this.context = checker.getContext();
+        this.quickXPlain = new QuickXPlain(checker);
+        this.fastDiag = new FastDiagV3(checker);
+    }
+
+    /**
+     * Enumerates the conflicts and the diagnoses of C.
+     *
+     * @param C a consideration set of constraints
+     * @param B a background knowledge
+     */
+    public void enumerate(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
+        enumerate(C, B, conflict -> {}, diag -> {});
+    }
+
+    /**
+     * Enumerates the conflicts and the diagnoses of C, and passes each of them to the consumers
+     * as soon as it is found.
+     *
+     * @param C a consideration set of constraints
+     * @param B a background knowledge
+     * @param onConflict receives the conflicts
+     * @param onDiagnosis receives the diagnoses
+     */
+    public void enumerate(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B,
+                          @NonNull Consumer<Set<Constraint>> onConflict,
+                          @NonNull Consumer<Set<Constraint>> onDiagnosis) {
+        AlgorithmEvent event = AlgorithmEvent.begin("MARCO", C, B);
+
+        log.debug("{}Enumerating conflicts and diagnoses for [C={}, B={}] >>>", context.tab(), C, B);
+        context.indent();
+
+        conflicts.clear();
+        diagnoses.clear();
+
+        context.start(TIMER_MARCO);
+        MapSolver map = new MapSolver(C);
+
+        Set<Constraint> seed;
+        while (!isDone() && (seed = map.nextSeed()) != null) {
+            context.increment(MARCO_SEEDS);
+            log.trace("{}Seed [S={}]", context.tab(), seed);
+
+            if (isConsistent(seed, B)) {
+                // grow the seed to an MSS, whose complement is a diagnosis
+                Set<Constraint> CwithoutSeed = Sets.difference(C, seed); context.increment(DIFFERENT_OPERATOR);
+                Set<Constraint> BwithSeed = Sets.union(B, seed); context.increment(UNION_OPERATOR);
+                Set<Constraint> diag = new LinkedHashSet<>(fastDiag.findDiagnosis(CwithoutSeed, BwithSeed));
+
+                if (diag.isEmpty()) { // B ∪ C is consistent
+                    break;
+                }
+                map.blockDiagnosis(diag);
+                if (maxNumberOfDiagnoses == -1 || diagnoses.size() < maxNumberOfDiagnoses) {
+                    diagnoses.add(diag);
+                    onDiagnosis.accept(diag);
+                }
+            } else {
+                // shrink the seed to a conflict
+                Set<Constraint> conflict = new LinkedHashSet<>(quickXPlain.findConflictSet(seed, B));
+
+                if (conflict.isEmpty()) { // B is inconsistent
+                    break;
+                }
+                map.blockConflict(conflict);
+                if (maxNumberOfConflicts == -1 || conflicts.size() < maxNumberOfConflicts) {
+                    conflicts.add(conflict);
+                    onConflict.accept(conflict);
+                }
+            }
+        }
+        context.stop(TIMER_MARCO);
+
+        context.outdent();
+        log.debug("{}<<< return [conflicts={}]", context.tab(), conflicts);
+        log.debug("{}<<< return [diagnoses={}]", context.tab(), diagnoses);
+
+        event.finish(diagnoses.isEmpty() ? Collections.emptySet() : diagnoses.get(0));
+    }
+
+    /**
+     * Returns <code>true</code> if at least one maximum number is set, and every set maximum number
+     * is reached. An unset maximum number doesn't require to enumerate all results of its kind.
+     */
+    private boolean isDone() {
+        if (maxNumberOfConflicts == -1 && maxNumberOfDiagnoses == -1) {
+            return false;
+        }
+        return (maxNumberOfConflicts == -1 || conflicts.size() >= maxNumberOfConflicts)
+                && (maxNumberOfDiagnoses == -1 || diagnoses.size() >= maxNumberOfDiagnoses);
+    }
+
+    private boolean isConsistent(Set<Constraint> seed, Set<Constraint> B) {
+        Set<Constraint> BwithSeed = Sets.union(B, seed); context.increment(UNION_OPERATOR);
+        if (BwithSeed.isEmpty()) {
+            return true;
+        }
+        context.increment(CONSISTENCY_CHECKS);
+        return checker.isConsistent(BwithSeed);
+    }
+
+    /**
+     * The map of the explored subsets of C, i.e., a SAT problem whose solutions are
+     * the unexplored subsets.
+     */
+    private static class MapSolver {
+        private final Model model = new Model("map");
+        private final Map<Constraint, BoolVar> selectors = new LinkedHashMap<>();
+
+        private MapSolver(Set<Constraint> C) {
+            int i = 0;
+            for (Constraint constraint : C) {
+                selectors.put(constraint, model.boolVar("s" + i++));
+            }
+        }
+
+        /**
+         * Returns an unexplored subset of C, or null if all subsets are explored.
+         */
+        private Set<Constraint> nextSeed() {
+            Solver solver = model.getSolver();
+            solver.reset();
+            // large seeds first
+            solver.setSearch(Search.inputOrderUBSearch(selectors.values().toArray(new BoolVar[0])));
+
+            if (!solver.solve()) {
+                return null;
+            }
+            Set<Constraint> seed = new LinkedHashSet<>();
+            selectors.forEach((constraint, selector) -> {
+                if (selector.getValue() == 1) {
+                    seed.add(constraint);
+                }
+            });
+            return seed;
+        }
+
+        /**
+         * The supersets of the conflict are explored.
+         */
+        private void blockConflict(Set<Constraint> conflict) {
+            model.getSolver().reset();
+            model.addClausesBoolAndArrayEqualFalse(toSelectors(conflict));
+        }
+
+        /**
+         * The subsets of the MSS C \ diag are explored.
+         */
+        private void blockDiagnosis(Set<Constraint> diag) {
+            model.getSolver().reset();
+            model.addClausesBoolOrArrayEqualTrue(toSelectors(diag));
+        }
+
+        private BoolVar[] toSelectors(Set<Constraint> constraints) {
+            return constraints.stream().map(selectors::get).toArray(BoolVar[]::new);
+        }
+    }
+}
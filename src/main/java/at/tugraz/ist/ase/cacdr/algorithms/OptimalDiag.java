@@ -0,0 +1,263 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms;
+
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.events.AlgorithmEvent;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.IChocoModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Identifies optimal diagnoses by a single optimization problem instead of consistency checks.
+ *
+ * Each constraint c of C is reified with a selector variable s_c, i.e., s_c = 1 iff c holds,
+ * the constraints of B are posted, and the solver minimizes the cost of the relaxed constraints
+ * sum(w_c * (1 - s_c)). Without weights, every constraint costs 1, so the relaxed constraints
+ * of an optimal solution are a cardinality-minimal diagnosis. Since the weights are positive,
+ * an optimal diagnosis is also subset-minimal. All optimal diagnoses are enumerated by fixing
+ * the cost to the optimum and blocking each found diagnosis Δ with the clause OR(s_c, c ∈ Δ).
+ *
+ * A reified Choco constraint can't be posted anymore, hence the reification needs its own
+ * instance of the knowledge base, which is created by the given factory for each call,
+ * e.g., {@code snapshot::instantiate} (see {@link at.tugraz.ist.ase.cacdr.snapshot.KnowledgeBaseSnapshot}).
+ * The constraints of the results are the constraints of the given model, so the results
+ * are interchangeable with the results of {@link FastDiagV2} and {@link FastDiagV3}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class OptimalDiag {
+
+    // for evaluation
+    public static final String TIMER_OPTIMALDIAG = "Timer for OptimalDiag:";
+    public static final String COUNTER_OPTIMALDIAG_CALLS = "The number of OptimalDiag calls:";
+    public static final String COUNTER_OPTIMALDIAG_BLOCKING = "The number of OptimalDiag blocking constraints:";
+    private static final Counter OPTIMALDIAG_CALLS = Counter.of(COUNTER_OPTIMALDIAG_CALLS);
+    private static final Counter OPTIMALDIAG_BLOCKING = Counter.of(COUNTER_OPTIMALDIAG_BLOCKING);
+
+    private final CDRModel model;
+    private final Callable<CDRModel> factory;
+    private final SessionContext context;
+
+    /**
+     * The weights of the constraints of C, the constraints without a weight have the weight 1
+     */
+    private final Map<Constraint, Integer> weights = new HashMap<>();
+
+    /**
+     * The maximum number of diagnoses returned by {@link #findAllDiagnoses(Set, Set)}, -1 - all optimal diagnoses
+     */
+    @Getter @Setter
+    private int maxNumberOfDiagnoses = -1;
+
+    /**
+     * @param model the knowledge base whose constraints are given to and returned by the algorithm
+     * @param factory creates new initialized instances of the knowledge base, with the constraints in the same order
+     */
+    public OptimalDiag(@NonNull CDRModel model, @NonNull Callable<CDRModel> factory) {
+        this(model, factory, SessionContext.global());
+    }
+
+    public OptimalDiag(@NonNull CDRModel model, @NonNull Callable<CDRModel> factory, @NonNull SessionContext context) {
+        this.model = model;
+        this.factory = factory;
+        this.context = context;
+    }
+
+    /**
+     * Sets the weights of the constraints, e.g., their priorities. A diagnosis with the
+     * lowest total weight is preferred.
+     */
+    public void setWeights(@NonNull Map<Constraint, Integer> weights) {
+        weights.forEach((constraint, weight) -> checkArgument(weight > 0, "The weight of %s must be positive", constraint));
+
+        this.weights.clear();
+        this.weights.putAll(weights);
+    }
+
+    /**
+     * Returns an optimal diagnosis, i.e., a cardinality-minimal diagnosis, or a diagnosis
+     * with the lowest total weight if weights are given.
+     *
+     * @param C a consideration set of constraints
+     * @param B a background knowledge
+     * @return an optimal diagnosis, or an empty set if B ∪ C is consistent or B is inconsistent
+     */
+    public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
+        List<Set<Constraint>> diagnoses = solve(C, B, 1);
+        return diagnoses.isEmpty() ? Collections.emptySet() : diagnoses.get(0);
+    }
+
+    /**
+     * Returns all optimal diagnoses, at most {@link #getMaxNumberOfDiagnoses()}.
+     *
+     * @param C a consideration set of constraints
+     * @param B a background knowledge
+     * @return the optimal diagnoses, or an empty list if B ∪ C is consistent or B is inconsistent
+     */
+    public List<Set<Constraint>> findAllDiagnoses(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
+        return solve(C, B, maxNumberOfDiagnoses);
+    }
+
+    private List<Set<Constraint>> solve(Set<Constraint> C, Set<Constraint> B, int max) {
+        if (C.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        AlgorithmEvent event = AlgorithmEvent.begin("OptimalDiag", C, B);
+
+        log.debug("{}Identifying optimal diagnoses for [C={}, B={}] >>>", context.tab(), C, B);
+        context.indent();
+
+        context.increment(OPTIMALDIAG_CALLS);
+        context.start(TIMER_OPTIMALDIAG);
+
+        List<Set<Constraint>> diagnoses = new ArrayList<>();
+        try {
+            Instance instance = new Instance(createInstance());
+            instance.post(C, B);
+
+            Solver solver = instance.chocoModel.getSolver();
+            context.increment(CHOCO_SOLVER_CALLS);
+            Solution optimum = solver.findOptimalSolution(instance.cost, Model.MINIMIZE);
+
+            if (optimum == null) {
+                log.debug("{}B is inconsistent", context.tab());
+            } else if (optimum.getIntVal(instance.cost) > 0) {
+                int best = optimum.getIntVal(instance.cost);
+                diagnoses.add(instance.relaxed(optimum));
+                log.trace("{}Found optimal diagnosis [cost={}, diag={}]", context.tab(), best, diagnoses.get(0));
+
+                // enumerate the other diagnoses with the same cost
+                solver.reset();
+                instance.chocoModel.clearObjective();
+                instance.chocoModel.arithm(instance.cost, "=", best).post();
+                while (max == -1 || diagnoses.size() < max) {
+                    instance.block(diagnoses.get(diagnoses.size() - 1));
+
+                    context.increment(CHOCO_SOLVER_CALLS);
+                    Solution solution = solver.findSolution();
+                    if (solution == null) {
+                        break;
+                    }
+                    diagnoses.add(instance.relaxed(solution));
+                    solver.reset();
+                }
+            }
+        } finally {
+            context.stop(TIMER_OPTIMALDIAG);
+        }
+
+        context.outdent();
+        log.debug("{}<<< Found optimal diagnoses [diagnoses={}]", context.tab(), diagnoses);
+
+        event.finish(diagnoses.isEmpty() ? Collections.emptySet() : diagnoses.get(0));
+        return diagnoses;
+    }
+
+    private CDRModel createInstance() {
+        try {
+            return factory.call();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create an instance of " + model, e);
+        }
+    }
+
+    /**
+     * A new instance of the knowledge base with the selector variables.
+     */
+    private class Instance {
+        private final Model chocoModel;
+        private final Map<Constraint, Constraint> translation = new IdentityHashMap<>();
+
+        private final Map<Constraint, BoolVar> selectors = new LinkedHashMap<>();
+        private IntVar cost;
+
+        private Instance(CDRModel instance) {
+            this.chocoModel = ((IChocoModel) instance).getModel();
+            chocoModel.unpost(chocoModel.getCstrs());
+
+            List<Constraint> own = new ArrayList<>(instance.getAllConstraints());
+            List<Constraint> given = new ArrayList<>(model.getAllConstraints());
+            checkArgument(own.size() == given.size(), "The factory creates a different knowledge base");
+            for (int i = 0; i < own.size(); i++) {
+                translation.put(given.get(i), own.get(i));
+            }
+        }
+
+        private void post(Set<Constraint> C, Set<Constraint> B) {
+            for (Constraint constraint : B) {
+                translate(constraint).getChocoConstraints().forEach(chocoModel::post);
+            }
+
+            BoolVar[] relaxed = new BoolVar[C.size()];
+            int[] coefficients = new int[C.size()];
+            int i = 0;
+            for (Constraint constraint : C) {
+                List<org.chocosolver.solver.constraints.Constraint> chocoConstraints = translate(constraint).getChocoConstraints();
+                BoolVar selector = chocoConstraints.size() == 1
+                        ? chocoConstraints.get(0).reify()
+                        : chocoModel.and(chocoConstraints.toArray(new org.chocosolver.solver.constraints.Constraint[0])).reify();
+                selectors.put(constraint, selector);
+
+                relaxed[i] = selector.not();
+                coefficients[i] = weights.getOrDefault(constraint, 1);
+                i++;
+            }
+
+            cost = chocoModel.intVar("cost", 0, Arrays.stream(coefficients).sum());
+            chocoModel.scalar(relaxed, coefficients, "=", cost).post();
+        }
+
+        /**
+         * Returns the constraints relaxed by the solution.
+         */
+        private Set<Constraint> relaxed(Solution solution) {
+            Set<Constraint> diag = new LinkedHashSet<>();
+            selectors.forEach((constraint, selector) -> {
+                if (solution.getIntVal(selector) == 0) {
+                    diag.add(constraint);
+                }
+            });
+            return diag;
+        }
+
+        /**
+         * Excludes the given diagnosis, i.e., at least one of its constraints has to hold.
+         */
+        private void block(Set<Constraint> diag) {
+            BoolVar[] kept = diag.stream().map(selectors::get).toArray(BoolVar[]::new);
+            chocoModel.addClausesBoolOrArrayEqualTrue(kept);
+            context.increment(OPTIMALDIAG_BLOCKING);
+        }
+
+        private Constraint translate(Constraint constraint) {
+            Constraint own = translation.get(constraint);
+            checkArgument(own != null, "%s isn't a constraint of the knowledge base", constraint);
+            return own;
+        }
+    }
+}
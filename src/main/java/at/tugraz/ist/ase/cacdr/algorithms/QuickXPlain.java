@@ -8,8 +8,11 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms;
 
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
-import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.events.AlgorithmEvent;
+import at.tugraz.ist.ase.cacdr.eval.events.RecursionStepEvent;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import com.google.common.collect.Sets;
 import lombok.NonNull;
@@ -52,11 +55,14 @@ public class QuickXPlain {
     // for evaluation
     public static final String TIMER_QUICKXPLAIN = "Timer for QX:";
     public static final String COUNTER_QUICKXPLAIN_CALLS = "The number of QX calls:";
+    private static final Counter QUICKXPLAIN_CALLS = Counter.of(COUNTER_QUICKXPLAIN_CALLS);
 
-    protected final ChocoConsistencyChecker checker;
+    protected final IConsistencyChecker checker;
+    protected final SessionContext context;
 
-    public QuickXPlain(@NonNull ChocoConsistencyChecker checker) {
+    public QuickXPlain(@NonNull IConsistencyChecker checker) {
         this.checker = checker;
+        this.context = checker.getContext();
     }
 
     /**
@@ -70,27 +76,31 @@ public class QuickXPlain {
      * @return a conflict set or an empty set
      */
     public Set<Constraint> findConflictSet(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
-        log.debug("{}Identifying conflict for [C={}, B={}] >>>", LoggerUtils.tab, C, B);
-        LoggerUtils.indent();
+        AlgorithmEvent event = AlgorithmEvent.begin("QuickXPlain", C, B);
 
-        Set<Constraint> BwithC = Sets.union(B, C); incrementCounter(COUNTER_UNION_OPERATOR);
+        log.debug("{}Identifying conflict for [C={}, B={}] >>>", context.tab(), C, B);
+        context.indent();
+
+        Set<Constraint> BwithC = Sets.union(B, C); context.increment(UNION_OPERATOR);
 
         //IF (is empty(C) or consistent(B ∪ C)) return Φ
         if (C.isEmpty() || checker.isConsistent(BwithC)) {
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< No conflict found", LoggerUtils.tab);
+            context.outdent();
+            log.debug("{}<<< No conflict found", context.tab());
 
+            event.finish(Collections.emptySet());
             return Collections.emptySet();
         } else { //ELSE return QX(Φ, C, B)
-            incrementCounter(COUNTER_QUICKXPLAIN_CALLS);
-            start(TIMER_QUICKXPLAIN);
+            context.increment(QUICKXPLAIN_CALLS);
+            context.start(TIMER_QUICKXPLAIN);
             Set<Constraint> cs = qx(Collections.emptySet(), C, B);
-            stop(TIMER_QUICKXPLAIN);
+            context.stop(TIMER_QUICKXPLAIN);
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< Found conflict [conflict={}]", LoggerUtils.tab, cs);
+            context.outdent();
+            log.debug("{}<<< Found conflict [conflict={}]", context.tab(), cs);
 
+            event.finish(cs);
             return cs;
         }
     }
@@ -111,15 +121,16 @@ public class QuickXPlain {
      * @return a conflict set or an empty set
      */
     private Set<Constraint> qx(Set<Constraint> D, Set<Constraint> C, Set<Constraint> B) {
-        log.trace("{}QX [D={}, C={}, B={}] >>>", LoggerUtils.tab, D, C, B);
-        LoggerUtils.indent();
+        log.trace("{}QX [D={}, C={}, B={}] >>>", context.tab(), D, C, B);
+        RecursionStepEvent.emit("QuickXPlain", C, B);
+        context.indent();
 
         //IF (Δ != Φ AND inconsistent(B)) return Φ;
         if ( !D.isEmpty() ) {
-            incrementCounter(COUNTER_CONSISTENCY_CHECKS);
+            context.increment(CONSISTENCY_CHECKS);
             if (!checker.isConsistent(B)) {
-                LoggerUtils.outdent();
-                log.trace("{}<<< return Φ", LoggerUtils.tab);
+                context.outdent();
+                log.trace("{}<<< return Φ", context.tab());
 
                 return Collections.emptySet();
             }
@@ -128,8 +139,8 @@ public class QuickXPlain {
         // if singleton(C) return C;
         int q = C.size();
         if (q == 1) {
-            LoggerUtils.outdent();
-            log.trace("{}<<< return [{}]", LoggerUtils.tab, C);
+            context.outdent();
+            log.trace("{}<<< return [{}]", context.tab(), C);
 
             return C;
         }
@@ -140,26 +151,26 @@ public class QuickXPlain {
         List<Constraint> secondSubList = new ArrayList<>(C).subList(k, q);
         Set<Constraint> C1 = new LinkedHashSet<>(firstSubList);
         Set<Constraint> C2 = new LinkedHashSet<>(secondSubList);
-        incrementCounter(COUNTER_SPLIT_SET);
-        log.trace("{}Split C into [C1={}, C2={}]", LoggerUtils.tab, C1, C2);
+        context.increment(SPLIT_SET);
+        log.trace("{}Split C into [C1={}, C2={}]", context.tab(), C1, C2);
 
         // CS1 <-- QX(C2, C1, B ∪ C2);
-        Set<Constraint> BwithC2 = Sets.union(B, C2); incrementCounter(COUNTER_UNION_OPERATOR);
-        incrementCounter(COUNTER_LEFT_BRANCH_CALLS);
-        incrementCounter(COUNTER_QUICKXPLAIN_CALLS);
+        Set<Constraint> BwithC2 = Sets.union(B, C2); context.increment(UNION_OPERATOR);
+        context.increment(LEFT_BRANCH_CALLS);
+        context.increment(QUICKXPLAIN_CALLS);
         Set<Constraint> CS1 = qx(C2, C1, BwithC2);
 
         // CS2 <-- QX(CS1, C2, B ∪ CS1);
-        Set<Constraint> BwithCS1 = Sets.union(B, CS1); incrementCounter(COUNTER_UNION_OPERATOR);
-        incrementCounter(COUNTER_RIGHT_BRANCH_CALLS);
-        incrementCounter(COUNTER_QUICKXPLAIN_CALLS);
+        Set<Constraint> BwithCS1 = Sets.union(B, CS1); context.increment(UNION_OPERATOR);
+        context.increment(RIGHT_BRANCH_CALLS);
+        context.increment(QUICKXPLAIN_CALLS);
         Set<Constraint> CS2 = qx(CS1, C2, BwithCS1);
 
-        LoggerUtils.outdent();
-        log.trace("{}<<< return [CS1={} ∪ CS2={}]", LoggerUtils.tab, CS1, CS2);
+        context.outdent();
+        log.trace("{}<<< return [CS1={} ∪ CS2={}]", context.tab(), CS1, CS2);
 
         //return (CS1 ∪ CS2)
-        incrementCounter(COUNTER_UNION_OPERATOR);
+        context.increment(UNION_OPERATOR);
         return Sets.union(CS1, CS2);
     }
 
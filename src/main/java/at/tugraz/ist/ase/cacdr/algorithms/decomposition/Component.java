@@ -0,0 +1,29 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.decomposition;
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A connected component of the constraint graph, i.e., the possibly faulty constraints C
+ * and the correct constraints B over a set of variables which no other component uses.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+@ToString
+public class Component {
+    private final Set<Constraint> C = new LinkedHashSet<>();
+    private final Set<Constraint> B = new LinkedHashSet<>();
+}
@@ -0,0 +1,126 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.decomposition;
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.*;
+
+/**
+ * Decomposes a knowledge base into the connected components of its variable-sharing graph,
+ * in which two constraints are adjacent if they share a variable.
+ *
+ * A minimal conflict is inconsistent only with all of its constraints, hence it lies in a single
+ * component, and a minimal diagnosis is the union of minimal diagnoses of the inconsistent components.
+ *
+ * A view, e.g., x + 1, is a variable of its own in the propagators, hence the views are resolved
+ * to the variables they are defined on.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@UtilityClass
+public class ConstraintGraph {
+
+    /**
+     * Returns the components with at least one constraint of C, in the order of their first constraint in C.
+     * The components consisting of constraints of B only are omitted.
+     */
+    public List<Component> decompose(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
+        List<Constraint> constraints = new ArrayList<>(C.size() + B.size());
+        constraints.addAll(C);
+        constraints.addAll(B);
+
+        // union-find over the constraints, joining the constraints of each variable
+        int[] parent = new int[constraints.size()];
+        int[] size = new int[constraints.size()];
+        Map<Variable, Integer> firstConstraint = new IdentityHashMap<>();
+        Map<Variable, List<Variable>> viewed = new IdentityHashMap<>();
+        Set<Model> indexed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < constraints.size(); i++) {
+            parent[i] = i;
+            size[i] = 1;
+            for (org.chocosolver.solver.constraints.Constraint chocoConstraint : constraints.get(i).getChocoConstraints()) {
+                for (Propagator<?> propagator : chocoConstraint.getPropagators()) {
+                    for (Variable var : propagator.getVars()) {
+                        for (Variable resolved : resolve(var, viewed, indexed)) {
+                            Integer first = firstConstraint.putIfAbsent(resolved, i);
+                            if (first != null) {
+                                union(parent, size, first, i);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Integer, Component> components = new LinkedHashMap<>();
+        for (int i = 0; i < constraints.size(); i++) {
+            int root = find(parent, i);
+            if (i < C.size()) {
+                components.computeIfAbsent(root, k -> new Component()).getC().add(constraints.get(i));
+            } else if (components.containsKey(root)) {
+                components.get(root).getB().add(constraints.get(i));
+            }
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    /**
+     * Returns the variables which the given variable is defined on, i.e., the variable itself if it isn't a view.
+     * @param viewed the variables of the views of the indexed models
+     */
+    private List<Variable> resolve(Variable var, Map<Variable, List<Variable>> viewed, Set<Model> indexed) {
+        if ((var.getTypeAndKind() & Variable.VIEW) == 0) {
+            return List.of(var);
+        }
+
+        if (indexed.add(var.getModel())) {
+            for (Variable other : var.getModel().getVars()) {
+                for (int i = 0; i < other.getNbViews(); i++) {
+                    viewed.computeIfAbsent((Variable) other.getView(i), k -> new ArrayList<>()).add(other);
+                }
+            }
+        }
+
+        List<Variable> resolved = new ArrayList<>();
+        for (Variable underlying : viewed.getOrDefault(var, List.of(var))) {
+            // a view of a view
+            resolved.addAll(underlying == var ? List.of(var) : resolve(underlying, viewed, indexed));
+        }
+        return resolved;
+    }
+
+    private int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int[] parent, int[] size, int i, int j) {
+        int rootI = find(parent, i);
+        int rootJ = find(parent, j);
+        if (rootI == rootJ) {
+            return;
+        }
+        if (size[rootI] < size[rootJ]) {
+            int tmp = rootI;
+            rootI = rootJ;
+            rootJ = tmp;
+        }
+        parent[rootJ] = rootI;
+        size[rootI] += size[rootJ];
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.decomposition;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.service.WarmChecker;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Identifies conflicts and diagnoses per connected component of the constraint graph
+ * (see {@link ConstraintGraph}), and combines the results of the components:
+ * <ul>
+ *     <li>a conflict is a conflict of a component,</li>
+ *     <li>a diagnosis is the union of a diagnosis of each inconsistent component,</li>
+ *     <li>all diagnoses are the cross product of the diagnoses of the inconsistent components.</li>
+ * </ul>
+ *
+ * The components are solved in parallel. Since a checker posts and unposts the constraints of
+ * its Choco model, the first component is solved on the given knowledge base in the calling thread,
+ * and each other component on a new instance created by the factory, e.g., {@code snapshot::instantiate}
+ * (see {@link at.tugraz.ist.ase.cacdr.snapshot.KnowledgeBaseSnapshot}). The constraints of the results
+ * are the constraints of the given knowledge base. The counters of the other components are added
+ * to the counters of the given context, their timers are omitted since they overlap.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class DecomposedDiagnosis {
+
+    // for evaluation
+    public static final String TIMER_DECOMPOSITION = "Timer for decomposition:";
+    public static final String COUNTER_COMPONENTS = "The number of components:";
+    private static final Counter COMPONENTS = Counter.of(COUNTER_COMPONENTS);
+
+    private final CDRModel model;
+    private final Callable<CDRModel> factory;
+    private final ExecutorService executor;
+    private final SessionContext context;
+
+    /**
+     * The maximum number of diagnoses returned by {@link #findAllDiagnoses(Set, Set)}, -1 - all diagnoses
+     */
+    @Getter @Setter
+    private int maxNumberOfDiagnoses = -1;
+
+    /**
+     * @param model the knowledge base whose constraints are given to and returned by the algorithm
+     * @param factory creates new initialized instances of the knowledge base, with the constraints in the same order
+     * @param executor runs the components other than the first one
+     */
+    public DecomposedDiagnosis(@NonNull CDRModel model, @NonNull Callable<CDRModel> factory,
+                               @NonNull ExecutorService executor) {
+        this(model, factory, executor, SessionContext.global());
+    }
+
+    /**
+     * @param context the session of the algorithm, which receives the counters of all components
+     */
+    public DecomposedDiagnosis(@NonNull CDRModel model, @NonNull Callable<CDRModel> factory,
+                               @NonNull ExecutorService executor, @NonNull SessionContext context) {
+        this.model = model;
+        this.factory = factory;
+        this.executor = executor;
+        this.context = context;
+    }
+
+    /**
+     * Returns a conflict of the first inconsistent component, or an empty set if B ∪ C is consistent.
+     */
+    public Set<Constraint> findConflictSet(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
+        List<List<Set<Constraint>>> results = solve(C, B,
+                (checker, componentC, componentB) -> List.of(new QuickXPlain(checker).findConflictSet(componentC, componentB)));
+
+        for (List<Set<Constraint>> conflicts : results) {
+            if (!conflicts.isEmpty()) {
+                return conflicts.get(0);
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * Returns all conflicts of all components.
+     */
+    public List<Set<Constraint>> findAllConflicts(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
+        List<List<Set<Constraint>>> results = solve(C, B, (checker, componentC, componentB) -> {
+            HSDAG hsdag = createHSDAG(checker, componentC, componentB);
+            hsdag.construct();
+            return hsdag.getConflicts();
+        });
+
+        List<Set<Constraint>> conflicts = new ArrayList<>();
+        results.forEach(conflicts::addAll);
+        return conflicts;
+    }
+
+    /**
+     * Returns the union of a diagnosis of each inconsistent component, or an empty set if B ∪ C is consistent.
+     */
+    public Set<Constraint> findDiagnosis(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
+        List<List<Set<Constraint>>> results = solve(C, B,
+                (checker, componentC, componentB) -> List.of(new FastDiagV3(checker).findDiagnosis(componentC, componentB)));
+
+        Set<Constraint> diag = new LinkedHashSet<>();
+        results.forEach(diagnoses -> diagnoses.forEach(diag::addAll));
+        return diag;
+    }
+
+    /**
+     * Returns the cross product of the diagnoses of the inconsistent components,
+     * at most {@link #getMaxNumberOfDiagnoses()}.
+     */
+    public List<Set<Constraint>> findAllDiagnoses(@NonNull Set<Constraint> C, @NonNull Set<Constraint> B) {
+        // the first maxNumberOfDiagnoses diagnoses of each component suffice for the cross product
+        List<List<Set<Constraint>>> results = solve(C, B, (checker, componentC, componentB) -> {
+            HSDAG hsdag = createHSDAG(checker, componentC, componentB);
+            hsdag.setMaxNumberOfDiagnoses(maxNumberOfDiagnoses);
+            hsdag.construct();
+            return hsdag.getDiagnoses();
+        });
+
+        List<Set<Constraint>> diagnoses = new ArrayList<>();
+        for (List<Set<Constraint>> componentDiagnoses : results) {
+            if (componentDiagnoses.isEmpty()) {
+                continue; // a consistent component
+            }
+            if (diagnoses.isEmpty()) {
+                diagnoses.add(Collections.emptySet());
+            }
+
+            // each diagnosis is extended at least once, so the product stops at the maximum
+            List<Set<Constraint>> product = new ArrayList<>();
+            for (Set<Constraint> diag : diagnoses) {
+                for (Set<Constraint> componentDiag : componentDiagnoses) {
+                    if (maxNumberOfDiagnoses != -1 && product.size() >= maxNumberOfDiagnoses) {
+                        break;
+                    }
+                    Set<Constraint> union = new LinkedHashSet<>(diag);
+                    union.addAll(componentDiag);
+                    product.add(union);
+                }
+            }
+            diagnoses = product;
+        }
+        return diagnoses;
+    }
+
+    /**
+     * Solves the components in parallel.
+     * @return the non-empty results of each component, in the order of the components
+     */
+    private List<List<Set<Constraint>>> solve(Set<Constraint> C, Set<Constraint> B, ComponentTask task) {
+        context.start(TIMER_DECOMPOSITION);
+        List<Component> components = ConstraintGraph.decompose(C, B);
+        context.stop(TIMER_DECOMPOSITION);
+        context.increment(COMPONENTS, components.size());
+
+        log.debug("{}Decomposed [C={}] into {} components", context.tab(), C, components.size());
+        if (components.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Future<List<Set<Constraint>>>> futures = new ArrayList<>();
+        List<SessionContext> contexts = new ArrayList<>();
+        try {
+            for (Component component : components.subList(1, components.size())) {
+                SessionContext instanceContext = context.isInstrumented() ? SessionContext.create() : SessionContext.disabled();
+                contexts.add(instanceContext);
+                futures.add(executor.submit(() -> solveOnInstance(component, task, instanceContext)));
+            }
+
+            List<List<Set<Constraint>>> results = new ArrayList<>();
+            results.add(solveOnModel(components.get(0), task));
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(futures.get(i).get());
+                addCounters(contexts.get(i));
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Cannot solve a component", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving the components", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<Set<Constraint>> solveOnModel(Component component, ComponentTask task) {
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(model, context);
+        try {
+            return nonEmpty(task.solve(checker, component.getC(), component.getB()));
+        } finally {
+            checker.dispose();
+        }
+    }
+
+    private List<Set<Constraint>> solveOnInstance(Component component, ComponentTask task,
+                                                  SessionContext instanceContext) throws Exception {
+        WarmChecker instance = new WarmChecker(factory.call(), model, instanceContext);
+        try {
+            List<Constraint> C = new ArrayList<>(component.getC());
+            List<Constraint> ownC = new ArrayList<>(instance.translate(C));
+            Map<Constraint, Constraint> translation = new IdentityHashMap<>();
+            for (int i = 0; i < C.size(); i++) {
+                translation.put(ownC.get(i), C.get(i));
+            }
+
+            List<Set<Constraint>> results = task.solve(instance.getChecker(), new LinkedHashSet<>(ownC),
+                    new LinkedHashSet<>(instance.translate(component.getB())));
+
+            // back to the constraints of the given knowledge base
+            List<Set<Constraint>> translated = new ArrayList<>(results.size());
+            for (Set<Constraint> result : results) {
+                Set<Constraint> set = new LinkedHashSet<>();
+                result.forEach(constraint -> set.add(translation.get(constraint)));
+                translated.add(set);
+            }
+            return nonEmpty(translated);
+        } finally {
+            instance.dispose();
+        }
+    }
+
+    /**
+     * Adds the counters of a component solved on another instance to the counters of the context.
+     */
+    private void addCounters(SessionContext instanceContext) {
+        if (instanceContext.getEvaluator() instanceof SessionEvaluator evaluator) {
+            evaluator.getCounters().forEach((name, value) -> context.incrementCounter(name, Math.toIntExact(value)));
+        }
+    }
+
+    private List<Set<Constraint>> nonEmpty(List<Set<Constraint>> results) {
+        List<Set<Constraint>> nonEmpty = new ArrayList<>(results.size());
+        for (Set<Constraint> result : results) {
+            if (!result.isEmpty()) {
+                nonEmpty.add(result);
+            }
+        }
+        return nonEmpty;
+    }
+
+    private HSDAG createHSDAG(IConsistencyChecker checker, Set<Constraint> C, Set<Constraint> B) {
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        return new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+    }
+
+    /**
+     * An algorithm run on a component.
+     */
+    @FunctionalInterface
+    private interface ComponentTask {
+        List<Set<Constraint>> solve(IConsistencyChecker checker, Set<Constraint> C, Set<Constraint> B);
+    }
+}
@@ -9,8 +9,10 @@
 package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
 
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -39,6 +41,11 @@ public abstract class AbstractHSConstructor {
     public static final String COUNTER_REUSE_NODES = "The number of reused nodes:";
     public static final String COUNTER_PRUNING = "The number of pruning paths:";
     public static final String COUNTER_CLEANED_NODES = "The number of cleaned nodes:";
+    public static final String COUNTER_EVICTED_NODES = "The number of evicted nodes:";
+    public static final String COUNTER_EVICTIONS = "The number of evictions:";
+    public static final String COUNTER_RECOMPUTED_PARAMETERS = "The number of recomputed parameters:";
+
+    public static final String GAUGE_OPEN_NODES = "The number of open nodes:";
 
     @Setter
     private int maxNumberOfDiagnoses = -1; // -1 - all diagnoses
@@ -48,6 +55,16 @@ public abstract class AbstractHSConstructor {
     @Setter
     private int maxDepth = 0;
 
+    /**
+     * The maximal number of processed nodes holding their labeler parameters, 0 - unbounded.
+     * The parameters dominate the footprint of the construction, since each of them
+     * holds the constraint sets of the labeler. If more nodes hold parameters, the HS constructor
+     * releases the parameters, which can be regenerated from the path labels of the nodes.
+     * The nodes waiting for their expansion keep their parameters.
+     */
+    @Setter
+    private int maxNodesWithParameters = 0;
+
     /**
      * Use setter to preset known conflicts
      */
@@ -55,12 +72,19 @@ public abstract class AbstractHSConstructor {
     private List<Set<Constraint>> conflicts = new LinkedList<>(); // labels/F
     private final List<Set<Constraint>> diagnoses = new LinkedList<>();
 
+    @Setter(AccessLevel.PROTECTED)
     private IHSLabelable labeler;
-    private ChocoConsistencyChecker checker;
+    private IConsistencyChecker checker;
+
+    /**
+     * The session of the construction, i.e., the session of the checker
+     */
+    protected final SessionContext context;
 
-    public AbstractHSConstructor(IHSLabelable labeler, ChocoConsistencyChecker checker) {
+    public AbstractHSConstructor(IHSLabelable labeler, IConsistencyChecker checker) {
         this.labeler = labeler;
         this.checker = checker;
+        this.context = checker != null ? checker.getContext() : SessionContext.global();
     }
 
     /**
@@ -0,0 +1,243 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.MeasuredLabeler;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An HS constructor which switches between conflict-based labeling (e.g., QuickXPlainLabeler)
+ * and diagnosis-based labeling (e.g., FastDiagV3Labeler) during the construction.
+ *
+ * Since the labels of an HS-dag have to be of the same kind, the constructor maintains
+ * a primal HS-dag labeled with conflicts and a dual HS-dag labeled with diagnoses,
+ * and constructs them in slices of a fixed number of labeler calls. Before each slice,
+ * the HS-dag with the lower measured cost per identified diagnosis is chosen.
+ * If no diagnosis is identified yet, the cost is estimated by the average labeling time
+ * multiplied by the average branching factor. After each slice, the diagnoses of the primal
+ * HS-dag are passed to the dual HS-dag as reusable labels, and vice versa for the conflicts.
+ * The construction ends when one of the HS-dags is complete, hence the diagnoses are
+ * the same as the diagnoses of the HS-dag with the conflict labeler.
+ *
+ * The HS-dags record {@link #TIMER_HS_CONSTRUCTION_SESSION} and {@link #TIMER_DIAGNOSIS} per slice,
+ * and the whole construction is recorded by {@link #TIMER_ADAPTIVE_CONSTRUCTION}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class AdaptiveHSConstructor extends AbstractHSConstructor {
+
+    public static final String TIMER_ADAPTIVE_CONSTRUCTION = "Timer for adaptive HS construction:";
+    public static final String COUNTER_SLICES = "The number of construction slices:";
+    public static final String COUNTER_SWITCHES = "The number of labeling switches:";
+
+    /**
+     * The number of labeler calls of a slice
+     */
+    @Getter @Setter
+    private int sliceSize = 10;
+
+    /**
+     * true - if the conflict labeler was used in the last slice
+     */
+    @Getter
+    private boolean conflictBasedLabeling = true;
+
+    private final SlicedHSDAG primal;
+    private final SlicedHSDAG dual;
+
+    /**
+     * @param conflictLabeler a labeler returning conflicts, e.g., {@link at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler}
+     * @param diagnosisLabeler a labeler returning diagnoses, e.g., {@link at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.FastDiagV3Labeler}
+     * @param checker an {@link IConsistencyChecker} object
+     */
+    public AdaptiveHSConstructor(IHSLabelable conflictLabeler, IHSLabelable diagnosisLabeler, IConsistencyChecker checker) {
+        super(conflictLabeler, checker);
+
+        checkArgument(conflictLabeler.getInitialParameters().getC().equals(diagnosisLabeler.getInitialParameters().getC()),
+                "The labelers must have the same set C");
+
+        this.primal = new SlicedHSDAG(new MeasuredLabeler(conflictLabeler), checker, true);
+        this.dual = new SlicedHSDAG(new MeasuredLabeler(diagnosisLabeler), checker, false);
+    }
+
+    @Override
+    public void construct() {
+        log.debug("{}Constructing the adaptive HS-dags for [C={}] >>>", context.tab(), getLabeler().getInitialParameters().getC());
+        context.indent();
+
+        context.start(TIMER_ADAPTIVE_CONSTRUCTION);
+
+        SlicedHSDAG current = null;
+        while (!primal.isCompleted() && !dual.isCompleted() && !stopConstruction()) {
+            SlicedHSDAG next = choose();
+            if (current != null && next != current) {
+                context.incrementCounter(COUNTER_SWITCHES);
+            }
+            current = next;
+            conflictBasedLabeling = current.isConflictBased();
+
+            log.trace("{}Slice with the {} labeler", context.tab(), current.isConflictBased() ? "conflict" : "diagnosis");
+            context.incrementCounter(COUNTER_SLICES);
+            current.constructSlice(sliceSize);
+
+            exchangeLabels();
+            collectResults();
+        }
+
+        context.outdent();
+        log.debug("{}<<< return [conflicts={}]", context.tab(), getConflicts());
+        log.debug("{}<<< return [diagnoses={}]", context.tab(), getDiagnoses());
+
+        context.stop(TIMER_ADAPTIVE_CONSTRUCTION);
+    }
+
+    private SlicedHSDAG choose() {
+        // measure both labelers first
+        if (primal.getMeasuredLabeler().getCalls() == 0) {
+            return primal;
+        }
+        if (dual.getMeasuredLabeler().getCalls() == 0) {
+            return dual;
+        }
+        return primal.getCostPerDiagnosis() <= dual.getCostPerDiagnosis() ? primal : dual;
+    }
+
+    /**
+     * The diagnoses of the primal HS-dag are labels of the dual HS-dag, and vice versa.
+     * A label smaller than an existing label replaces it, as if the labeler had returned it.
+     */
+    private void exchangeLabels() {
+        seed(dual, primal.getDiagnoses());
+        seed(primal, dual.getDiagnoses());
+    }
+
+    private void seed(SlicedHSDAG hsdag, List<Set<Constraint>> labels) {
+        if (!labels.isEmpty()) {
+            hsdag.addMinimalConflicts(new LinkedList<>(labels));
+        }
+    }
+
+    private void collectResults() {
+        List<Set<Constraint>> diagnoses = new ArrayList<>(union(primal.getDiagnoses(), dual.getConflicts()));
+        diagnoses.sort(Comparator.comparingInt(Set::size));
+        if (getMaxNumberOfDiagnoses() != -1 && diagnoses.size() > getMaxNumberOfDiagnoses()) {
+            diagnoses = diagnoses.subList(0, getMaxNumberOfDiagnoses());
+        }
+
+        getDiagnoses().clear();
+        getDiagnoses().addAll(diagnoses);
+        getConflicts().clear();
+        getConflicts().addAll(union(primal.getConflicts(), dual.getDiagnoses()));
+    }
+
+    private Set<Set<Constraint>> union(List<Set<Constraint>> first, List<Set<Constraint>> second) {
+        Set<Set<Constraint>> union = new LinkedHashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+
+    @Override
+    protected void addConflicts(Collection<Set<Constraint>> conflicts) {
+        getConflicts().addAll(conflicts);
+    }
+
+    @Override
+    protected void addItemToCSNodesMap(Set<Constraint> cs, Node node) {
+        // the nodes belong to the HS-dags
+    }
+
+    @Override
+    public void resetEngine() {
+        super.resetEngine();
+        primal.resetEngine();
+        dual.resetEngine();
+        conflictBasedLabeling = true;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        primal.dispose();
+        dual.dispose();
+    }
+
+    /**
+     * An HS-dag which pauses its construction after a given number of labeler calls.
+     * The next call of {@link #construct()} resumes the construction.
+     */
+    @Getter
+    private static class SlicedHSDAG extends HSDAG {
+        private final MeasuredLabeler measuredLabeler;
+        private final boolean conflictBased;
+
+        private long sliceEnd = Long.MAX_VALUE;
+        private boolean paused = false;
+        private boolean completed = false;
+
+        private SlicedHSDAG(MeasuredLabeler labeler, IConsistencyChecker checker, boolean conflictBased) {
+            super(labeler, checker);
+            this.measuredLabeler = labeler;
+            this.conflictBased = conflictBased;
+        }
+
+        private void constructSlice(int sliceSize) {
+            sliceEnd = measuredLabeler.getCalls() + sliceSize;
+            paused = false;
+
+            construct();
+
+            completed = !paused;
+        }
+
+        @Override
+        public boolean stopConstruction() {
+            if (measuredLabeler.getCalls() >= sliceEnd) {
+                paused = true;
+                return true;
+            }
+            return super.stopConstruction();
+        }
+
+        /**
+         * Returns the number of diagnoses identified by this HS-dag,
+         * i.e., the diagnoses of the primal HS-dag, or the labels computed by the dual HS-dag.
+         */
+        private long getFoundDiagnoses() {
+            return conflictBased ? getDiagnoses().size() : measuredLabeler.getLabels();
+        }
+
+        private double getCostPerDiagnosis() {
+            long found = getFoundDiagnoses();
+            if (found == 0) {
+                return measuredLabeler.getNanos() * Math.max(1, measuredLabeler.getAverageLabelSize());
+            }
+            return (double) measuredLabeler.getNanos() / found;
+        }
+
+        @Override
+        public void resetEngine() {
+            super.resetEngine();
+            measuredLabeler.reset();
+            sliceEnd = Long.MAX_VALUE;
+            paused = false;
+            completed = false;
+        }
+    }
+}
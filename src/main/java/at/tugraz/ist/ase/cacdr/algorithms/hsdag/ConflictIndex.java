@@ -0,0 +1,143 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.NonNull;
+
+import java.util.*;
+
+/**
+ * An inverted index over a list of conflicts, which maps each constraint to the bitset
+ * of the conflicts containing the constraint.
+ *
+ * The index finds the supersets, the subsets, and the conflicts disjoint with a given set
+ * by combining the bitsets of the set's constraints, without iterating over all conflicts.
+ * Conflicts are numbered in the order of insertion, so that the results keep the order
+ * of the indexed list.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class ConflictIndex {
+
+    private final List<Set<Constraint>> conflicts = new ArrayList<>();
+    private final Map<Constraint, BitSet> postings = new HashMap<>();
+    private final BitSet live = new BitSet();
+
+    /**
+     * Adds a conflict to the index.
+     * @param conflict a conflict
+     */
+    public void add(@NonNull Set<Constraint> conflict) {
+        int id = conflicts.size();
+        conflicts.add(conflict);
+        live.set(id);
+
+        for (Constraint c : conflict) {
+            postings.computeIfAbsent(c, k -> new BitSet()).set(id);
+        }
+    }
+
+    /**
+     * Returns the indexed conflicts which are proper supersets of the given set.
+     * @param set a set of constraints
+     * @return the proper supersets of the given set in the order of insertion
+     */
+    public List<Set<Constraint>> getSupersets(@NonNull Set<Constraint> set) {
+        List<Set<Constraint>> supersets = new LinkedList<>();
+        for (int id : getSupersetIds(set)) {
+            if (conflicts.get(id).size() > set.size()) {
+                supersets.add(conflicts.get(id));
+            }
+        }
+        return supersets;
+    }
+
+    /**
+     * Returns <code>true</code> if an indexed conflict is a subset of (or equal to) the given set.
+     * @param set a set of constraints
+     * @return <code>true</code> if the index contains a subset of the given set
+     */
+    public boolean hasSubset(@NonNull Set<Constraint> set) {
+        // counts, for each conflict, the number of its constraints belonging to the set
+        Map<Integer, Integer> hits = new HashMap<>();
+        for (Constraint c : set) {
+            BitSet posting = postings.get(c);
+            if (posting == null) {
+                continue;
+            }
+            for (int id = posting.nextSetBit(0); id >= 0; id = posting.nextSetBit(id + 1)) {
+                int count = hits.merge(id, 1, Integer::sum);
+                if (count == conflicts.get(id).size()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the indexed conflicts which have no constraint in common with the given set.
+     * @param set a set of constraints
+     * @param onlyFirst true - to return only the first such conflict
+     * @return the conflicts disjoint with the given set in the order of insertion
+     */
+    public List<Set<Constraint>> getDisjointConflicts(@NonNull Set<Constraint> set, boolean onlyFirst) {
+        BitSet candidates = (BitSet) live.clone();
+        for (Constraint c : set) {
+            BitSet posting = postings.get(c);
+            if (posting != null) {
+                candidates.andNot(posting);
+            }
+        }
+
+        List<Set<Constraint>> disjoint = new LinkedList<>();
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            disjoint.add(conflicts.get(id));
+            if (onlyFirst) {
+                break;
+            }
+        }
+        return disjoint;
+    }
+
+    public int size() {
+        return conflicts.size();
+    }
+
+    public void clear() {
+        conflicts.clear();
+        postings.clear();
+        live.clear();
+    }
+
+    private List<Integer> getSupersetIds(Set<Constraint> set) {
+        BitSet ids = null;
+        for (Constraint c : set) {
+            BitSet posting = postings.get(c);
+            if (posting == null) {
+                return Collections.emptyList();
+            }
+            if (ids == null) {
+                ids = (BitSet) posting.clone();
+            } else {
+                ids.and(posting);
+            }
+        }
+        if (ids == null) { // the empty set
+            ids = (BitSet) live.clone();
+        }
+
+        List<Integer> result = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            result.add(id);
+        }
+        return result;
+    }
+}
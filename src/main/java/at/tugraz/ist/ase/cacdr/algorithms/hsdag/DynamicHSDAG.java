@@ -0,0 +1,189 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An HS-dag which keeps its conflicts and diagnoses between sequential diagnosis sessions,
+ * e.g., when the user of a configurator changes a requirement.
+ *
+ * After a change of C or B with {@link #update(IHSLabelable)}, only the conflicts and diagnoses
+ * which are invalidated by the change are dropped:
+ * - a conflict K is kept if K ⊆ C' and B' = B, since K ∪ B is still a minimal conflict.
+ * - if constraints are only added to B, i.e., B' ⊃ B, a conflict K is re-minimized with QuickXPlain
+ * over (K ∩ C') \ B' and B', since a subset of K could be a minimal conflict with B'.
+ * A conflict K whose (K ∩ C') \ B' is consistent with B' is dropped.
+ * - a diagnosis H is kept as a consistent set if (C' \ H) ∪ B' ⊆ (C \ H) ∪ B.
+ * The next {@link #construct()} repairs the DAG by labeling the nodes with the kept conflicts
+ * (the root included), and by closing the nodes whose path labels contain a kept diagnosis,
+ * so that the labeler is only called for the parts of the DAG affected by the change.
+ *
+ * The labeler has to return conflicts, i.e., it has to use {@link QuickXPlainParameters}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class DynamicHSDAG extends HSDAG {
+
+    public static final String COUNTER_RETAINED_CONFLICTS = "The number of retained conflicts:";
+    public static final String COUNTER_RETAINED_DIAGNOSES = "The number of retained diagnoses:";
+    public static final String COUNTER_CACHED_CONSISTENCY = "The number of cached consistency results:";
+
+    // sets of constraints whose removal from C is known to restore the consistency
+    private final List<Set<Constraint>> consistentHittingSets = new LinkedList<>();
+
+    public DynamicHSDAG(IHSLabelable labeler, IConsistencyChecker checker) {
+        super(labeler, checker);
+
+        checkArgument(labeler.getInitialParameters() instanceof QuickXPlainParameters,
+                "DynamicHSDAG requires a labeler with QuickXPlainParameters");
+    }
+
+    /**
+     * Starts a new diagnosis session for the changed C and B of the given labeler.
+     * The conflicts and diagnoses of the previous session which are still valid are kept.
+     * @param labeler a labeler with the new initial parameters
+     */
+    public void update(@NonNull IHSLabelable labeler) {
+        checkArgument(labeler.getInitialParameters() instanceof QuickXPlainParameters,
+                "DynamicHSDAG requires a labeler with QuickXPlainParameters");
+
+        QuickXPlainParameters oldParam = (QuickXPlainParameters) getLabeler().getInitialParameters();
+        QuickXPlainParameters newParam = (QuickXPlainParameters) labeler.getInitialParameters();
+
+        log.debug("{}Updating the HS-dag [C={}, B={}] >>>", context.tab(), newParam.getC(), newParam.getB());
+        context.indent();
+
+        // conflicts
+        List<Set<Constraint>> conflicts = new LinkedList<>();
+        if (newParam.getB().equals(oldParam.getB())) {
+            for (Set<Constraint> cs : getConflicts()) {
+                if (newParam.getC().containsAll(cs) && !conflicts.contains(cs)) {
+                    conflicts.add(cs);
+                }
+            }
+        } else if (newParam.getB().containsAll(oldParam.getB())) {
+            conflicts = reminimizeConflicts(getConflicts(), newParam);
+        }
+        // HS-dag keeps the conflicts which turned out to be non-minimal
+        List<Set<Constraint>> known = new ArrayList<>(conflicts);
+        conflicts.removeIf(cs -> known.stream().anyMatch(other -> other.size() < cs.size() && cs.containsAll(other)));
+
+        // diagnoses and known consistent sets
+        List<Set<Constraint>> consistentSets = new LinkedList<>();
+        for (Set<Constraint> hs : Iterables.concat(getDiagnoses(), consistentHittingSets)) {
+            if (isStillConsistent(hs, oldParam, newParam)) {
+                Set<Constraint> newHs = new LinkedHashSet<>(Sets.intersection(hs, newParam.getC()));
+                if (!consistentSets.contains(newHs)) {
+                    consistentSets.add(newHs);
+                }
+            }
+        }
+
+        resetEngine();
+        setLabeler(labeler);
+
+        setConflicts(conflicts);
+        consistentHittingSets.addAll(consistentSets);
+        context.incrementCounter(COUNTER_RETAINED_CONFLICTS, conflicts.size());
+        context.incrementCounter(COUNTER_RETAINED_DIAGNOSES, consistentSets.size());
+
+        context.outdent();
+        log.debug("{}<<< Retained [conflicts={}, consistent sets={}]", context.tab(), conflicts, consistentSets);
+    }
+
+    /**
+     * Re-minimizes the given conflicts w.r.t. a grown B', i.e., B' ⊃ B.
+     * Each conflict K is reduced to a minimal conflict of (K ∩ C') \ B' with B',
+     * which is also a minimal conflict of C' with B'.
+     * @param oldConflicts the conflicts of the previous session
+     * @param newParam the new initial parameters
+     * @return the re-minimized conflicts, without duplicates
+     */
+    private List<Set<Constraint>> reminimizeConflicts(List<Set<Constraint>> oldConflicts, QuickXPlainParameters newParam) {
+        QuickXPlain quickXPlain = new QuickXPlain(getChecker());
+        List<Set<Constraint>> conflicts = new LinkedList<>();
+
+        for (Set<Constraint> cs : oldConflicts) {
+            // a known conflict is a subset of cs, then cs gives no new minimal conflict
+            if (conflicts.stream().anyMatch(cs::containsAll)) {
+                continue;
+            }
+
+            Set<Constraint> C = new LinkedHashSet<>(Sets.difference(Sets.intersection(cs, newParam.getC()), newParam.getB()));
+            Set<Constraint> newCs = quickXPlain.findConflictSet(C, newParam.getB());
+
+            if (!newCs.isEmpty() && !conflicts.contains(newCs)) {
+                conflicts.add(newCs);
+                log.trace("{}Re-minimized [conflict={}, new conflict={}]", context.tab(), cs, newCs);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * (C' \ H) ∪ B' ⊆ (C \ H) ∪ B, then (C' \ H) ∪ B' is consistent
+     */
+    private boolean isStillConsistent(Set<Constraint> hs, QuickXPlainParameters oldParam, QuickXPlainParameters newParam) {
+        Set<Constraint> oldSet = Sets.union(Sets.difference(oldParam.getC(), hs), oldParam.getB());
+
+        return oldSet.containsAll(Sets.difference(newParam.getC(), hs))
+                && oldSet.containsAll(newParam.getB());
+    }
+
+    @Override
+    protected List<Set<Constraint>> getReusableRootConflicts() {
+        List<Set<Constraint>> conflicts = conflictIndex.getDisjointConflicts(Collections.emptySet(),
+                !getConflictSelectionStrategy().needsAllCandidates());
+        for (Set<Constraint> conflict : conflicts) {
+            context.incrementCounter(COUNTER_REUSE_CONFLICT);
+            log.trace("{}Reuse [conflict={}, node=root]", context.tab(), conflict);
+        }
+        return conflicts;
+    }
+
+    @Override
+    protected List<Set<Constraint>> computeLabel(Node node) {
+        // H(node) contains a known consistent set, then C' \ H(node) ∪ B' is consistent
+        for (Set<Constraint> hs : consistentHittingSets) {
+            if (node.getPathLabels().containsAll(hs)) {
+                context.incrementCounter(COUNTER_CACHED_CONSISTENCY);
+                log.trace("{}Cached consistency [hs={}, node={}]", context.tab(), hs, node);
+                return Collections.emptyList();
+            }
+        }
+
+        return super.computeLabel(node);
+    }
+
+    @Override
+    public void resetEngine() {
+        super.resetEngine();
+        this.consistentHittingSets.clear();
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        this.consistentHittingSets.clear();
+    }
+}
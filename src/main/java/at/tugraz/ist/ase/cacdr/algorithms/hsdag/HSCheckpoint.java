@@ -0,0 +1,237 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.INodeSelectionStrategy;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.experimental.UtilityClass;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Reads and writes the state of an HS-tree/HS-dag construction from/to a compact binary file.
+ *
+ * A checkpoint contains the constraint index, the node selection strategy and its state,
+ * the label of the root node, the conflicts, the diagnoses, the pending node, the open nodes,
+ * and (for the HS-dag) the node lookup.
+ * Constraints are stored as their indexes in the set C of the labeler's initial parameters,
+ * so that neither the labelers' parameters nor the tree structure have to be stored.
+ * Strings are stored as length-prefixed UTF-8 bytes, hence they aren't limited to 64 KB.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@UtilityClass
+public class HSCheckpoint {
+
+    private final int MAGIC = 0x48534350; // HSCP
+    private final int VERSION = 2;
+
+    /**
+     * Writes the state of the given HS constructor to the given file.
+     * The file is replaced atomically, so that a crash during writing keeps the previous checkpoint.
+     */
+    public void write(HSTree hsTree, Path file) throws IOException {
+        List<Constraint> index = new ArrayList<>(hsTree.getLabeler().getInitialParameters().getC());
+        Map<Constraint, Integer> ids = new HashMap<>();
+        for (int i = 0; i < index.size(); i++) {
+            ids.put(index.get(i), i);
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            // constraint index
+            out.writeInt(index.size());
+            for (Constraint c : index) {
+                writeString(out, c.toString());
+            }
+
+            // node selection strategy
+            INodeSelectionStrategy strategy = hsTree.getNodeSelectionStrategy();
+            writeString(out, strategy.getClass().getName());
+            strategy.writeState(out);
+
+            Node root = hsTree.getRoot();
+            writeSet(out, ids, root != null ? root.getLabel() : null);
+
+            writeSets(out, ids, hsTree.getConflicts());
+            writeSets(out, ids, hsTree.getDiagnoses());
+
+            // pending node
+            Node pending = hsTree.getPendingNode();
+            out.writeBoolean(pending != null);
+            if (pending != null) {
+                writeSet(out, ids, pending.getPathLabels());
+                writeSet(out, ids, pending.getLabel());
+            }
+
+            // open nodes
+            out.writeInt(hsTree.openNodes.size());
+            for (Node node : hsTree.openNodes) {
+                writeSet(out, ids, node.getPathLabels());
+            }
+
+            // lookup nodes, which are neither open nor pending
+            Set<Node> written = Collections.newSetFromMap(new IdentityHashMap<>());
+            written.addAll(hsTree.openNodes);
+            if (pending != null) {
+                written.add(pending);
+            }
+            List<Node> nodes = new ArrayList<>();
+            for (Node node : hsTree.getCheckpointNodes()) {
+                if (!written.contains(node)) {
+                    nodes.add(node);
+                }
+            }
+            out.writeInt(nodes.size());
+            for (Node node : nodes) {
+                writeSet(out, ids, node.getPathLabels());
+                out.writeByte(node.getStatus().ordinal());
+                writeSet(out, ids, node.getLabel());
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores the state stored in the given file into the given (reset) HS constructor.
+     */
+    public void read(HSTree hsTree, Path file) throws IOException {
+        List<Constraint> index = new ArrayList<>(hsTree.getLabeler().getInitialParameters().getC());
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            checkState(in.readInt() == MAGIC, "%s is not an HS checkpoint", file);
+            int version = in.readInt();
+            checkState(version == VERSION, "Unsupported checkpoint version %s", version);
+
+            // the constraint index has to match the labeler's initial parameters
+            int size = in.readInt();
+            checkState(size == index.size(), "The checkpoint has %s constraints, but C has %s constraints", size, index.size());
+            for (Constraint c : index) {
+                String name = readString(in);
+                checkState(name.equals(c.toString()), "The checkpoint doesn't match C [expected=%s, found=%s]", c, name);
+            }
+
+            // the node selection strategy has to be the one used when writing the checkpoint
+            INodeSelectionStrategy strategy = hsTree.getNodeSelectionStrategy();
+            String strategyName = readString(in);
+            checkState(strategyName.equals(strategy.getClass().getName()),
+                    "The checkpoint was written with the node selection strategy %s, but %s is used",
+                    strategyName, strategy.getClass().getName());
+            strategy.readState(in);
+
+            Set<Constraint> rootLabel = readSet(in, index);
+
+            List<Set<Constraint>> conflicts = readSets(in, index);
+            hsTree.addConflicts(conflicts);
+            hsTree.getDiagnoses().addAll(readSets(in, index));
+
+            if (rootLabel != null) {
+                hsTree.restoreRoot(rootLabel);
+            }
+
+            if (in.readBoolean()) {
+                Set<Constraint> pathLabels = readSet(in, index);
+                Set<Constraint> label = readSet(in, index);
+
+                if (pathLabels.isEmpty()) { // the root node wasn't expanded
+                    hsTree.restorePendingNode(hsTree.getRoot());
+                } else {
+                    Node node = Node.restore(hsTree.context.nextNodeId(), pathLabels, NodeStatus.Open, label);
+                    hsTree.restoreNode(node);
+                    hsTree.restorePendingNode(node);
+                }
+            }
+
+            int numOpenNodes = in.readInt();
+            for (int i = 0; i < numOpenNodes; i++) {
+                Node node = Node.restore(hsTree.context.nextNodeId(), readSet(in, index), NodeStatus.Open, null);
+                hsTree.restoreNode(node);
+                hsTree.openNodes.add(node);
+            }
+
+            int numNodes = in.readInt();
+            for (int i = 0; i < numNodes; i++) {
+                Set<Constraint> pathLabels = readSet(in, index);
+                NodeStatus status = NodeStatus.values()[in.readByte()];
+                Set<Constraint> label = readSet(in, index);
+
+                hsTree.restoreNode(Node.restore(hsTree.context.nextNodeId(), pathLabels, status, label));
+            }
+            hsTree.linkRestoredNodes();
+        }
+    }
+
+    private void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        checkState(length >= 0, "Invalid string length %s", length);
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeSets(DataOutputStream out, Map<Constraint, Integer> ids, List<Set<Constraint>> sets) throws IOException {
+        out.writeInt(sets.size());
+        for (Set<Constraint> set : sets) {
+            writeSet(out, ids, set);
+        }
+    }
+
+    private void writeSet(DataOutputStream out, Map<Constraint, Integer> ids, Set<Constraint> set) throws IOException {
+        if (set == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(set.size());
+        for (Constraint c : set) {
+            Integer id = ids.get(c);
+            checkState(id != null, "Constraint %s doesn't belong to C", c);
+            out.writeInt(id);
+        }
+    }
+
+    private List<Set<Constraint>> readSets(DataInputStream in, List<Constraint> index) throws IOException {
+        int size = in.readInt();
+        List<Set<Constraint>> sets = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            sets.add(readSet(in, index));
+        }
+        return sets;
+    }
+
+    private Set<Constraint> readSet(DataInputStream in, List<Constraint> index) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Set<Constraint> set = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            set.add(index.get(in.readInt()));
+        }
+        return set;
+    }
+}
@@ -12,16 +12,14 @@ package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
 
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
-import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.events.NodeExpandEvent;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import com.google.common.collect.Sets;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
 
-import static at.tugraz.ist.ase.eval.evaluator.PerformanceEvaluator.*;
-
 /**
  * Implementation of the HS-dag algorithm.
  * IHSLabeler algorithms could return labels (conflict or diagnosis) which are not minimal.
@@ -35,76 +33,88 @@ public class HSDAG extends HSTree {
     // Map of <pathLabels, Node>
     private final Map<Set<Constraint>, Node> nodesLookup = new HashMap<>();
 
-    public HSDAG(IHSLabelable labeler, ChocoConsistencyChecker checker) {
+    public HSDAG(IHSLabelable labeler, IConsistencyChecker checker) {
         super(labeler, checker);
     }
 
     @Override
     protected List<Set<Constraint>> computeLabel(Node node) {
-        AbstractHSParameters param = node.getParameters();
+        AbstractHSParameters param = getParameters(node);
 
-        start(TIMER_CONFLICT);
+        context.start(TIMER_CONFLICT);
         List<Set<Constraint>> conflicts = getLabeler().getLabel(param);
 
         if (!conflicts.isEmpty()) {
-            stop(TIMER_CONFLICT);
+            context.stop(TIMER_CONFLICT);
 
-            // check existing and obtained conflicts for subset-relations
-            List<Set<Constraint>> nonMinConflicts = new LinkedList<>();
+            conflicts = addMinimalConflicts(conflicts);
+        } else {
+            // stop TIMER_CONFLICT without saving the time
+            context.stop(TIMER_CONFLICT, false);
+        }
 
-            for (Set<Constraint> fs : getConflicts()) {
-                if (nonMinConflicts.contains(fs)) {
-                    continue;
-                }
-                for (Set<Constraint> cs : conflicts) {
-                    if (nonMinConflicts.contains(cs)) {
-                        continue;
-                    }
-                    Set<Constraint> greater = (fs.size() > cs.size()) ? fs : cs;
-                    Set<Constraint> smaller = (fs.size() > cs.size()) ? cs : fs;
+        return conflicts;
+    }
 
-                    if (greater.containsAll(smaller)) {
-                        nonMinConflicts.add(greater);
-                        // update the DAG
-                        List<Node> nodes = this.cs_nodesMap.get(greater);
+    /**
+     * Adds the given conflicts which have no existing conflict as a subset. The existing conflicts
+     * which are proper supersets of an added conflict are not minimal, hence they are removed,
+     * and their nodes are relabeled with the added conflict.
+     * @param conflicts the new conflicts, e.g., the labels of a labeler
+     * @return the added conflicts
+     */
+    protected List<Set<Constraint>> addMinimalConflicts(List<Set<Constraint>> conflicts) {
+        // check existing and obtained conflicts for subset-relations
+        List<Set<Constraint>> minConflicts = new LinkedList<>();
+        Set<Set<Constraint>> nonMinimal = new HashSet<>();
+
+        for (Set<Constraint> cs : conflicts) {
+            // an existing conflict is a subset of cs, hence cs is not minimal
+            if (conflictIndex.hasSubset(cs)) {
+                continue;
+            }
+            minConflicts.add(cs);
 
-                        if (nodes != null) {
-                            for (Node nd : nodes) {
-                                incrementCounter(COUNTER_PRUNING);
+            // existing conflicts which are supersets of cs are not minimal
+            for (Set<Constraint> greater : conflictIndex.getSupersets(cs)) {
+                nonMinimal.add(greater);
 
-                                nd.setLabel(smaller); // relabel the node with smaller
-                                addItemToCSNodesMap(smaller, nd); // add new label to the map
+                // update the DAG
+                List<Node> nodes = this.cs_nodesMap.remove(greater);
 
-                                Set<Constraint> delete = Sets.difference(greater, smaller);
-                                for (Constraint label : delete) {
-                                    Node child = nd.getChildren().get(label);
+                if (nodes != null) {
+                    for (Node nd : nodes) {
+                        context.incrementCounter(COUNTER_PRUNING);
 
-                                    if (child != null) {
-                                        child.getParents().remove(nd);
-                                    }
-                                    nd.getChildren().remove(label);
+                        nd.setLabel(cs); // relabel the node with smaller
 
-                                    cleanUpNodes(nd);
-                                }
+                        Set<Constraint> delete = Sets.difference(greater, cs);
+                        for (Constraint label : delete) {
+                            Node child = nd.getChildren().get(label);
+                            nd.getChildren().remove(label);
+
+                            // the child is cleaned up if nd was its only parent
+                            if (child != null) {
+                                child.getParents().remove(nd);
+                                cleanUpNodes(child);
                             }
                         }
                     }
+                    // add new label to the map
+                    this.cs_nodesMap.computeIfAbsent(cs, k -> new LinkedList<>()).addAll(nodes);
                 }
             }
-            // remove the known non-minimal conflicts
-            conflicts.removeAll(nonMinConflicts);
-            for (Set<Constraint> cs : nonMinConflicts) {
-                this.cs_nodesMap.remove(cs);
-            }
+        }
 
-            // add new conflicts to the list of conflicts
-            addConflicts(conflicts);
-        } else {
-            // stop TIMER_CONFLICT without saving the time
-            stop(TIMER_CONFLICT, false);
+        if (!nonMinimal.isEmpty()) {
+            List<Set<Constraint>> remaining = new LinkedList<>(getConflicts());
+            remaining.removeAll(nonMinimal);
+            setConflicts(remaining);
         }
 
-        return conflicts;
+        // add new conflicts to the list of conflicts
+        addConflicts(minConflicts);
+        return minConflicts;
     }
 
     private void cleanUpNodes(Node node) {
@@ -115,7 +125,7 @@ public class HSDAG extends HSTree {
         nodesLookup.remove(node.getPathLabels());
         if (node.getStatus() == NodeStatus.Open) {
             node.setStatus(NodeStatus.Pruned);
-            incrementCounter(COUNTER_CLEANED_NODES);
+            context.incrementCounter(COUNTER_CLEANED_NODES);
         }
 
         // downward clean up
@@ -127,36 +137,96 @@ public class HSDAG extends HSTree {
 
     @Override
     protected void expand(Node nodeToExpand) {
-        log.trace("{}Generating the children nodes of [node={}]", LoggerUtils.tab, nodeToExpand);
-        LoggerUtils.indent();
+        log.trace("{}Generating the children nodes of [node={}]", context.tab(), nodeToExpand);
+        context.indent();
 
-        for (Constraint arcLabel : nodeToExpand.getLabel()) {
-            AbstractHSParameters param_parentNode = nodeToExpand.getParameters();
-            AbstractHSParameters new_param = getLabeler().createParameter(param_parentNode, arcLabel);
+        NodeExpandEvent event = new NodeExpandEvent();
+        event.begin();
+        int reused = 0;
 
+        for (Constraint arcLabel : nodeToExpand.getLabel()) {
             // rule 1.a - reuse node
             Node node = getReusableNode(nodeToExpand.getPathLabels(), arcLabel);
             if (node != null) {
                 node.addParent(nodeToExpand);
+                reused++;
 
-                incrementCounter(COUNTER_REUSE_NODES);
-                log.trace("{}Reusing [node={}]", LoggerUtils.tab, node);
+                context.incrementCounter(COUNTER_REUSE_NODES);
+                log.trace("{}Reusing [node={}]", context.tab(), node);
             } else { // rule 1.b - generate a new node
+                AbstractHSParameters param_parentNode = getParameters(nodeToExpand);
+                AbstractHSParameters new_param = getLabeler().createParameter(param_parentNode, arcLabel);
+
                 node = Node.builder()
+                        .id(context.nextNodeId())
                         .parent(nodeToExpand)
                         .parameters(new_param)
                         .arcLabel(arcLabel)
                         .build();
                 this.nodesLookup.put(node.getPathLabels(), node);
-                incrementCounter(COUNTER_CONSTRUCTED_NODES);
+                context.incrementCounter(COUNTER_CONSTRUCTED_NODES);
 
                 if (!canPrune(node)) {
                     openNodes.add(node);
+                    trackEvictableNode(node);
                 }
             }
         }
 
-        LoggerUtils.outdent();
+        commitExpandEvent(event, nodeToExpand, nodeToExpand.getLabel().size() - reused, reused);
+
+        context.outdent();
+    }
+
+    @Override
+    protected void restartFromRoot() {
+        this.nodesLookup.clear();
+        super.restartFromRoot();
+    }
+
+    /**
+     * The nodes stay in the HS-dag, so that rule 1.a still reuses them by their path labels.
+     * Only their parameters are released.
+     */
+    @Override
+    protected void detachClosedNodes(Node node) {
+    }
+
+    @Override
+    protected void restoreNode(Node node) {
+        super.restoreNode(node);
+        this.nodesLookup.put(node.getPathLabels(), node);
+    }
+
+    /**
+     * Links each expanded node to its children, i.e., the nodes whose path labels
+     * extend the node's path labels by a constraint of the node's label,
+     * so that relabeling and cleaning up reach the restored nodes.
+     * The pending node isn't expanded yet, hence it gets its children when it's expanded.
+     */
+    @Override
+    protected void linkRestoredNodes() {
+        List<Node> nodes = new ArrayList<>(this.nodesLookup.values());
+        if (getRoot() != null) {
+            nodes.add(getRoot());
+        }
+
+        for (Node node : nodes) {
+            if (node == getPendingNode() || node.getStatus() != NodeStatus.Open || node.getLabel() == null) {
+                continue;
+            }
+            for (Constraint arcLabel : node.getLabel()) {
+                Node child = getReusableNode(node.getPathLabels(), arcLabel);
+                if (child != null) {
+                    node.addChild(arcLabel, child);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Collection<Node> getCheckpointNodes() {
+        return this.nodesLookup.values();
     }
 
     private Node getReusableNode(Set<Constraint> pathLabels, Constraint arcLabel) {
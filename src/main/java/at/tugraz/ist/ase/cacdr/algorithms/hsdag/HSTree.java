@@ -12,17 +12,31 @@ package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
 
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
-import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.BestFirstStrategy;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.BreadthFirstStrategy;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.FirstConflictStrategy;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.IConflictSelectionStrategy;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.INodeSelectionStrategy;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.IRankingStrategy;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.events.NodeExpandEvent;
+import at.tugraz.ist.ase.cacdr.eval.events.NodeLabelEvent;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import com.google.common.collect.Sets;
 import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 
 import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
-import static at.tugraz.ist.ase.common.ConstraintUtils.hasIntersection;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Implementation of the HS-tree algorithm.
@@ -37,31 +51,184 @@ public class HSTree extends AbstractHSConstructor {
 
     @Getter
     private Node root = null;
-    protected final Queue<Node> openNodes = new LinkedList<>();
+    @Getter
+    private INodeSelectionStrategy nodeSelectionStrategy = new BreadthFirstStrategy();
+    @Getter @Setter
+    private IConflictSelectionStrategy conflictSelectionStrategy = new FirstConflictStrategy();
+    protected Queue<Node> openNodes = nodeSelectionStrategy.createQueue();
     // Map of <conflict, list of nodes which have the conflict as its label>
     protected Map<Set<Constraint>, List<Node>> cs_nodesMap = new LinkedHashMap<>();
+    // inverted index of the identified conflicts
+    protected final ConflictIndex conflictIndex = new ConflictIndex();
+    // nodes holding parameters which could be released if the memory budget is exceeded
+    private final Set<Node> evictableNodes = new LinkedHashSet<>();
+    // a labeled node which is not expanded yet since the construction was stopped
+    @Getter
+    private Node pendingNode = null;
 
-    public HSTree(IHSLabelable labeler, ChocoConsistencyChecker checker) {
+    /**
+     * The file to which the state of the construction is periodically written, null - no checkpoints.
+     */
+    @Getter @Setter
+    private Path checkpointFile = null;
+    /**
+     * The number of processed nodes between two checkpoints.
+     * A checkpoint is always written when the construction ends.
+     */
+    @Getter
+    private int checkpointInterval = 1000;
+    private long processedNodes = 0;
+
+    // the last labeled node, which is expanded after the stopping criteria are checked
+    private Node labeledNode = null;
+    // the results of the minimality checks of the diagnoses, true - minimal
+    private final Map<Set<Constraint>, Boolean> verifiedDiagnoses = new HashMap<>();
+
+    public HSTree(IHSLabelable labeler, IConsistencyChecker checker) {
         super(labeler, checker);
     }
 
+    /**
+     * Sets the strategy which determines the order of processing the open nodes.
+     * The current open nodes are moved to the queue of the new strategy.
+     * @param nodeSelectionStrategy a node selection strategy
+     */
+    public void setNodeSelectionStrategy(@NonNull INodeSelectionStrategy nodeSelectionStrategy) {
+        Queue<Node> queue = nodeSelectionStrategy.createQueue();
+        queue.addAll(openNodes);
+
+        this.nodeSelectionStrategy = nodeSelectionStrategy;
+        this.openNodes = queue;
+    }
+
+    /**
+     * Sets the fault probabilities of the constraints, which ranks the diagnoses by their probabilities.
+     * The open nodes are processed in the descending order of the probability of the best diagnosis
+     * which they could lead to. With {@link #setMaxNumberOfDiagnoses(int)}, the construction returns
+     * the k most probable diagnoses, and stops as soon as no open node could lead to a more probable one.
+     * @param faultProbabilities the fault probabilities of the constraints, each in (0, 1)
+     * @param defaultProbability the fault probability of the constraints which aren't in the map
+     */
+    public void setFaultProbabilities(@NonNull Map<Constraint, Double> faultProbabilities, double defaultProbability) {
+        setNodeSelectionStrategy(new BestFirstStrategy(faultProbabilities, defaultProbability,
+                getLabeler().getInitialParameters().getC()));
+    }
+
+    /**
+     * Returns <code>true</code> if the required number of diagnoses is found.
+     * With a ranking strategy, the k best diagnoses have to be found, i.e., the k-th best
+     * identified diagnosis is at least as good as the best diagnosis reachable from an open node.
+     */
+    @Override
+    public boolean stopConstruction() {
+        if (!(nodeSelectionStrategy instanceof IRankingStrategy) || getMaxNumberOfDiagnoses() == -1) {
+            return super.stopConstruction();
+        }
+        if (getMaxNumberOfConflicts() != -1 && getMaxNumberOfConflicts() <= getConflicts().size()) {
+            return true;
+        }
+
+        if (getDiagnoses().size() < getMaxNumberOfDiagnoses()) {
+            return false;
+        }
+
+        IRankingStrategy strategy = (IRankingStrategy) nodeSelectionStrategy;
+        List<Set<Constraint>> ranked = rankDiagnoses(strategy);
+        if (ranked.size() < getMaxNumberOfDiagnoses()) {
+            return false;
+        }
+        double kthScore = strategy.score(ranked.get(getMaxNumberOfDiagnoses() - 1));
+
+        Node best = openNodes.peek();
+        if (best != null && strategy.bound(best) > kthScore) {
+            return false;
+        }
+        return labeledNode == null || labeledNode.getStatus() != NodeStatus.Open
+                || strategy.bound(labeledNode) <= kthScore;
+    }
+
+    /**
+     * Returns the identified diagnoses in the descending order of their scores.
+     */
+    private List<Set<Constraint>> rankDiagnoses(IRankingStrategy strategy) {
+        List<Set<Constraint>> ranked = new ArrayList<>(getDiagnoses());
+        ranked.sort(Comparator.comparingDouble((Set<Constraint> diag) -> -strategy.score(diag)));
+        return ranked;
+    }
+
+    /**
+     * Returns <code>true</code> if a found diagnosis has to be verified before it is recorded.
+     * The k best diagnoses are only minimal if the ranking strategy finds the minimal diagnoses first,
+     * otherwise a subset of a found diagnosis could be found later.
+     */
+    private boolean needsMinimalityCheck() {
+        return nodeSelectionStrategy instanceof IRankingStrategy && getMaxNumberOfDiagnoses() != -1
+                && !nodeSelectionStrategy.findsMinimalDiagnosesFirst();
+    }
+
+    /**
+     * A diagnosis is minimal if removing any of its constraints leads to a conflict.
+     * The check asks the labeler for a conflict, hence the labeler has to return conflicts.
+     * Both results are cached, since the same diagnosis can be found on several paths.
+     */
+    private boolean isMinimalDiagnosis(Set<Constraint> diag) {
+        return verifiedDiagnoses.computeIfAbsent(diag, this::checkMinimality);
+    }
+
+    private boolean checkMinimality(Set<Constraint> diag) {
+        checkState(getLabeler().getInitialParameters() instanceof QuickXPlainParameters,
+                "Verifying the minimality of diagnoses requires a labeler with QuickXPlainParameters");
+
+        for (Constraint c : diag) {
+            AbstractHSParameters param = getLabeler().getInitialParameters();
+            for (Constraint arcLabel : diag) {
+                if (arcLabel != c) {
+                    param = getLabeler().createParameter(param, arcLabel);
+                }
+            }
+            if (getLabeler().getLabel(param).isEmpty()) {
+                log.trace("{}Non-minimal [diagnosis={}, redundant={}]", context.tab(), diag, c);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the k best diagnoses, where k is the maximum number of diagnoses.
+     * With a ranking strategy, the diagnoses are in the descending order of their scores,
+     * and the list can contain more than k diagnoses when the construction ends.
+     * @return an unmodifiable view of the first k diagnoses, or of all diagnoses if k is unbounded
+     */
+    public List<Set<Constraint>> getTopDiagnoses() {
+        List<Set<Constraint>> diagnoses = getDiagnoses();
+        if (getMaxNumberOfDiagnoses() != -1 && diagnoses.size() > getMaxNumberOfDiagnoses()) {
+            diagnoses = diagnoses.subList(0, getMaxNumberOfDiagnoses());
+        }
+        return Collections.unmodifiableList(diagnoses);
+    }
+
     /**
      * Builds the HS-tree.
      */
     public void construct() {
         AbstractHSParameters param = getLabeler().getInitialParameters();
 
-        log.debug("{}Constructing the HS-tree for [C={}] >>>", LoggerUtils.tab, param.getC());
-        LoggerUtils.indent();
+        log.debug("{}Constructing the HS-tree for [C={}] >>>", context.tab(), param.getC());
+        context.indent();
 
-        start(TIMER_HS_CONSTRUCTION_SESSION);
-        start(TIMER_DIAGNOSIS);
+        context.start(TIMER_HS_CONSTRUCTION_SESSION);
+        context.start(TIMER_DIAGNOSIS);
 
         // generate root if there is none
         if (!hasRoot()) {
-            start(TIMER_CONFLICT);
-            List<Set<Constraint>> conflicts = getLabeler().getLabel(param);
-            stop(TIMER_CONFLICT);
+            List<Set<Constraint>> conflicts = getReusableRootConflicts();
+            boolean reused = !conflicts.isEmpty();
+            if (!reused) {
+                context.start(TIMER_CONFLICT);
+                conflicts = getLabeler().getLabel(param);
+                context.stop(TIMER_CONFLICT);
+            }
 
             if (conflicts.isEmpty()) {
                 endConstruction();
@@ -70,176 +237,378 @@ public class HSTree extends AbstractHSConstructor {
 
             // create root node
             Set<Constraint> label = selectConflict(conflicts);
-            root = Node.createRoot(label, param);
-            incrementCounter(COUNTER_CONSTRUCTED_NODES);
+            context.resetNodeIds();
+            root = Node.createRoot(context.nextNodeId(), label, param);
+            context.incrementCounter(COUNTER_CONSTRUCTED_NODES);
 
-            addConflicts(conflicts); // to reuse conflicts
+            if (!reused) {
+                addConflicts(conflicts); // to reuse conflicts
+            }
             addItemToCSNodesMap(label, root);
 
             if (stopConstruction()) {
+                pendingNode = root;
                 endConstruction();
                 return;
             }
 
             expand(root);
+            context.gauge(GAUGE_OPEN_NODES, openNodes.size());
+        } else if (pendingNode != null) {
+            // continue a stopped or restored construction
+            Node node = pendingNode;
+            pendingNode = null;
+            expand(node);
         }
 
         while (hasNodesToExpand()) {
             Node node = getNextNode();
-            if (skipNode(node)) continue;
-            log.trace("{}Processing [node={}]", LoggerUtils.tab, node);
-            LoggerUtils.indent();
+            if (skipNode(node)) {
+                trackEvictableNode(node);
+                continue;
+            }
+            log.trace("{}Processing [node={}]", context.tab(), node);
+            context.indent();
 
             label(node);
             if (stopConstruction()) {
-                LoggerUtils.outdent();
+                if (node.getStatus() == NodeStatus.Open) {
+                    pendingNode = node;
+                }
+                context.outdent();
                 endConstruction();
                 return;
             }
 
             if (node.getStatus() == NodeStatus.Open) {
                 expand(node);
+                context.gauge(GAUGE_OPEN_NODES, openNodes.size());
             }
 
-            System.gc();
-            LoggerUtils.outdent();
+            trackEvictableNode(node);
+            if (getMaxNodesWithParameters() > 0 && hasTooManyParameters()) {
+                evictNodes();
+            }
+            if (checkpointFile != null && ++processedNodes % checkpointInterval == 0) {
+                writeCheckpoint();
+            }
+            context.outdent();
         }
 
         endConstruction();
     }
 
     protected void endConstruction() {
-        LoggerUtils.outdent();
-        log.debug("{}<<< return [conflicts={}]", LoggerUtils.tab, getConflicts());
-        log.debug("{}<<< return [diagnoses={}]", LoggerUtils.tab, getDiagnoses());
+        if (nodeSelectionStrategy instanceof IRankingStrategy) {
+            // the non-minimal diagnoses aren't recorded
+            // keep all diagnoses, since a resumed construction prunes against them
+            List<Set<Constraint>> ranked = rankDiagnoses((IRankingStrategy) nodeSelectionStrategy);
+            getDiagnoses().clear();
+            getDiagnoses().addAll(ranked);
+        }
 
-        stop(TIMER_HS_CONSTRUCTION_SESSION);
-        stop(TIMER_DIAGNOSIS, false);
+        context.outdent();
+        log.debug("{}<<< return [conflicts={}]", context.tab(), getConflicts());
+        log.debug("{}<<< return [diagnoses={}]", context.tab(), getDiagnoses());
+
+        context.stop(TIMER_HS_CONSTRUCTION_SESSION);
+        context.stop(TIMER_DIAGNOSIS, false);
 
         if (log.isTraceEnabled()) {
-            Utils.printInfo(root, getConflicts(), getDiagnoses());
+            Utils.printInfo(context, root, getConflicts(), getDiagnoses());
+        }
+
+        if (checkpointFile != null) {
+            writeCheckpoint();
         }
     }
 
+    public void setCheckpointInterval(int checkpointInterval) {
+        checkArgument(checkpointInterval > 0, "The checkpoint interval must be positive");
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Writes the current state of the construction to the checkpoint file.
+     */
+    protected void writeCheckpoint() {
+        try {
+            HSCheckpoint.write(this, checkpointFile);
+            log.debug("{}Written checkpoint [file={}]", context.tab(), checkpointFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the checkpoint " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Restores the state of a construction from a checkpoint file.
+     * The labeler of this HS constructor has to have the same initial parameters as the one
+     * used when writing the checkpoint. Call {@link #construct()} to resume the construction.
+     * @param file a checkpoint file written by {@link #writeCheckpoint()}
+     * @throws IOException if the checkpoint file cannot be read
+     */
+    public void restoreCheckpoint(@NonNull Path file) throws IOException {
+        resetEngine();
+        HSCheckpoint.read(this, file);
+
+        log.debug("{}Restored checkpoint [file={}, openNodes={}, conflicts={}, diagnoses={}]", context.tab(),
+                file, openNodes.size(), getConflicts().size(), getDiagnoses().size());
+    }
+
+    protected void restoreRoot(Set<Constraint> label) {
+        context.resetNodeIds();
+        root = Node.createRoot(context.nextNodeId(), label, getLabeler().getInitialParameters());
+        addItemToCSNodesMap(label, root);
+    }
+
+    protected void restorePendingNode(Node node) {
+        pendingNode = node;
+    }
+
+    /**
+     * Registers a node restored from a checkpoint.
+     * @param node a restored node
+     */
+    protected void restoreNode(Node node) {
+        if (node.getLabel() != null) {
+            addItemToCSNodesMap(node.getLabel(), node);
+        }
+    }
+
+    /**
+     * Restores the links between the restored nodes, after all nodes are read from a checkpoint.
+     * The HS-tree doesn't need them, since it neither reuses nor prunes expanded nodes.
+     */
+    protected void linkRestoredNodes() {
+    }
+
+    /**
+     * Returns the nodes, except the open nodes, which have to be written in checkpoints.
+     * The HS-tree only needs its open nodes to resume the construction.
+     * @return the nodes to write in checkpoints
+     */
+    protected Collection<Node> getCheckpointNodes() {
+        return Collections.emptyList();
+    }
+
     protected void label(Node node) {
+        labeledNode = node;
         if (node.getLabel() == null) {
+            NodeLabelEvent event = new NodeLabelEvent();
+            event.begin();
+
             // Reusing conflicts - H(node) ∩ S = {}, then label node by S
             List<Set<Constraint>> conflicts = getReusableConflicts(node);
+            boolean reused = !conflicts.isEmpty();
 
             // compute conflicts if there are none to reuse
             if (conflicts.isEmpty()) {
                 conflicts = computeLabel(node);
             }
             if (conflicts.isEmpty()) {
+                commitLabelEvent(event, node, reused);
+
                 node.setStatus(NodeStatus.Checked);
                 Set<Constraint> diag = new LinkedHashSet<>(node.getPathLabels());
+                if (!nodeSelectionStrategy.findsMinimalDiagnosesFirst()) {
+                    // remove the already identified supersets of the new diagnosis
+                    getDiagnoses().removeIf(d -> d.containsAll(diag));
+                }
+                if (needsMinimalityCheck() && !isMinimalDiagnosis(diag)) {
+                    return;
+                }
                 getDiagnoses().add(diag);
-                log.debug("{}Diagnosis #{} is found: {}", LoggerUtils.tab, getDiagnoses().size(), node.getPathLabels());
+                log.debug("{}Diagnosis #{} is found: {}", context.tab(), getDiagnoses().size(), node.getPathLabels());
 
-                stop(TIMER_DIAGNOSIS);
-                start(TIMER_DIAGNOSIS);
+                context.stop(TIMER_DIAGNOSIS);
+                context.start(TIMER_DIAGNOSIS);
                 return;
             }
             Set<Constraint> label = selectConflict(conflicts);
             node.setLabel(label);
             addItemToCSNodesMap(label, node);
+
+            commitLabelEvent(event, node, reused);
+        }
+    }
+
+    private void commitLabelEvent(NodeLabelEvent event, Node node, boolean reused) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.node = node.getId();
+            event.level = node.getLevel();
+            event.reused = reused;
+            event.diagnosis = node.getLabel() == null;
+            event.labelSize = node.getLabel() == null ? 0 : node.getLabel().size();
+            event.commit();
         }
     }
 
+    /**
+     * Returns the known conflicts which could label the root node.
+     * The HS-tree always computes the root's label, even if conflicts are preset.
+     * @return the conflicts to reuse for the root node, or an empty list
+     */
+    protected List<Set<Constraint>> getReusableRootConflicts() {
+        return Collections.emptyList();
+    }
+
     protected List<Set<Constraint>> getReusableConflicts(Node node) {
-        List<Set<Constraint>> conflicts = new LinkedList<>();
-        for (Set<Constraint> conflict : getConflicts()) {
-            // H(node) ∩ S = {}
-            if (!hasIntersection(node.getPathLabels(), conflict)) {
-                conflicts.add(conflict);
-                incrementCounter(COUNTER_REUSE_CONFLICT);
-                log.trace("{}Reuse [conflict={}, node={}]", LoggerUtils.tab, conflict, node);
-                return conflicts;
-            }
+        // H(node) ∩ S = {}
+        List<Set<Constraint>> conflicts = conflictIndex.getDisjointConflicts(node.getPathLabels(),
+                !conflictSelectionStrategy.needsAllCandidates());
+        for (Set<Constraint> conflict : conflicts) {
+            context.incrementCounter(COUNTER_REUSE_CONFLICT);
+            log.trace("{}Reuse [conflict={}, node={}]", context.tab(), conflict, node);
         }
         return conflicts;
     }
 
     protected List<Set<Constraint>> computeLabel(Node node) {
-        AbstractHSParameters param = node.getParameters();
+        AbstractHSParameters param = getParameters(node);
 
-        start(TIMER_CONFLICT);
+        context.start(TIMER_CONFLICT);
         List<Set<Constraint>> conflicts = getLabeler().getLabel(param);
 
         if (!conflicts.isEmpty()) {
-            stop(TIMER_CONFLICT);
+            context.stop(TIMER_CONFLICT);
 
             addConflicts(conflicts);
         } else {
             // stop TIMER_CONFLICT without saving the time
-            stop(TIMER_CONFLICT, false);
+            context.stop(TIMER_CONFLICT, false);
         }
         return conflicts;
     }
 
     protected void addConflicts(Collection<Set<Constraint>> conflicts) {
         for (Set<Constraint> conflict : conflicts) {
-            getConflicts().add(conflict);
-            log.debug("{}Conflict #{} is found: {}", LoggerUtils.tab, getConflicts().size(), conflict);
+            super.getConflicts().add(conflict);
+            conflictIndex.add(conflict);
+            log.debug("{}Conflict #{} is found: {}", context.tab(), getConflicts().size(), conflict);
+        }
+    }
+
+    /**
+     * Returns the identified conflicts. The list is read-only, since the conflict index
+     * has to contain the same conflicts, use {@link #setConflicts(List)} to preset conflicts.
+     * @return an unmodifiable view of the conflicts
+     */
+    @Override
+    public List<Set<Constraint>> getConflicts() {
+        return Collections.unmodifiableList(super.getConflicts());
+    }
+
+    /**
+     * Presets known conflicts.
+     * @param conflicts known conflicts
+     */
+    @Override
+    public void setConflicts(List<Set<Constraint>> conflicts) {
+        super.setConflicts(new LinkedList<>(conflicts));
+
+        conflictIndex.clear();
+        for (Set<Constraint> conflict : conflicts) {
+            conflictIndex.add(conflict);
         }
     }
 
     protected void addItemToCSNodesMap(Set<Constraint> cs, Node node) {
-        log.trace("{}addItemToCSNodesMap [cs_nodesMap.size={}, cs={}, node={}]", LoggerUtils.tab, cs_nodesMap.size(), cs, node);
-        LoggerUtils.indent();
+        log.trace("{}addItemToCSNodesMap [cs_nodesMap.size={}, cs={}, node={}]", context.tab(), cs_nodesMap.size(), cs, node);
+        context.indent();
         if (!cs_nodesMap.containsKey(cs)) {
             cs_nodesMap.put(cs, new LinkedList<>());
-            log.trace("{}Add new item", LoggerUtils.tab);
+            log.trace("{}Add new item", context.tab());
         }
         cs_nodesMap.get(cs).add(node);
-        log.debug("{}Updated [cs_nodesMap.size={}]", LoggerUtils.tab, cs_nodesMap.size());
-        LoggerUtils.outdent();
+        log.debug("{}Updated [cs_nodesMap.size={}]", context.tab(), cs_nodesMap.size());
+        context.outdent();
     }
 
     /**
      * Selects a conflict to label a node from a list of conflicts.
-     * This implementation simply returns the first conflict from the given list.
+     * This implementation delegates the selection to the conflict selection strategy,
+     * which returns the first conflict by default.
      * @param conflicts list of conflicts
      * @return node label
      */
     protected Set<Constraint> selectConflict(List<Set<Constraint>> conflicts) {
-        return conflicts.get(0);
+        return conflictSelectionStrategy.select(conflicts);
     }
 
     protected boolean hasNodesToExpand() {
+        if (openNodes.isEmpty() && hasRoot() && pendingNode == null
+                && nodeSelectionStrategy.restart(getMaxDepth())) {
+            restartFromRoot();
+        }
         return !openNodes.isEmpty();
     }
 
+    /**
+     * Discards all nodes except the root node, and expands the root node again.
+     * The identified conflicts and diagnoses are kept, so that the nodes processed
+     * in the previous runs are labeled by reusing conflicts.
+     */
+    protected void restartFromRoot() {
+        log.trace("{}Restarting the construction from the root node", context.tab());
+
+        root.getChildren().clear();
+        cs_nodesMap.clear();
+        evictableNodes.clear();
+        addItemToCSNodesMap(root.getLabel(), root);
+
+        expand(root);
+    }
+
     protected Node getNextNode() {
         return openNodes.remove();
     }
 
     protected boolean skipNode(Node node) {
         boolean condition1 = getMaxDepth() != 0 && getMaxDepth() <= node.getLevel();
-        return node.getStatus() != NodeStatus.Open || condition1 || canPrune(node);
+        return node.getStatus() != NodeStatus.Open || condition1
+                || nodeSelectionStrategy.skip(node) || canPrune(node);
     }
 
     protected void expand(Node nodeToExpand) {
-        log.trace("{}Generating the children nodes of [node={}]", LoggerUtils.tab, nodeToExpand);
-        LoggerUtils.indent();
+        log.trace("{}Generating the children nodes of [node={}]", context.tab(), nodeToExpand);
+        context.indent();
+
+        NodeExpandEvent event = new NodeExpandEvent();
+        event.begin();
 
         for (Constraint arcLabel : nodeToExpand.getLabel()) {
-            AbstractHSParameters param_parentNode = nodeToExpand.getParameters();
+            AbstractHSParameters param_parentNode = getParameters(nodeToExpand);
             AbstractHSParameters new_param = getLabeler().createParameter(param_parentNode, arcLabel);
 
             Node node = Node.builder()
+                    .id(context.nextNodeId())
                     .parent(nodeToExpand)
                     .parameters(new_param)
                     .arcLabel(arcLabel)
                     .build();
-            incrementCounter(COUNTER_CONSTRUCTED_NODES);
+            context.incrementCounter(COUNTER_CONSTRUCTED_NODES);
 
             if (!canPrune(node)) {
                 openNodes.add(node);
+                trackEvictableNode(node);
             }
         }
 
-        LoggerUtils.outdent();
+        commitExpandEvent(event, nodeToExpand, nodeToExpand.getLabel().size(), 0);
+
+        context.outdent();
+    }
+
+    protected void commitExpandEvent(NodeExpandEvent event, Node node, int generated, int reused) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.node = node.getId();
+            event.level = node.getLevel();
+            event.generated = generated;
+            event.reused = reused;
+            event.commit();
+        }
     }
 
     protected boolean canPrune(Node node) {
@@ -248,9 +617,9 @@ public class HSTree extends AbstractHSConstructor {
         for (Set<Constraint> diag : getDiagnoses()) {
             if (node.getPathLabels().containsAll(diag)) {
                 node.setStatus(NodeStatus.Closed);
-                incrementCounter(COUNTER_CLOSE_1);
+                context.incrementCounter(COUNTER_CLOSE_1);
 
-                log.trace("{}Closed [node={}]", LoggerUtils.tab, node);
+                log.trace("{}Closed [node={}]", context.tab(), node);
 
                 return true;
             }
@@ -261,9 +630,9 @@ public class HSTree extends AbstractHSConstructor {
             if (n.getPathLabels().size() == node.getPathLabels().size()
                     && Sets.difference(n.getPathLabels(), node.getPathLabels()).isEmpty()) {
                 node.setStatus(NodeStatus.Closed);
-                incrementCounter(COUNTER_CLOSE_2);
+                context.incrementCounter(COUNTER_CLOSE_2);
 
-                log.trace("{}Closed [node={}]", LoggerUtils.tab, node);
+                log.trace("{}Closed [node={}]", context.tab(), node);
 
                 return true;
             }
@@ -272,6 +641,111 @@ public class HSTree extends AbstractHSConstructor {
         return false;
     }
 
+    /**
+     * Returns the labeler's parameters of the given node.
+     * If the parameters were released to keep the memory budget, they are regenerated
+     * from the initial parameters along the path labels of the node.
+     * @param node a node
+     * @return the parameters of the node
+     */
+    protected AbstractHSParameters getParameters(Node node) {
+        if (node.getParameters() == null) {
+            AbstractHSParameters param = getLabeler().getInitialParameters();
+            for (Constraint arcLabel : node.getPathLabels()) {
+                param = getLabeler().createParameter(param, arcLabel);
+            }
+            node.setParameters(param);
+            context.incrementCounter(COUNTER_RECOMPUTED_PARAMETERS);
+
+            trackEvictableNode(node);
+            log.trace("{}Recomputed parameters [node={}]", context.tab(), node);
+        }
+        return node.getParameters();
+    }
+
+    /**
+     * Tracks a processed node holding its parameters. The nodes of the frontier, i.e., the open nodes
+     * waiting for their label, aren't tracked, since their parameters are needed next.
+     */
+    protected void trackEvictableNode(Node node) {
+        if (getMaxNodesWithParameters() > 0 && node.getParameters() != null && !isFrontierNode(node)) {
+            evictableNodes.add(node);
+        }
+    }
+
+    private boolean isFrontierNode(Node node) {
+        return node.getStatus() == NodeStatus.Open && node.getLabel() == null;
+    }
+
+    /**
+     * Returns <code>true</code> if more processed nodes than {@link #getMaxNodesWithParameters()}
+     * hold their parameters. The number of nodes replaces an estimate of the heap usage,
+     * so that neither garbage nor other constructions in the same JVM trigger an eviction.
+     */
+    protected boolean hasTooManyParameters() {
+        return evictableNodes.size() > getMaxNodesWithParameters();
+    }
+
+    /**
+     * Releases the parameters of the tracked nodes, which are regenerated when the nodes
+     * are expanded again, and detaches the closed nodes (see {@link #detachClosedNodes(Node)}).
+     * The root node and the frontier keep their parameters.
+     */
+    protected void evictNodes() {
+        log.trace("{}Evicting nodes [evictableNodes.size={}]", context.tab(), evictableNodes.size());
+        context.incrementCounter(COUNTER_EVICTIONS);
+
+        for (Node node : evictableNodes) {
+            if (node.isRoot() || isFrontierNode(node)) {
+                continue;
+            }
+            node.setParameters(null);
+            detachClosedNodes(node);
+            context.incrementCounter(COUNTER_EVICTED_NODES);
+        }
+        evictableNodes.clear();
+    }
+
+    /**
+     * Detaches closed, pruned and checked leaves of the given node from the tree
+     * and from the maps of the HS constructor.
+     */
+    protected void detachClosedNodes(Node node) {
+        // closed children are never processed, therefore drop them together with their parent
+        Iterator<Node> children = node.getChildren().values().iterator();
+        while (children.hasNext()) {
+            Node child = children.next();
+            if (child.getStatus() == NodeStatus.Closed || child.getStatus() == NodeStatus.Pruned) {
+                children.remove();
+                evictNode(child);
+            }
+        }
+
+        if (node.getStatus() != NodeStatus.Open && node.getChildren().isEmpty()) {
+            for (Node parent : node.getParents()) {
+                parent.getChildren().values().remove(node);
+            }
+            evictNode(node);
+        }
+    }
+
+    /**
+     * Removes the references of the HS constructor to a node detached from the tree.
+     * @param node the detached node
+     */
+    protected void evictNode(Node node) {
+        if (node.getLabel() == null) {
+            return;
+        }
+        List<Node> nodes = cs_nodesMap.get(node.getLabel());
+        if (nodes != null) {
+            nodes.removeIf(n -> n == node);
+            if (nodes.isEmpty()) {
+                cs_nodesMap.remove(node.getLabel());
+            }
+        }
+    }
+
     protected boolean hasRoot() {
         return this.root != null;
     }
@@ -281,7 +755,14 @@ public class HSTree extends AbstractHSConstructor {
         super.resetEngine();
         this.root = null;
         this.cs_nodesMap.clear();
+        this.conflictIndex.clear();
         this.openNodes.clear();
+        this.evictableNodes.clear();
+        this.nodeSelectionStrategy.reset();
+        this.pendingNode = null;
+        this.processedNodes = 0;
+        this.labeledNode = null;
+        this.verifiedDiagnoses.clear();
     }
 
     @Override
@@ -290,5 +771,7 @@ public class HSTree extends AbstractHSConstructor {
         this.root = null;
         this.openNodes.clear();
         this.cs_nodesMap.clear();
+        this.conflictIndex.clear();
+        this.evictableNodes.clear();
     }
 }
@@ -0,0 +1,231 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV2Parameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV3Parameters;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import com.google.common.collect.Sets;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A depth-first inverse HS-tree, which enumerates all minimal diagnoses in linear space
+ * using a diagnosis labeler (FastDiagV2Labeler or FastDiagV3Labeler).
+ *
+ * Each node is a subproblem (P, M), where P is the set of constraints which are kept,
+ * and M is the set of constraints which are removed. The node's label is a diagnosis E = {e1, ..., ek}
+ * of C_sub = C \ P \ M with regard to B_sub = B ∪ P. If M ∪ E is a minimal diagnosis of C, it is returned.
+ * The remaining diagnoses of the subproblem are partitioned among the children of the node:
+ * the i-th child keeps ei and removes e1, ..., e(i-1), i.e., (P ∪ {ei}, M ∪ {e1, ..., e(i-1)}).
+ * Since the partitions are disjoint, no pruning rule needs the already generated nodes,
+ * and only the nodes on the current path are kept in memory. The parameters of a node
+ * are recomputed from (P, M) instead of being stored.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class LinearSpaceHSTree extends AbstractHSConstructor {
+
+    public static final String COUNTER_NONMINIMAL_CANDIDATES = "The number of non-minimal candidates:";
+
+    private final Set<Constraint> C;
+    private final Set<Constraint> B;
+
+    public LinearSpaceHSTree(IHSLabelable labeler, IConsistencyChecker checker) {
+        super(labeler, checker);
+
+        AbstractHSParameters param = labeler.getInitialParameters();
+        checkArgument(param instanceof FastDiagV3Parameters || param instanceof FastDiagV2Parameters,
+                "LinearSpaceHSTree requires a labeler with FastDiagV2Parameters or FastDiagV3Parameters");
+
+        this.C = param.getC();
+        if (param instanceof FastDiagV3Parameters) {
+            this.B = ((FastDiagV3Parameters) param).getB();
+        } else {
+            this.B = Sets.difference(((FastDiagV2Parameters) param).getAC(), param.getC()).immutableCopy();
+        }
+    }
+
+    @Override
+    public void construct() {
+        log.debug("{}Constructing the linear-space inverse HS-tree for [C={}] >>>", context.tab(), C);
+        context.indent();
+
+        context.start(TIMER_HS_CONSTRUCTION_SESSION);
+        context.start(TIMER_DIAGNOSIS);
+
+        // the nodes of the current path
+        Deque<Frame> path = new ArrayDeque<>();
+        Frame root = label(new LinkedHashSet<>(), new LinkedHashSet<>());
+        if (root != null) {
+            path.push(root);
+        }
+
+        while (!path.isEmpty() && !stopConstruction()) {
+            Frame frame = path.peek();
+
+            if (frame.next >= frame.label.size()) {
+                path.pop();
+                continue;
+            }
+
+            // the next child keeps e_next and removes e_1, ..., e_(next-1)
+            Constraint kept = frame.label.get(frame.next);
+            Set<Constraint> P = new LinkedHashSet<>(frame.P);
+            P.add(kept);
+            Set<Constraint> M = new LinkedHashSet<>(frame.M);
+            M.addAll(frame.label.subList(0, frame.next));
+            frame.next++;
+
+            if (getMaxDepth() != 0 && M.size() > getMaxDepth()) {
+                continue;
+            }
+
+            Frame child = label(P, M);
+            if (child != null) {
+                path.push(child);
+            }
+        }
+
+        context.outdent();
+        log.debug("{}<<< return [diagnoses={}]", context.tab(), getDiagnoses());
+
+        context.stop(TIMER_HS_CONSTRUCTION_SESSION);
+        context.stop(TIMER_DIAGNOSIS, false);
+    }
+
+    /**
+     * Labels the subproblem (P, M) and returns the node to expand,
+     * or null if the subproblem has no further diagnoses.
+     */
+    private Frame label(Set<Constraint> P, Set<Constraint> M) {
+        context.incrementCounter(COUNTER_CONSTRUCTED_NODES);
+        log.trace("{}Processing [P={}, M={}]", context.tab(), P, M);
+
+        Set<Constraint> Bsub = new LinkedHashSet<>(B);
+        Bsub.addAll(P);
+        if (!P.isEmpty()) {
+            context.increment(CONSISTENCY_CHECKS);
+            if (!getChecker().isConsistent(Bsub)) {
+                return null; // no diagnosis keeps P
+            }
+        }
+
+        Set<Constraint> Csub = new LinkedHashSet<>(C);
+        Csub.removeAll(P);
+        Csub.removeAll(M);
+
+        Set<Constraint> CsubWithB = new LinkedHashSet<>(Csub);
+        CsubWithB.addAll(Bsub);
+        context.increment(CONSISTENCY_CHECKS);
+        if (getChecker().isConsistent(CsubWithB)) {
+            addDiagnosis(M, Collections.emptySet()); // E = {}
+            return null;
+        }
+
+        Set<Constraint> E;
+        if (Csub.size() == 1) {
+            E = Csub;
+        } else {
+            context.start(TIMER_CONFLICT);
+            List<Set<Constraint>> labels = getLabeler().getLabel(createParameters(Csub, Bsub));
+            context.stop(TIMER_CONFLICT);
+
+            if (labels.isEmpty()) {
+                return null;
+            }
+            E = labels.get(0);
+        }
+
+        addDiagnosis(M, E);
+        return new Frame(P, M, new ArrayList<>(E));
+    }
+
+    private void addDiagnosis(Set<Constraint> M, Set<Constraint> E) {
+        Set<Constraint> diag = new LinkedHashSet<>(M);
+        diag.addAll(E);
+
+        if (diag.isEmpty() || (getMaxDepth() != 0 && diag.size() > getMaxDepth()) || !isMinimal(diag, M)) {
+            return;
+        }
+
+        getDiagnoses().add(diag);
+        log.debug("{}Diagnosis #{} is found: {}", context.tab(), getDiagnoses().size(), diag);
+
+        context.stop(TIMER_DIAGNOSIS);
+        context.start(TIMER_DIAGNOSIS);
+    }
+
+    /**
+     * The constraints of E are minimal in the subproblem, hence only the constraints of M are checked.
+     */
+    private boolean isMinimal(Set<Constraint> diag, Set<Constraint> M) {
+        for (Constraint m : M) {
+            Set<Constraint> kept = new LinkedHashSet<>(C);
+            kept.removeAll(diag);
+            kept.add(m);
+            kept.addAll(B);
+
+            context.increment(CONSISTENCY_CHECKS);
+            if (getChecker().isConsistent(kept)) {
+                context.incrementCounter(COUNTER_NONMINIMAL_CANDIDATES);
+                log.trace("{}Non-minimal [candidate={}, redundant={}]", context.tab(), diag, m);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private AbstractHSParameters createParameters(Set<Constraint> Csub, Set<Constraint> Bsub) {
+        if (getLabeler().getInitialParameters() instanceof FastDiagV3Parameters) {
+            return FastDiagV3Parameters.builder()
+                    .C(Csub)
+                    .B(Bsub).build();
+        }
+        Set<Constraint> AC = new LinkedHashSet<>(Csub);
+        AC.addAll(Bsub);
+        return FastDiagV2Parameters.builder()
+                .C(Csub)
+                .AC(AC).build();
+    }
+
+    @Override
+    protected void addConflicts(Collection<Set<Constraint>> conflicts) {
+        getConflicts().addAll(conflicts);
+    }
+
+    @Override
+    protected void addItemToCSNodesMap(Set<Constraint> cs, Node node) {
+        // no nodes are stored
+    }
+
+    /**
+     * A node on the current path.
+     */
+    private static class Frame {
+        private final Set<Constraint> P;
+        private final Set<Constraint> M;
+        private final List<Constraint> label;
+        private int next = 0;
+
+        private Frame(Set<Constraint> P, Set<Constraint> M, List<Constraint> label) {
+            this.P = P;
+            this.M = M;
+            this.label = label;
+        }
+    }
+}
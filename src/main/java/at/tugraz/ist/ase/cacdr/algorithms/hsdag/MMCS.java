@@ -0,0 +1,176 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of the MMCS algorithm, which enumerates all minimal hitting sets
+ * of a family of sets.
+ *
+ * Constraints and sets are numbered, so that the search works on bitsets only.
+ * A hitting set is extended with an element of the uncovered set which has the fewest candidates,
+ * and an element is only added if each element of the hitting set still has a critical set,
+ * i.e., a set hit only by this element. Hence, every output hitting set is minimal,
+ * and no hitting set is output twice.
+ *
+ * source: Murakami, K., Uno, T.: Efficient algorithms for dualizing large-scale hypergraphs.
+ * Discrete Applied Mathematics 170, 83-94 (2014)
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class MMCS {
+
+    private final List<Constraint> elements = new ArrayList<>();
+    private final BitSet[] sets; // set id -> the elements of the set
+    private final BitSet[] occurrences; // element id -> the sets containing the element
+    private final boolean hasEmptySet;
+
+    /**
+     * @param family the family of sets (e.g., the conflicts)
+     */
+    public MMCS(@NonNull Collection<Set<Constraint>> family) {
+        Map<Constraint, Integer> ids = new HashMap<>();
+        Set<Set<Constraint>> distinct = new LinkedHashSet<>(family);
+
+        sets = new BitSet[distinct.size()];
+        boolean empty = false;
+        int i = 0;
+        for (Set<Constraint> set : distinct) {
+            BitSet bits = new BitSet();
+            for (Constraint c : set) {
+                Integer id = ids.get(c);
+                if (id == null) {
+                    id = elements.size();
+                    ids.put(c, id);
+                    elements.add(c);
+                }
+                bits.set(id);
+            }
+            empty |= set.isEmpty();
+            sets[i++] = bits;
+        }
+        hasEmptySet = empty;
+
+        occurrences = new BitSet[elements.size()];
+        for (int e = 0; e < occurrences.length; e++) {
+            occurrences[e] = new BitSet();
+        }
+        for (int s = 0; s < sets.length; s++) {
+            for (int e = sets[s].nextSetBit(0); e >= 0; e = sets[s].nextSetBit(e + 1)) {
+                occurrences[e].set(s);
+            }
+        }
+    }
+
+    /**
+     * Returns all minimal hitting sets of the family.
+     * @return all minimal hitting sets
+     */
+    public List<Set<Constraint>> enumerate() {
+        List<Set<Constraint>> hittingSets = new LinkedList<>();
+        enumerate(hs -> {
+            hittingSets.add(hs);
+            return true;
+        });
+        return hittingSets;
+    }
+
+    /**
+     * Passes the minimal hitting sets of the family to the given consumer,
+     * until the consumer returns <code>false</code>.
+     * @param consumer a consumer of the minimal hitting sets
+     * @return <code>false</code> if the enumeration was stopped by the consumer
+     */
+    public boolean enumerate(@NonNull Predicate<Set<Constraint>> consumer) {
+        if (hasEmptySet) { // there is no hitting set
+            return true;
+        }
+
+        BitSet uncovered = new BitSet();
+        uncovered.set(0, sets.length);
+        BitSet candidates = new BitSet();
+        candidates.set(0, elements.size());
+
+        return mmcs(new BitSet(), candidates, uncovered, new BitSet[elements.size()], consumer);
+    }
+
+    private boolean mmcs(BitSet hs, BitSet candidates, BitSet uncovered, BitSet[] crit,
+                         Predicate<Set<Constraint>> consumer) {
+        if (uncovered.isEmpty()) {
+            return consumer.test(toSet(hs));
+        }
+
+        // select the uncovered set with the fewest candidates
+        BitSet chosen = null;
+        int min = Integer.MAX_VALUE;
+        for (int s = uncovered.nextSetBit(0); s >= 0; s = uncovered.nextSetBit(s + 1)) {
+            BitSet c = (BitSet) sets[s].clone();
+            c.and(candidates);
+            if (c.cardinality() < min) {
+                min = c.cardinality();
+                chosen = c;
+            }
+        }
+
+        candidates.andNot(chosen);
+        boolean proceed = true;
+        for (int e = chosen.nextSetBit(0); e >= 0 && proceed; e = chosen.nextSetBit(e + 1)) {
+            // the elements of hs must keep a critical set after adding e
+            Map<Integer, BitSet> removedCrit = new HashMap<>();
+            boolean minimal = true;
+            for (int f = hs.nextSetBit(0); f >= 0; f = hs.nextSetBit(f + 1)) {
+                if (crit[f].intersects(occurrences[e])) {
+                    removedCrit.put(f, crit[f]);
+                    crit[f] = (BitSet) crit[f].clone();
+                    crit[f].andNot(occurrences[e]);
+                    if (crit[f].isEmpty()) {
+                        minimal = false;
+                    }
+                }
+            }
+
+            if (minimal) {
+                crit[e] = (BitSet) uncovered.clone();
+                crit[e].and(occurrences[e]);
+
+                BitSet newUncovered = (BitSet) uncovered.clone();
+                newUncovered.andNot(occurrences[e]);
+
+                hs.set(e);
+                proceed = mmcs(hs, candidates, newUncovered, crit, consumer);
+                hs.clear(e);
+                crit[e] = null;
+            }
+
+            // restore the critical sets
+            for (Map.Entry<Integer, BitSet> entry : removedCrit.entrySet()) {
+                crit[entry.getKey()] = entry.getValue();
+            }
+
+            candidates.set(e);
+        }
+        // restore the candidates which weren't tried because of stopping
+        candidates.or(chosen);
+
+        return proceed;
+    }
+
+    private Set<Constraint> toSet(BitSet hs) {
+        Set<Constraint> set = new LinkedHashSet<>();
+        for (int e = hs.nextSetBit(0); e >= 0; e = hs.nextSetBit(e + 1)) {
+            set.add(elements.get(e));
+        }
+        return set;
+    }
+}
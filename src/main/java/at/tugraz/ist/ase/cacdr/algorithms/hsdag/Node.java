@@ -9,7 +9,6 @@
 package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
 
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
-import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
@@ -33,12 +32,13 @@ import java.util.*;
  * @author Viet-Man Le (vietman.le@ist.tugraz.at)
  */
 @Getter
-@NoArgsConstructor
 @Slf4j
 public class Node {
 
-    private static long generatingNodeId = -1;
-    private final long id = ++generatingNodeId;
+    /**
+     * The node id, generated by the session of the HS constructor
+     */
+    private final long id;
 
     /**
      * The tree level
@@ -85,28 +85,56 @@ public class Node {
     @Setter
     private AbstractHSParameters parameters;
 
+    private Node(long id) {
+        this.id = id;
+    }
+
     /**
      * Constructor for the root node.
      */
-    public static Node createRoot(@NonNull Set<Constraint> label,
+    public static Node createRoot(long id,
+                                  @NonNull Set<Constraint> label,
                                   @NonNull AbstractHSParameters parameters) {
-        generatingNodeId = -1;
-
-        Node root = new Node();
+        Node root = new Node(id);
         root.label = label;
         root.parameters = parameters;
 
-        log.trace("{}Created root node with [label={}]", LoggerUtils.tab, label);
+        log.trace("Created root node with [label={}]", label);
         return root;
     }
 
+    /**
+     * Constructor for nodes restored from a checkpoint.
+     * A restored node has neither parents nor children. Its parameters are regenerated
+     * from the path labels when needed.
+     */
+    public static Node restore(long id,
+                               @NonNull Set<Constraint> pathLabels,
+                               @NonNull NodeStatus status,
+                               Set<Constraint> label) {
+        Node node = new Node(id);
+        node.parents = new LinkedList<>();
+        node.level = pathLabels.size();
+        node.status = status;
+        node.label = label;
+        node.pathLabels.addAll(pathLabels);
+        for (Constraint arcLabel : pathLabels) {
+            node.arcLabel = arcLabel; // the last label of the path
+        }
+
+        log.trace("Restored node with [pathLabels={}, status={}]", pathLabels, status);
+        return node;
+    }
+
     /**
      * Constructor for child nodes.
      */
     @Builder
-    public Node(@NonNull Node parent,
+    public Node(long id,
+                @NonNull Node parent,
                 @NonNull Constraint arcLabel,
                 @NonNull AbstractHSParameters parameters) {
+        this.id = id;
         this.parents = new LinkedList<>();
         this.parents.add(parent);
         this.level = parent.level + 1;
@@ -118,7 +146,7 @@ public class Node {
 
         parent.children.put(arcLabel, this);
 
-        log.trace("{}Created child node with [parent={}, arcLabel={}]", LoggerUtils.tab, parent, pathLabels);
+        log.trace("Created child node with [parent={}, arcLabel={}]", parent, pathLabels);
     }
 
     /**
@@ -130,7 +158,7 @@ public class Node {
         } else {
             parents.add(parent);
 
-            log.trace("{}Added parent node with [parent={}, child={}]", LoggerUtils.tab, parent, this);
+            log.trace("Added parent node with [parent={}, child={}]", parent, this);
         }
     }
 
@@ -141,7 +169,7 @@ public class Node {
         this.children.put(arcLabel, child);
         child.addParent(this);
 
-        log.trace("{}Added child node with [parent={}, arcLabel={}, child={}]", LoggerUtils.tab, this, arcLabel, child);
+        log.trace("Added child node with [parent={}, arcLabel={}, child={}]", this, arcLabel, child);
     }
 
     /**
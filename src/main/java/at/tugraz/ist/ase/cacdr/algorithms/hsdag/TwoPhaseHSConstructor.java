@@ -0,0 +1,201 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+import static at.tugraz.ist.ase.common.ConstraintUtils.hasIntersection;
+
+/**
+ * A two-phase alternative to the HS-tree/HS-dag, which doesn't construct a tree.
+ *
+ * In the first phase, all minimal conflicts are collected using the labeler:
+ * the minimal hitting sets of the known conflicts are checked by the labeler,
+ * and a hitting set for which the labeler returns a new conflict is discarded.
+ * The phase ends when each minimal hitting set of the known conflicts is verified.
+ * In the second phase, the MMCS algorithm enumerates all minimal hitting sets
+ * of the collected conflicts, i.e., the diagnoses, ordered by cardinality.
+ *
+ * If the conflicts are preset with {@link #setConflicts(List)} and marked as complete,
+ * the first phase is skipped and no labeler call is required.
+ * Similar to the HS-tree, a diagnosis labeler (e.g., FastDiag) yields the conflicts in the dual way.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class TwoPhaseHSConstructor extends AbstractHSConstructor {
+
+    public static final String COUNTER_CONFLICT_COLLECTION_ROUNDS = "The number of conflict collection rounds:";
+    public static final String COUNTER_CHECKED_HITTING_SETS = "The number of checked hitting sets:";
+
+    /**
+     * true - if the preset conflicts are all minimal conflicts, then the first phase is skipped
+     */
+    @Getter @Setter
+    private boolean conflictsComplete = false;
+
+    // hitting sets which are known to be diagnoses
+    private final Set<Set<Constraint>> verifiedHittingSets = new HashSet<>();
+
+    public TwoPhaseHSConstructor(IHSLabelable labeler, IConsistencyChecker checker) {
+        super(labeler, checker);
+    }
+
+    @Override
+    public void construct() {
+        log.debug("{}Constructing the diagnoses in two phases for [C={}] >>>", context.tab(),
+                getLabeler().getInitialParameters().getC());
+        context.indent();
+
+        context.start(TIMER_HS_CONSTRUCTION_SESSION);
+        context.start(TIMER_DIAGNOSIS);
+
+        if (!conflictsComplete) {
+            collectConflicts();
+        }
+
+        if (!getConflicts().isEmpty()) {
+            enumerateDiagnoses();
+        }
+
+        context.outdent();
+        log.debug("{}<<< return [conflicts={}]", context.tab(), getConflicts());
+        log.debug("{}<<< return [diagnoses={}]", context.tab(), getDiagnoses());
+
+        context.stop(TIMER_HS_CONSTRUCTION_SESSION);
+        context.stop(TIMER_DIAGNOSIS, false);
+    }
+
+    /**
+     * Phase 1 - collects the minimal conflicts.
+     */
+    protected void collectConflicts() {
+        log.trace("{}Collecting conflicts >>>", context.tab());
+        context.indent();
+
+        if (getConflicts().isEmpty()) {
+            List<Set<Constraint>> conflicts = getLabel(getLabeler().getInitialParameters());
+            if (conflicts.isEmpty()) {
+                context.outdent();
+                return;
+            }
+            addConflicts(conflicts);
+        }
+
+        boolean hasNewConflicts = true;
+        while (hasNewConflicts && !stopConstruction()) {
+            context.incrementCounter(COUNTER_CONFLICT_COLLECTION_ROUNDS);
+            hasNewConflicts = false;
+
+            List<Set<Constraint>> newConflicts = new LinkedList<>();
+            for (Set<Constraint> hs : new MMCS(getConflicts()).enumerate()) {
+                // skip verified hitting sets and hitting sets which don't hit the conflicts of this round
+                if (verifiedHittingSets.contains(hs)
+                        || newConflicts.stream().anyMatch(cs -> !hasIntersection(cs, hs))) {
+                    continue;
+                }
+
+                context.incrementCounter(COUNTER_CHECKED_HITTING_SETS);
+                List<Set<Constraint>> conflicts = getLabel(getParameters(hs));
+                if (conflicts.isEmpty()) {
+                    verifiedHittingSets.add(hs);
+                } else {
+                    newConflicts.addAll(conflicts);
+                    addConflicts(conflicts);
+                    hasNewConflicts = true;
+
+                    if (stopConstruction()) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        context.outdent();
+        log.trace("{}<<< Collected {} conflicts", context.tab(), getConflicts().size());
+    }
+
+    /**
+     * Phase 2 - enumerates the minimal hitting sets of the collected conflicts.
+     */
+    protected void enumerateDiagnoses() {
+        List<Set<Constraint>> hittingSets = new ArrayList<>(new MMCS(getConflicts()).enumerate());
+        hittingSets.sort(Comparator.comparingInt(Set::size));
+
+        for (Set<Constraint> hs : hittingSets) {
+            if (stopConstruction()) {
+                break;
+            }
+            getDiagnoses().add(hs);
+            log.debug("{}Diagnosis #{} is found: {}", context.tab(), getDiagnoses().size(), hs);
+
+            context.stop(TIMER_DIAGNOSIS);
+            context.start(TIMER_DIAGNOSIS);
+        }
+    }
+
+    private List<Set<Constraint>> getLabel(AbstractHSParameters param) {
+        context.start(TIMER_CONFLICT);
+        List<Set<Constraint>> conflicts = getLabeler().getLabel(param);
+
+        if (!conflicts.isEmpty()) {
+            context.stop(TIMER_CONFLICT);
+        } else {
+            // stop TIMER_CONFLICT without saving the time
+            context.stop(TIMER_CONFLICT, false);
+        }
+        return conflicts;
+    }
+
+    /**
+     * Generates the labeler's parameters for the given hitting set,
+     * as for a node with the hitting set as its path labels.
+     */
+    private AbstractHSParameters getParameters(Set<Constraint> hs) {
+        AbstractHSParameters param = getLabeler().getInitialParameters();
+        for (Constraint c : hs) {
+            param = getLabeler().createParameter(param, c);
+        }
+        return param;
+    }
+
+    @Override
+    protected void addConflicts(Collection<Set<Constraint>> conflicts) {
+        for (Set<Constraint> conflict : conflicts) {
+            getConflicts().add(conflict);
+            log.debug("{}Conflict #{} is found: {}", context.tab(), getConflicts().size(), conflict);
+        }
+    }
+
+    @Override
+    protected void addItemToCSNodesMap(Set<Constraint> cs, Node node) {
+        // no nodes are generated
+    }
+
+    @Override
+    public void resetEngine() {
+        super.resetEngine();
+        this.verifiedHittingSets.clear();
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        this.verifiedHittingSets.clear();
+    }
+}
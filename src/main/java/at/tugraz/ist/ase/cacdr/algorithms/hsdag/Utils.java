@@ -8,7 +8,7 @@
 
 package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
 
-import at.tugraz.ist.ase.common.LoggerUtils;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -20,22 +20,22 @@ import java.util.Set;
 @Slf4j
 public class Utils {
     // Only for testing
-    public void printInfo(Node root, List<Set<Constraint>> conflicts, List<Set<Constraint>> diagnoses) {
-        printNode(root);
-        log.trace("{}conflicts: {}", LoggerUtils.tab, conflicts);
-        log.trace("{}diagnoses: {}", LoggerUtils.tab, diagnoses);
+    public void printInfo(SessionContext context, Node root, List<Set<Constraint>> conflicts, List<Set<Constraint>> diagnoses) {
+        printNode(context, root);
+        log.trace("{}conflicts: {}", context.tab(), conflicts);
+        log.trace("{}diagnoses: {}", context.tab(), diagnoses);
     }
 
-    public void printNode(Node node) {
+    public void printNode(SessionContext context, Node node) {
         if (node != null) {
-            log.trace("{}[node={}]", LoggerUtils.tab, node);
-            LoggerUtils.indent();
+            log.trace("{}[node={}]", context.tab(), node);
+            context.indent();
 
             for (Node child : node.getChildren().values()) {
-                printNode(child);
+                printNode(context, child);
             }
 
-            LoggerUtils.outdent();
+            context.outdent();
         }
     }
 }
@@ -13,7 +13,7 @@ package at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler;
 import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV2;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV2Parameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import lombok.Getter;
 import lombok.NonNull;
@@ -35,10 +35,10 @@ public class FastDiagV2Labeler extends FastDiagV2 implements IHSLabelable {
 
     /**
      * Constructor with parameters which contain C, and AC
-     * @param checker a {@link ChocoConsistencyChecker} object
+     * @param checker an {@link IConsistencyChecker} object
      * @param parameters a {@link FastDiagV2Parameters} object
      */
-    public FastDiagV2Labeler(@NonNull ChocoConsistencyChecker checker, @NonNull FastDiagV2Parameters parameters) {
+    public FastDiagV2Labeler(@NonNull IConsistencyChecker checker, @NonNull FastDiagV2Parameters parameters) {
         super(checker);
         this.initialParameters = parameters;
     }
@@ -14,7 +14,7 @@ import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV2Parameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV3Parameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import lombok.Getter;
 import lombok.NonNull;
@@ -36,10 +36,10 @@ public class FastDiagV3Labeler extends FastDiagV3 implements IHSLabelable {
 
     /**
      * Constructor with parameters which contain C, and B
-     * @param checker a {@link ChocoConsistencyChecker} object
+     * @param checker an {@link IConsistencyChecker} object
      * @param parameters a {@link FastDiagV2Parameters} object
      */
-    public FastDiagV3Labeler(@NonNull ChocoConsistencyChecker checker, @NonNull FastDiagV3Parameters parameters) {
+    public FastDiagV3Labeler(@NonNull IConsistencyChecker checker, @NonNull FastDiagV3Parameters parameters) {
         super(checker);
         this.initialParameters = parameters;
     }
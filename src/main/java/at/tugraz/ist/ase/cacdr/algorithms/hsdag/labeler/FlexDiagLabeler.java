@@ -13,7 +13,7 @@ package at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler;
 import at.tugraz.ist.ase.cacdr.algorithms.FlexDiag;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FlexDiagParameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import lombok.Getter;
 import lombok.NonNull;
@@ -35,10 +35,10 @@ public class FlexDiagLabeler extends FlexDiag implements IHSLabelable {
 
     /**
      * Constructor with parameters which contain C, and AC
-     * @param checker a {@link ChocoConsistencyChecker} object
+     * @param checker an {@link IConsistencyChecker} object
      * @param parameters a {@link FlexDiagParameters} object
      */
-    public FlexDiagLabeler(@NonNull ChocoConsistencyChecker checker, @NonNull FlexDiagParameters parameters) {
+    public FlexDiagLabeler(@NonNull IConsistencyChecker checker, @NonNull FlexDiagParameters parameters) {
         super(checker);
         this.initialParameters = parameters;
     }
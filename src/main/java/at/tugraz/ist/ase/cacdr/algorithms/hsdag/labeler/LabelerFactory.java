@@ -0,0 +1,85 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV2Parameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV3Parameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FlexDiagParameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.Set;
+
+/**
+ * Creates the labelers of the HS constructors by their names, which are case-insensitive:
+ * quickxplain, fastdiagv2, fastdiagv3, and flexdiag.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@UtilityClass
+public class LabelerFactory {
+
+    public final Set<String> LABELERS = Set.of("quickxplain", "fastdiagv2", "fastdiagv3", "flexdiag");
+
+    /**
+     * Creates a labeler, FlexDiag with m = 1.
+     */
+    public IHSLabelable create(@NonNull String name, @NonNull IConsistencyChecker checker,
+                               @NonNull Set<Constraint> C, @NonNull Set<Constraint> B, @NonNull Set<Constraint> AC) {
+        return create(name, checker, C, B, AC, 1);
+    }
+
+    /**
+     * Creates a labeler.
+     * @param name the name of the labeler
+     * @param checker an {@link IConsistencyChecker} object
+     * @param C a consideration set of constraints
+     * @param B a background knowledge, for QuickXPlain and FastDiagV3
+     * @param AC all constraints, for FastDiagV2 and FlexDiag
+     * @param m the parameter m of FlexDiag
+     * @return a labeler with the given initial parameters
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public IHSLabelable create(@NonNull String name, @NonNull IConsistencyChecker checker,
+                               @NonNull Set<Constraint> C, @NonNull Set<Constraint> B, @NonNull Set<Constraint> AC,
+                               int m) {
+        switch (name.toLowerCase()) {
+            case "quickxplain":
+                return new QuickXPlainLabeler(checker, QuickXPlainParameters.builder()
+                        .C(C)
+                        .B(B).build());
+            case "fastdiagv2":
+                return new FastDiagV2Labeler(checker, FastDiagV2Parameters.builder()
+                        .C(C)
+                        .AC(AC).build());
+            case "fastdiagv3":
+                return new FastDiagV3Labeler(checker, FastDiagV3Parameters.builder()
+                        .C(C)
+                        .B(B).build());
+            case "flexdiag":
+                return new FlexDiagLabeler(checker, FlexDiagParameters.builder()
+                        .S(C)
+                        .AC(AC)
+                        .m(m).build());
+            default:
+                throw new IllegalArgumentException("Unknown labeler " + name);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the labeler returns conflicts. The other labelers return diagnoses,
+     * hence the conflicts of an HS constructor using them are diagnoses, and vice versa.
+     */
+    public boolean returnsConflicts(@NonNull String name) {
+        return name.equalsIgnoreCase("quickxplain");
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A labeler which delegates to another labeler and measures the labeling cost,
+ * i.e., the number of calls, the time spent, and the sizes of the returned labels
+ * (which are the branching factors of the HS-tree).
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public class MeasuredLabeler implements IHSLabelable {
+
+    private final IHSLabelable labeler;
+
+    private long calls = 0;
+    private long nanos = 0;
+    private long labels = 0;
+    private long labelSizes = 0;
+
+    public MeasuredLabeler(@NonNull IHSLabelable labeler) {
+        this.labeler = labeler;
+    }
+
+    @Override
+    public AbstractHSParameters getInitialParameters() {
+        return labeler.getInitialParameters();
+    }
+
+    @Override
+    public List<Set<Constraint>> getLabel(@NonNull AbstractHSParameters parameters) {
+        long start = System.nanoTime();
+        List<Set<Constraint>> result = labeler.getLabel(parameters);
+        nanos += System.nanoTime() - start;
+        calls++;
+
+        for (Set<Constraint> label : result) {
+            labels++;
+            labelSizes += label.size();
+        }
+        return result;
+    }
+
+    @Override
+    public AbstractHSParameters createParameter(@NonNull AbstractHSParameters param_parentNode, @NonNull Constraint arcLabel) {
+        return labeler.createParameter(param_parentNode, arcLabel);
+    }
+
+    /**
+     * Returns the average time of a labeler call in nanoseconds.
+     */
+    public double getAverageTime() {
+        return calls == 0 ? 0 : (double) nanos / calls;
+    }
+
+    /**
+     * Returns the average size of the returned labels, i.e., the average branching factor.
+     */
+    public double getAverageLabelSize() {
+        return labels == 0 ? 0 : (double) labelSizes / labels;
+    }
+
+    public void reset() {
+        calls = 0;
+        nanos = 0;
+        labels = 0;
+        labelSizes = 0;
+    }
+}
@@ -14,7 +14,7 @@ import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.AbstractHSParameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV2Parameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
-import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import lombok.Getter;
 import lombok.NonNull;
@@ -33,10 +33,10 @@ public class QuickXPlainLabeler extends QuickXPlain implements IHSLabelable {
 
     /**
      * Constructor with parameters which contain C, and B
-     * @param checker a {@link ChocoConsistencyChecker} object
+     * @param checker an {@link IConsistencyChecker} object
      * @param parameters a {@link FastDiagV2Parameters} object
      */
-    public QuickXPlainLabeler(@NonNull ChocoConsistencyChecker checker, @NonNull QuickXPlainParameters parameters) { // @NonNull Set<Constraint> C, @NonNull Set<Constraint> B
+    public QuickXPlainLabeler(@NonNull IConsistencyChecker checker, @NonNull QuickXPlainParameters parameters) { // @NonNull Set<Constraint> C, @NonNull Set<Constraint> B
         super(checker);
         this.initialParameters = parameters;
     }
@@ -0,0 +1,157 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.Node;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.NonNull;
+
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Processes the open nodes in the descending order of the fault probability of their path labels.
+ *
+ * The score of a node is the sum of the log-odds log(p(c) / (1 - p(c))) of the constraints
+ * in its path labels, which orders the nodes as the probabilities of the diagnoses
+ * p(c1) * ... * p(ck) * (1 - p(c_k+1)) * ... * (1 - p(cn)) do.
+ * Constraints without a given fault probability get the default probability.
+ *
+ * If some constraints have fault probabilities greater than 0.5, a descendant could have
+ * a higher score than its ancestor. In this case, the nodes are ordered by an upper bound,
+ * which adds the positive log-odds of the constraints in C which aren't in the path labels.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class BestFirstStrategy implements IRankingStrategy {
+
+    private final Map<Constraint, Double> logOdds = new HashMap<>();
+    private final double defaultLogOdds;
+    private final boolean monotone;
+
+    // the sum of the positive log-odds of the constraints, and the sum of log(1 - p(c)) of C
+    private final double optimism;
+    private final double logNoFault;
+
+    /**
+     * @param faultProbabilities the fault probabilities of the constraints, each in (0, 1)
+     * @param defaultProbability the fault probability of the constraints which aren't in the map
+     * @param C the constraints which could be in a diagnosis, or null if unknown
+     */
+    public BestFirstStrategy(@NonNull Map<Constraint, Double> faultProbabilities, double defaultProbability,
+                             Collection<Constraint> C) {
+        boolean monotone = defaultProbability < 0.5;
+        for (Map.Entry<Constraint, Double> entry : faultProbabilities.entrySet()) {
+            double p = entry.getValue();
+            logOdds.put(entry.getKey(), logOdds(p));
+            monotone &= p < 0.5;
+        }
+        this.defaultLogOdds = logOdds(defaultProbability);
+
+        double optimism = 0;
+        double logNoFault = 0;
+        if (C != null) {
+            for (Constraint c : C) {
+                optimism += Math.max(0, getLogOdds(c));
+                logNoFault -= Math.log1p(Math.exp(getLogOdds(c))); // log(1 - p)
+            }
+            monotone = optimism == 0;
+        } else {
+            checkArgument(defaultProbability <= 0.5, "C is required if the default probability is greater than 0.5");
+            for (double lo : logOdds.values()) {
+                optimism += Math.max(0, lo);
+            }
+            logNoFault = Double.NaN;
+        }
+        this.optimism = optimism;
+        this.logNoFault = logNoFault;
+        this.monotone = monotone;
+    }
+
+    /**
+     * @param faultProbabilities the fault probabilities of the constraints, each in (0, 1)
+     * @param defaultProbability the fault probability of the constraints which aren't in the map
+     */
+    public BestFirstStrategy(@NonNull Map<Constraint, Double> faultProbabilities, double defaultProbability) {
+        this(faultProbabilities, defaultProbability, null);
+    }
+
+    public BestFirstStrategy(@NonNull Map<Constraint, Double> faultProbabilities) {
+        this(faultProbabilities, 0.01);
+    }
+
+    @Override
+    public Queue<Node> createQueue() {
+        return new PriorityQueue<>(Comparator.comparingDouble((Node node) -> -bound(node))
+                .thenComparingInt(Node::getLevel)
+                .thenComparingLong(Node::getId));
+    }
+
+    /**
+     * If all fault probabilities are less than 0.5, each superset has a lower score than its subsets,
+     * so that the subsets are processed first.
+     */
+    @Override
+    public boolean findsMinimalDiagnosesFirst() {
+        return monotone;
+    }
+
+    /**
+     * Returns the score of a set of constraints, which is the logarithm of the ratio between
+     * the probability that exactly the given constraints are faulty and the probability that
+     * no constraint is faulty.
+     * @param constraints a set of constraints
+     * @return the score of the given set
+     */
+    @Override
+    public double score(@NonNull Collection<Constraint> constraints) {
+        double score = 0;
+        for (Constraint c : constraints) {
+            score += getLogOdds(c);
+        }
+        return score;
+    }
+
+    /**
+     * The score of the path labels plus the positive log-odds of the other constraints.
+     */
+    @Override
+    public double bound(@NonNull Node node) {
+        if (monotone) {
+            return score(node.getPathLabels());
+        }
+        double bound = optimism;
+        for (Constraint c : node.getPathLabels()) {
+            bound += Math.min(0, getLogOdds(c));
+        }
+        return bound;
+    }
+
+    /**
+     * Returns the probability that exactly the constraints of the given diagnosis are faulty.
+     * Requires the set C given in the constructor.
+     * @param diagnosis a diagnosis
+     * @return the probability of the diagnosis
+     */
+    public double probability(@NonNull Collection<Constraint> diagnosis) {
+        checkState(!Double.isNaN(logNoFault), "The probability requires the set C");
+        return Math.exp(logNoFault + score(diagnosis));
+    }
+
+    public double getLogOdds(@NonNull Constraint constraint) {
+        return logOdds.getOrDefault(constraint, defaultLogOdds);
+    }
+
+    private static double logOdds(double p) {
+        checkArgument(p > 0 && p < 1, "Fault probabilities must be in (0, 1)");
+        return Math.log(p / (1 - p));
+    }
+}
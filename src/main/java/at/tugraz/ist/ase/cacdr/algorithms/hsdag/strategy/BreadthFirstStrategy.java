@@ -0,0 +1,33 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.Node;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+/**
+ * Processes the open nodes in the FIFO order, i.e., level by level.
+ * This is the original strategy of the HS-tree and HSDAG algorithms.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class BreadthFirstStrategy implements INodeSelectionStrategy {
+
+    @Override
+    public Queue<Node> createQueue() {
+        return new LinkedList<>();
+    }
+
+    @Override
+    public boolean findsMinimalDiagnosesFirst() {
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.Node;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Queue;
+
+/**
+ * Processes the open nodes in the LIFO order, i.e., the most recently generated node first.
+ * Reaches the first diagnoses quickly, but these diagnoses might not be minimal.
+ * Non-minimal diagnoses are removed when their subsets are found.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class DepthFirstStrategy implements INodeSelectionStrategy {
+
+    @Override
+    public Queue<Node> createQueue() {
+        return Collections.asLifoQueue(new ArrayDeque<>());
+    }
+}
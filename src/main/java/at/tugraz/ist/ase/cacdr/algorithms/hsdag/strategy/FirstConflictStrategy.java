@@ -0,0 +1,32 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Selects the first conflict. This is the original strategy of the HS-tree and HSDAG algorithms.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class FirstConflictStrategy implements IConflictSelectionStrategy {
+
+    @Override
+    public Set<Constraint> select(List<Set<Constraint>> conflicts) {
+        return conflicts.get(0);
+    }
+
+    @Override
+    public boolean needsAllCandidates() {
+        return false;
+    }
+}
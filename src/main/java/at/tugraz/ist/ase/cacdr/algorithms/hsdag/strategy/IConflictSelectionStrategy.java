@@ -0,0 +1,38 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Selects the label of a node from a list of candidate conflicts.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public interface IConflictSelectionStrategy {
+
+    /**
+     * Selects a conflict to label a node.
+     * @param conflicts a non-empty list of conflicts
+     * @return the node label
+     */
+    Set<Constraint> select(List<Set<Constraint>> conflicts);
+
+    /**
+     * Returns <code>true</code> if the strategy has to see all reusable conflicts of a node.
+     * Otherwise, the HS constructor stops searching for reusable conflicts at the first one.
+     * @return <code>true</code> if all reusable conflicts should be collected
+     */
+    default boolean needsAllCandidates() {
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.Node;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Queue;
+
+/**
+ * Defines the order in which the HS-tree and HSDAG algorithms process their open nodes.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public interface INodeSelectionStrategy {
+
+    /**
+     * Creates the queue storing the open nodes.
+     * The head of the queue is the next node to process.
+     * @return an empty queue
+     */
+    Queue<Node> createQueue();
+
+    /**
+     * Returns <code>true</code> if every node is processed after all nodes whose path labels
+     * are subsets of its path labels. In this case, every identified diagnosis is minimal.
+     * Otherwise, the HS constructor removes the non-minimal diagnoses when their subsets are found.
+     * @return <code>true</code> if the identified diagnoses are guaranteed to be minimal
+     */
+    default boolean findsMinimalDiagnosesFirst() {
+        return false;
+    }
+
+    /**
+     * Returns <code>true</code> if the given open node shouldn't be processed in the current run.
+     * @param node an open node
+     * @return <code>true</code> if the node should be skipped
+     */
+    default boolean skip(Node node) {
+        return false;
+    }
+
+    /**
+     * Called when there are no more open nodes. Returns <code>true</code> if the construction
+     * should be restarted from the root node, e.g., with a greater depth limit.
+     * @param maxDepth the maximum depth of the HS constructor, 0 - unbounded
+     * @return <code>true</code> if the construction should be restarted
+     */
+    default boolean restart(int maxDepth) {
+        return false;
+    }
+
+    /**
+     * Reverts the strategy to its initial state.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Writes the state which the strategy changes during a construction, e.g., a depth limit,
+     * so that a construction can be resumed from a checkpoint. A stateless strategy writes nothing.
+     * @param out the output of the checkpoint
+     */
+    default void writeState(DataOutput out) throws IOException {
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     * @param in the input of the checkpoint
+     */
+    default void readState(DataInput in) throws IOException {
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.Node;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.NonNull;
+
+import java.util.Collection;
+
+/**
+ * A node selection strategy which ranks the diagnoses.
+ * The HS constructors use the ranking to return the k best diagnoses,
+ * and to stop as soon as no open node can lead to a better diagnosis.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public interface IRankingStrategy extends INodeSelectionStrategy {
+
+    /**
+     * Returns the score of a diagnosis. Diagnoses with higher scores are ranked first.
+     * @param diagnosis a diagnosis
+     * @return the score of the diagnosis
+     */
+    double score(@NonNull Collection<Constraint> diagnosis);
+
+    /**
+     * Returns an upper bound of the scores of the diagnoses which could be found
+     * at the given node or at its descendants.
+     * The queue of the strategy has to return the nodes in the descending order of the bounds.
+     * @param node an open node
+     * @return an upper bound of the scores
+     */
+    double bound(@NonNull Node node);
+}
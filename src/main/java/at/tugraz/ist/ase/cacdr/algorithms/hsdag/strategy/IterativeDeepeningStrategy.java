@@ -0,0 +1,92 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.Node;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Queue;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Runs depth-limited depth-first constructions with the depth limits 1, 2, ...
+ * until no node is cut off by the depth limit or the maximum depth of the HS constructor is reached.
+ *
+ * Each run restarts from the root node, and reuses the conflicts and diagnoses of the previous runs,
+ * so that nodes which were already processed are labeled without calling the labeler.
+ * Since a run finds all diagnoses up to its depth limit, the identified diagnoses are minimal.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class IterativeDeepeningStrategy implements INodeSelectionStrategy {
+
+    @Getter
+    private int depthLimit = 1;
+    private boolean cutOff = false;
+
+    @Override
+    public Queue<Node> createQueue() {
+        return Collections.asLifoQueue(new ArrayDeque<>());
+    }
+
+    @Override
+    public boolean findsMinimalDiagnosesFirst() {
+        return true;
+    }
+
+    @Override
+    public boolean skip(Node node) {
+        if (node.getLevel() > depthLimit) {
+            cutOff = true;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean restart(int maxDepth) {
+        if (!cutOff || (maxDepth != 0 && depthLimit + 1 >= maxDepth)) {
+            return false;
+        }
+        depthLimit++;
+        cutOff = false;
+
+        log.trace("Restarting with [depthLimit={}]", depthLimit);
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        depthLimit = 1;
+        cutOff = false;
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(depthLimit);
+        out.writeBoolean(cutOff);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        int limit = in.readInt();
+        checkState(limit >= 1, "Invalid depth limit %s", limit);
+
+        depthLimit = limit;
+        cutOff = in.readBoolean();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Selects the smallest conflict to reduce the branching factor of the tree.
+ * Ties are broken by the order of the given list.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class SmallestConflictStrategy implements IConflictSelectionStrategy {
+
+    @Override
+    public Set<Constraint> select(List<Set<Constraint>> conflicts) {
+        Set<Constraint> smallest = conflicts.get(0);
+        for (Set<Constraint> conflict : conflicts) {
+            if (conflict.size() < smallest.size()) {
+                smallest = conflict;
+            }
+        }
+        return smallest;
+    }
+}
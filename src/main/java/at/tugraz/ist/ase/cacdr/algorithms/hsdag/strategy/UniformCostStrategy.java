@@ -0,0 +1,35 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.Node;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * Processes the open nodes in the ascending order of the cardinality of their path labels.
+ * Nodes with the same cardinality are processed in the order of their generation.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class UniformCostStrategy implements INodeSelectionStrategy {
+
+    @Override
+    public Queue<Node> createQueue() {
+        return new PriorityQueue<>(Comparator.comparingInt((Node node) -> node.getPathLabels().size())
+                .thenComparingLong(Node::getId));
+    }
+
+    @Override
+    public boolean findsMinimalDiagnosesFirst() {
+        return true;
+    }
+}
@@ -10,12 +10,15 @@
 
 package at.tugraz.ist.ase.cacdr.checker;
 
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.events.ConsistencyCheckEvent;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.cdrmodel.CDRModel;
 import at.tugraz.ist.ase.cdrmodel.IChocoModel;
 import at.tugraz.ist.ase.cdrmodel.IDebuggingModel;
-import at.tugraz.ist.ase.common.LoggerUtils;
 import at.tugraz.ist.ase.eval.test.TestCase;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.chocosolver.solver.Model;
@@ -36,12 +39,21 @@ import static com.google.common.base.Preconditions.checkState;
 public class ChocoConsistencyChecker implements IConsistencyChecker {
     public static final String TIMER_SOLVER = "Timer for solver:";
 
+    private static final Counter POST_CONSTRAINT = Counter.of(COUNTER_POST_CONSTRAINT);
+    private static final Counter UNPOST_CONSTRAINT = Counter.of(COUNTER_UNPOST_CONSTRAINT);
+
     /**
      * An internal models
      */
     private Model model;
     private CDRModel cdrModel;
 
+    /**
+     * The session the checker belongs to
+     */
+    @Getter
+    private final SessionContext context;
+
     /**
      * Constructor
      *
@@ -49,10 +61,19 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
      * - Testcases -> constraints should be posted before calling this function
      */
     public ChocoConsistencyChecker(@NonNull CDRModel diagModel) {
+        this(diagModel, SessionContext.global());
+    }
+
+    /**
+     * Constructor for a checker of a given session.
+     * The algorithms and the HS constructors using the checker take the session from the checker.
+     */
+    public ChocoConsistencyChecker(@NonNull CDRModel diagModel, @NonNull SessionContext context) {
         this.cdrModel = diagModel;
+        this.context = context;
         model = ((IChocoModel)diagModel).getModel();
 
-        log.debug("{}Created ChocoConsistencyChecker for {}", LoggerUtils.tab, diagModel);
+        log.debug("{}Created ChocoConsistencyChecker for {}", context.tab(), diagModel);
     }
 
     /**
@@ -63,8 +84,8 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
     public boolean isConsistent(@NonNull Collection<Constraint> C) {
         checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
 
-        log.debug("{}Checking consistency for [C={}] >>>", LoggerUtils.tab, C);
-        LoggerUtils.indent();
+        log.debug("{}Checking consistency for [C={}] >>>", context.tab(), C);
+        context.indent();
 
         // post constraints of the parameter C
         postConstraints(C, model);
@@ -83,8 +104,8 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         checkState(cdrModel instanceof IDebuggingModel, "Cannot check the consistency with a test case if the model is not debugging model");
         checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
 
-        log.debug("{}Checking consistency for [C={}, testcase={}] >>>", LoggerUtils.tab, C, testcase);
-        LoggerUtils.indent();
+        log.debug("{}Checking consistency for [C={}, testcase={}] >>>", context.tab(), C, testcase);
+        context.indent();
 
         // post constraints of the parameter C
         postConstraints(C, model);
@@ -116,8 +137,8 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
         checkArgument(!TC.isEmpty(), "Cannot check the consistency with an empty test case set");
 
-        log.debug("{}Checking consistency [C={}, TC={}] >>>", LoggerUtils.tab, C, TC);
-        LoggerUtils.indent();
+        log.debug("{}Checking consistency [C={}, TC={}] >>>", context.tab(), C, TC);
+        context.indent();
 
         boolean consistent = true;
         for (TestCase tc: TC) {
@@ -128,8 +149,8 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
             }
         }
 
-        LoggerUtils.outdent();
-        log.debug("{}Checked [consistent={}, TCp={}]", LoggerUtils.tab, consistent, TCp);
+        context.outdent();
+        log.debug("{}Checked [consistent={}, TCp={}]", context.tab(), consistent, TCp);
 
         return consistent;
     }
@@ -149,8 +170,8 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
         checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
         checkArgument(!TC.isEmpty(), "Cannot check the consistency with an empty test case set");
 
-        log.debug("{}Checking consistency [C={}, TC={}] >>>", LoggerUtils.tab, C, TC);
-        LoggerUtils.indent();
+        log.debug("{}Checking consistency [C={}, TC={}] >>>", context.tab(), C, TC);
+        context.indent();
 
         Set<TestCase> TCp = new LinkedHashSet<>();
         for (TestCase tc: TC) {
@@ -163,8 +184,8 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
             }
         }
 
-        LoggerUtils.outdent();
-        log.debug("{}Checked [TCp={}]", LoggerUtils.tab, TCp);
+        context.outdent();
+        log.debug("{}Checked [TCp={}]", context.tab(), TCp);
 
         return TCp;
     }
@@ -176,10 +197,10 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
     @Override
     public void reset() {
         model.getSolver().reset();
-        incrementCounter(COUNTER_UNPOST_CONSTRAINT, model.getNbCstrs());
+        context.increment(UNPOST_CONSTRAINT, model.getNbCstrs());
         model.unpost(model.getCstrs()); // unpost all constraints
 
-        log.trace("{}Reset model", LoggerUtils.tab);
+        log.trace("{}Reset model", context.tab());
     }
 
     @Override
@@ -194,18 +215,28 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
      */
     private boolean check() {
         try {
-            incrementCounter(COUNTER_CHOCO_SOLVER_CALLS);
-            log.trace("{}Checking...", LoggerUtils.tab);
-            incrementCounter(COUNTER_SIZE_CONSISTENCY_CHECKS, model.getNbCstrs());
+            context.increment(CHOCO_SOLVER_CALLS);
+            log.trace("{}Checking...", context.tab());
+            context.increment(SIZE_CONSISTENCY_CHECKS, model.getNbCstrs());
+
+            ConsistencyCheckEvent event = new ConsistencyCheckEvent();
+            event.begin();
 
-            start(TIMER_SOLVER);
+            context.start(TIMER_SOLVER);
             boolean isFeasible = model.getSolver().solve();
-            stop(TIMER_SOLVER);
+            context.stop(TIMER_SOLVER);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.constraints = model.getNbCstrs();
+                event.consistent = isFeasible;
+                event.commit();
+            }
 
             if (isFeasible) {
-                incrementCounter(COUNTER_FEASIBLE);
+                context.increment(FEASIBLE);
             } else {
-                incrementCounter(COUNTER_INFEASIBLE);
+                context.increment(INFEASIBLE);
             }
 
 //            model.getEnvironment().worldPush();
@@ -228,13 +259,13 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
             // resets the model to the beginning status
             reset();
 
-            LoggerUtils.outdent();
-            log.debug("{}<<< Checked [consistency={}]", LoggerUtils.tab, isFeasible);
+            context.outdent();
+            log.debug("{}<<< Checked [consistency={}]", context.tab(), isFeasible);
 
             return isFeasible;
         } catch (Exception e) {
-            log.error("{}Error occurred while checking consistency: {}", LoggerUtils.tab, e.getMessage());
-            LoggerUtils.outdent();
+            log.error("{}Error occurred while checking consistency: {}", context.tab(), e.getMessage());
+            context.outdent();
 
             return false;
         }
@@ -246,7 +277,7 @@ public class ChocoConsistencyChecker implements IConsistencyChecker {
      */
     private void postTestCase(TestCase testcase) {
         testcase.getChocoConstraints().forEach(model::post);
-        incrementCounter(COUNTER_POST_CONSTRAINT, testcase.getChocoConstraints().size());
-        log.trace("{}Added test case's constraints", LoggerUtils.tab);
+        context.increment(POST_CONSTRAINT, testcase.getChocoConstraints().size());
+        log.trace("{}Added test case's constraints", context.tab());
     }
 }
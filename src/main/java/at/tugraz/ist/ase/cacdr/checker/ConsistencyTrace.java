@@ -0,0 +1,211 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A trace of consistency checks, i.e., the checked sets of constraints and their results.
+ *
+ * Constraints are stored as their indexes in a list of constraints (the universe, e.g.,
+ * all constraints of the knowledge base), and sets as bitsets or as delta-encoded indexes,
+ * whichever is smaller. The constraints themselves aren't stored, so a trace of a production
+ * knowledge base can be shared without its content. Only a fingerprint of the universe is kept,
+ * to detect a replay against a different universe.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class ConsistencyTrace {
+
+    private static final int MAGIC = 0x43435452; // CCTR
+    private static final int VERSION = 1;
+
+    private static final byte BITSET = 0;
+    private static final byte INDEXES = 1;
+
+    @Getter
+    private final List<Constraint> universe;
+    private final Map<Constraint, Integer> ids = new HashMap<>();
+
+    private final List<BitSet> queries = new ArrayList<>();
+    private final BitSet results = new BitSet();
+
+    public ConsistencyTrace(@NonNull Collection<Constraint> universe) {
+        this.universe = List.copyOf(universe);
+        for (int i = 0; i < this.universe.size(); i++) {
+            ids.put(this.universe.get(i), i);
+        }
+    }
+
+    /**
+     * Converts a set of constraints to the bitset of their indexes.
+     */
+    public BitSet toBitSet(@NonNull Collection<Constraint> constraints) {
+        BitSet set = new BitSet(universe.size());
+        for (Constraint c : constraints) {
+            Integer id = ids.get(c);
+            checkArgument(id != null, "Constraint %s doesn't belong to the universe of the trace", c);
+            set.set(id);
+        }
+        return set;
+    }
+
+    public void add(@NonNull Collection<Constraint> constraints, boolean consistent) {
+        results.set(queries.size(), consistent);
+        queries.add(toBitSet(constraints));
+    }
+
+    public int size() {
+        return queries.size();
+    }
+
+    public BitSet getQuery(int i) {
+        return (BitSet) queries.get(i).clone();
+    }
+
+    public boolean getResult(int i) {
+        return results.get(i);
+    }
+
+    /**
+     * Returns the results of the checks by their checked sets.
+     */
+    public Map<BitSet, Boolean> toMap() {
+        Map<BitSet, Boolean> map = new HashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            map.put(queries.get(i), results.get(i));
+        }
+        return map;
+    }
+
+    public void write(@NonNull Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(universe.size());
+            out.writeLong(fingerprint(universe));
+
+            out.writeInt(queries.size());
+            for (int i = 0; i < queries.size(); i++) {
+                writeSet(out, queries.get(i));
+                out.writeBoolean(results.get(i));
+            }
+        }
+    }
+
+    /**
+     * Reads a trace recorded over the given universe.
+     */
+    public static ConsistencyTrace read(@NonNull Path file, @NonNull Collection<Constraint> universe) throws IOException {
+        ConsistencyTrace trace = new ConsistencyTrace(universe);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            checkState(in.readInt() == MAGIC, "%s is not a consistency trace", file);
+            int version = in.readInt();
+            checkState(version == VERSION, "Unsupported trace version %s", version);
+
+            int size = in.readInt();
+            checkState(size == trace.universe.size() && in.readLong() == fingerprint(trace.universe),
+                    "The trace was recorded over a different set of constraints");
+
+            int numQueries = in.readInt();
+            for (int i = 0; i < numQueries; i++) {
+                BitSet query = readSet(in, size);
+                trace.results.set(i, in.readBoolean());
+                trace.queries.add(query);
+            }
+        }
+        return trace;
+    }
+
+    private static void writeSet(DataOutputStream out, BitSet set) throws IOException {
+        long[] words = set.toLongArray();
+        int cardinality = set.cardinality();
+
+        // a varint delta needs at most 3 bytes for indexes up to 2^21
+        if (cardinality * 3 < words.length * 8) {
+            out.writeByte(INDEXES);
+            writeVarInt(out, cardinality);
+            int previous = -1;
+            for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+                writeVarInt(out, i - previous);
+                previous = i;
+            }
+        } else {
+            out.writeByte(BITSET);
+            writeVarInt(out, words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    private static BitSet readSet(DataInputStream in, int universeSize) throws IOException {
+        byte encoding = in.readByte();
+        BitSet set;
+        if (encoding == INDEXES) {
+            set = new BitSet(universeSize);
+            int cardinality = readVarInt(in);
+            int index = -1;
+            for (int i = 0; i < cardinality; i++) {
+                index += readVarInt(in);
+                set.set(index);
+            }
+        } else {
+            checkState(encoding == BITSET, "Unknown set encoding %s", encoding);
+            long[] words = new long[readVarInt(in)];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            set = BitSet.valueOf(words);
+        }
+        checkState(set.length() <= universeSize, "The trace refers to constraints outside the universe");
+        return set;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long fingerprint(List<Constraint> universe) {
+        long hash = 1125899906842597L;
+        for (Constraint c : universe) {
+            hash = 31 * hash + c.toString().hashCode();
+        }
+        return hash;
+    }
+}
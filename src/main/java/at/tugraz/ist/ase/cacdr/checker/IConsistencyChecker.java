@@ -8,6 +8,7 @@
 
 package at.tugraz.ist.ase.cacdr.checker;
 
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 
 import java.util.Collection;
@@ -40,5 +41,14 @@ public interface IConsistencyChecker {
      */
     void reset();
 
+    /**
+     * Returns the session the checker belongs to, i.e., the evaluator and the trace state
+     * the algorithms using the checker report to. A checker without a session of its own
+     * reports to the global context.
+     */
+    default SessionContext getContext() {
+        return SessionContext.global();
+    }
+
     void dispose();
 }
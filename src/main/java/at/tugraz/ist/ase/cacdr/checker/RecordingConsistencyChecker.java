@@ -0,0 +1,62 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Collection;
+
+/**
+ * A consistency checker which delegates to another checker and records
+ * every check and its result into a {@link ConsistencyTrace}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class RecordingConsistencyChecker implements IConsistencyChecker {
+
+    private final IConsistencyChecker checker;
+
+    @Getter
+    private final ConsistencyTrace trace;
+
+    /**
+     * @param checker the checker answering the checks
+     * @param universe the constraints which can be checked, e.g., all constraints of the knowledge base
+     */
+    public RecordingConsistencyChecker(@NonNull IConsistencyChecker checker, @NonNull Collection<Constraint> universe) {
+        this.checker = checker;
+        this.trace = new ConsistencyTrace(universe);
+    }
+
+    @Override
+    public boolean isConsistent(Collection<Constraint> constraints) {
+        boolean consistent = checker.isConsistent(constraints);
+        trace.add(constraints, consistent);
+        return consistent;
+    }
+
+    @Override
+    public void reset() {
+        checker.reset();
+    }
+
+    @Override
+    public SessionContext getContext() {
+        return checker.getContext();
+    }
+
+    @Override
+    public void dispose() {
+        checker.dispose();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A consistency checker answering the checks from a recorded {@link ConsistencyTrace},
+ * without a solver. Used to measure the overhead of the algorithms and the HS constructors.
+ *
+ * The checks are looked up by their checked sets, so they can be asked in any order.
+ * A check which isn't in the trace raises an {@link IllegalStateException}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class ReplayConsistencyChecker implements IConsistencyChecker {
+
+    public static final String COUNTER_REPLAYED_CHECKS = "The number of replayed checks:";
+    private static final Counter REPLAYED_CHECKS = Counter.of(COUNTER_REPLAYED_CHECKS);
+
+    private final ConsistencyTrace trace;
+    private final Map<BitSet, Boolean> results;
+
+    @Getter
+    private final SessionContext context;
+
+    public ReplayConsistencyChecker(@NonNull ConsistencyTrace trace) {
+        this(trace, SessionContext.global());
+    }
+
+    public ReplayConsistencyChecker(@NonNull ConsistencyTrace trace, @NonNull SessionContext context) {
+        this.trace = trace;
+        this.results = trace.toMap();
+        this.context = context;
+    }
+
+    @Override
+    public boolean isConsistent(@NonNull Collection<Constraint> C) {
+        checkArgument(!C.isEmpty(), "Cannot check the consistency with an empty set of constraints");
+
+        Boolean consistent = results.get(trace.toBitSet(C));
+        checkState(consistent != null, "The check of %s isn't in the trace", C);
+
+        context.increment(REPLAYED_CHECKS);
+        log.trace("{}Replayed [C={}, consistency={}]", context.tab(), C, consistent);
+
+        return consistent;
+    }
+
+    @Override
+    public void reset() {
+        // nothing to reset
+    }
+
+    @Override
+    public void dispose() {
+        results.clear();
+    }
+}
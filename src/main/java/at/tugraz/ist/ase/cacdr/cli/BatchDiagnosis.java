@@ -0,0 +1,233 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.cli;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV2;
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.FlexDiag;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSTree;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.LabelerFactory;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cacdr.session.SessionTracer;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static at.tugraz.ist.ase.cacdr.common.JsonUtils.*;
+
+/**
+ * Diagnoses all knowledge bases of a directory in parallel, e.g., for a nightly quality check.
+ *
+ * Each knowledge base is loaded by an {@link IModelLoader} and diagnosed in its own session
+ * on a bounded pool of threads. As soon as a knowledge base is done, a JSON line with
+ * the conflicts or diagnoses, the times, and the counters and timers of the session
+ * (see {@link at.tugraz.ist.ase.cacdr.eval.CAEvaluator}) is written to the output:
+ * <pre>
+ * {"model":"kbs/a.xml","algorithm":"hsdag","labeler":"quickxplain","status":"ok","C":12,"B":3,
+ *  "loadTime":..,"time":..,"conflicts":[..],"diagnoses":[..],"counters":{..},"timers":{..}}
+ * </pre>
+ * A knowledge base which can't be loaded or diagnosed gets a line with the status "error".
+ * The exit code is 0 if all knowledge bases are diagnosed, 1 if some failed, and 2 if the options are invalid.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class BatchDiagnosis {
+
+    private final BatchOptions options;
+    private final List<IModelLoader> loaders = new ArrayList<>();
+
+    public BatchDiagnosis(@NonNull BatchOptions options) throws ReflectiveOperationException {
+        this.options = options;
+
+        for (String loader : options.getLoaders()) {
+            loaders.add((IModelLoader) Class.forName(loader).getDeclaredConstructor().newInstance());
+        }
+        ServiceLoader.load(IModelLoader.class).forEach(loaders::add);
+    }
+
+    public static void main(String[] args) {
+        BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(BatchOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try (Writer writer = options.getOutput() == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(options.getOutput(), StandardCharsets.UTF_8)) {
+            int failed = new BatchDiagnosis(options).run(writer);
+            System.exit(failed == 0 ? 0 : 1);
+        } catch (Exception e) {
+            log.error("Batch diagnosis failed", e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Diagnoses the knowledge bases and writes a JSON line per knowledge base.
+     * @return the number of knowledge bases which couldn't be loaded or diagnosed
+     */
+    public int run(@NonNull Writer writer) throws IOException, InterruptedException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(options.getDirectory(), options.getGlob())) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        Collections.sort(files);
+        log.info("Diagnosing {} knowledge bases with {} threads", files.size(), options.getThreads());
+
+        ReentrantLock writing = new ReentrantLock();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(options.getThreads());
+        try {
+            for (Path file : files) {
+                executor.execute(() -> {
+                    Map<String, Object> result = diagnose(file);
+                    if (!"ok".equals(result.get("status"))) {
+                        failed.incrementAndGet();
+                    }
+
+                    writing.lock();
+                    try {
+                        writer.write(toJson(result));
+                        writer.write('\n');
+                        writer.flush();
+                    } catch (IOException e) {
+                        log.error("Couldn't write the result of {}", file, e);
+                    } finally {
+                        writing.unlock();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        return failed.get();
+    }
+
+    /**
+     * Loads and diagnoses a knowledge base in its own session.
+     * @return the fields of the JSON line
+     */
+    public Map<String, Object> diagnose(@NonNull Path file) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("model", file.toString());
+        result.put("algorithm", options.getAlgorithm());
+        if (options.isHSConstructor()) {
+            result.put("labeler", options.getLabeler());
+        }
+
+        ChocoConsistencyChecker checker = null;
+        try {
+            IModelLoader loader = loaders.stream()
+                    .filter(l -> l.supports(file))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No loader supports " + file));
+
+            long start = System.nanoTime();
+            CDRModel model = loader.load(file);
+            long loadTime = System.nanoTime() - start;
+
+            SessionEvaluator evaluator = new SessionEvaluator();
+            checker = new ChocoConsistencyChecker(model, new SessionContext(evaluator, new SessionTracer()));
+
+            result.put("status", "ok");
+            result.put("C", model.getPossiblyFaultyConstraints().size());
+            result.put("B", model.getCorrectConstraints().size());
+            result.put("loadTime", loadTime);
+
+            start = System.nanoTime();
+            execute(model, checker, result);
+            result.put("time", System.nanoTime() - start);
+
+            result.put("counters", evaluator.getCounters());
+            result.put("timers", evaluator.getTotalTimes());
+        } catch (Exception | StackOverflowError e) {
+            log.error("Couldn't diagnose {}", file, e);
+            result.put("status", "error");
+            result.put("error", e.toString());
+        } finally {
+            if (checker != null) {
+                checker.dispose();
+            }
+        }
+        return result;
+    }
+
+    private void execute(CDRModel model, ChocoConsistencyChecker checker, Map<String, Object> result) {
+        Set<Constraint> C = model.getPossiblyFaultyConstraints();
+        Set<Constraint> B = model.getCorrectConstraints();
+        Set<Constraint> AC = model.getAllConstraints();
+
+        switch (options.getAlgorithm()) {
+            case "quickxplain":
+                result.put("conflicts", nonEmpty(new QuickXPlain(checker).findConflictSet(C, B)));
+                break;
+            case "fastdiagv2":
+                result.put("diagnoses", nonEmpty(new FastDiagV2(checker).findDiagnosis(C, AC)));
+                break;
+            case "fastdiagv3":
+                result.put("diagnoses", nonEmpty(new FastDiagV3(checker).findDiagnosis(C, B)));
+                break;
+            case "flexdiag":
+                result.put("diagnoses", nonEmpty(new FlexDiag(checker).findDiagnosis(C, AC, options.getM())));
+                break;
+            default: {
+                IHSLabelable labeler = LabelerFactory.create(options.getLabeler(), checker, C, B, AC, options.getM());
+                AbstractHSConstructor hs = options.getAlgorithm().equals("hstree")
+                        ? new HSTree(labeler, checker)
+                        : new HSDAG(labeler, checker);
+
+                // with a diagnosis labeler, the labels are diagnoses and the hitting sets are conflicts
+                boolean conflictLabels = LabelerFactory.returnsConflicts(options.getLabeler());
+                if (conflictLabels) {
+                    hs.setMaxNumberOfDiagnoses(options.getMaxDiagnoses());
+                } else {
+                    hs.setMaxNumberOfConflicts(options.getMaxDiagnoses());
+                }
+                hs.construct();
+
+                result.put("conflicts", conflictLabels ? hs.getConflicts() : hs.getDiagnoses());
+                result.put("diagnoses", conflictLabels ? hs.getDiagnoses() : hs.getConflicts());
+            }
+        }
+    }
+
+    private List<Set<Constraint>> nonEmpty(Set<Constraint> set) {
+        return set.isEmpty() ? List.of() : List.of(set);
+    }
+}
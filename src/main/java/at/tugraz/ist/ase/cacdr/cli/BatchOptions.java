@@ -0,0 +1,114 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.cli;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.LabelerFactory;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The command line options of the {@link BatchDiagnosis}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public class BatchOptions {
+
+    public static final Set<String> ALGORITHMS = Set.of("quickxplain", "fastdiagv2", "fastdiagv3", "flexdiag",
+            "hstree", "hsdag");
+    public static final Set<String> LABELERS = LabelerFactory.LABELERS;
+
+    public static final String USAGE = String.join("\n",
+            "Usage: BatchDiagnosis [options] <directory>",
+            "  --algorithm <name>      quickxplain, fastdiagv2, fastdiagv3, flexdiag, hstree, hsdag (default: hsdag)",
+            "  --labeler <name>        the labeler of hstree and hsdag: quickxplain, fastdiagv2, fastdiagv3, flexdiag",
+            "                          (default: quickxplain)",
+            "  --m <n>                 the parameter m of FlexDiag (default: 1)",
+            "  --max-diagnoses <n>     the maximal number of diagnoses of hstree and hsdag (default: all)",
+            "  --threads <n>           the number of knowledge bases diagnosed in parallel (default: the number of cores)",
+            "  --glob <pattern>        the files of the directory to diagnose (default: *)",
+            "  --loader <class>        an IModelLoader class, in addition to the ones found by the ServiceLoader",
+            "                          (only knowledge base snapshots *.cdrs are supported without --loader)",
+            "  --output <file>         the JSON lines output file (default: stdout)");
+
+    private Path directory;
+    private String algorithm = "hsdag";
+    private String labeler = "quickxplain";
+    private int m = 1;
+    private int maxDiagnoses = -1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String glob = "*";
+    private final List<String> loaders = new ArrayList<>();
+    private Path output;
+
+    /**
+     * @throws IllegalArgumentException if the options are invalid
+     */
+    public static BatchOptions parse(@NonNull String... args) {
+        BatchOptions options = new BatchOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                checkArgument(options.directory == null, "More than one directory is given");
+                options.directory = Path.of(arg);
+                continue;
+            }
+            checkArgument(i + 1 < args.length, "Missing value of %s", arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--algorithm":
+                    options.algorithm = value.toLowerCase();
+                    checkArgument(ALGORITHMS.contains(options.algorithm), "Unknown algorithm %s", value);
+                    break;
+                case "--labeler":
+                    options.labeler = value.toLowerCase();
+                    checkArgument(LABELERS.contains(options.labeler), "Unknown labeler %s", value);
+                    break;
+                case "--m":
+                    options.m = Integer.parseInt(value);
+                    checkArgument(options.m > 0, "m must be positive");
+                    break;
+                case "--max-diagnoses":
+                    options.maxDiagnoses = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    options.threads = Integer.parseInt(value);
+                    checkArgument(options.threads > 0, "The number of threads must be positive");
+                    break;
+                case "--glob":
+                    options.glob = value;
+                    break;
+                case "--loader":
+                    options.loaders.add(value);
+                    break;
+                case "--output":
+                    options.output = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        checkArgument(options.directory != null, "No directory is given");
+        return options;
+    }
+
+    /**
+     * true - if the algorithm is an HS constructor, which needs a labeler
+     */
+    public boolean isHSConstructor() {
+        return algorithm.equals("hstree") || algorithm.equals("hsdag");
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.cli;
+
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+
+import java.nio.file.Path;
+
+/**
+ * Loads knowledge bases from files for the {@link BatchDiagnosis}.
+ *
+ * The loaders are found with {@link java.util.ServiceLoader}, i.e., they are listed in
+ * <code>META-INF/services/at.tugraz.ist.ase.cacdr.cli.IModelLoader</code>,
+ * or given by their class names with the option <code>--loader</code>.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public interface IModelLoader {
+
+    /**
+     * @return true if the loader can read the given file, e.g., judging by its extension
+     */
+    boolean supports(Path file);
+
+    /**
+     * @return an initialized knowledge base
+     */
+    CDRModel load(Path file) throws Exception;
+}
@@ -0,0 +1,77 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.common;
+
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Writes the simple JSON values of the reports and the responses,
+ * i.e., strings, numbers, nested collections and maps.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@UtilityClass
+public class JsonUtils {
+
+    /**
+     * Returns the given string as a quoted and escaped JSON string.
+     */
+    public String quote(@NonNull String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Returns a JSON value of the given object. Numbers and booleans are written as they are,
+     * collections as arrays, maps as objects, and the other objects as their quoted string representations.
+     */
+    public String toJson(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof Collection) {
+            StringJoiner joiner = new StringJoiner(",", "[", "]");
+            for (Object item : (Collection<?>) value) {
+                joiner.add(toJson(item));
+            }
+            return joiner.toString();
+        }
+        if (value instanceof Map) {
+            StringJoiner joiner = new StringJoiner(",", "{", "}");
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                joiner.add(quote(String.valueOf(entry.getKey())) + ":" + toJson(entry.getValue()));
+            }
+            return joiner.toString();
+        }
+        return quote(value.toString());
+    }
+}
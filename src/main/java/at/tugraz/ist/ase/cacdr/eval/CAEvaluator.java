@@ -41,6 +41,24 @@ public class CAEvaluator extends PerformanceEvaluator {
     public static final String COUNTER_ISMINIMAL_CALLS = "The number of isminimal calls:";
     public static final String COUNTER_CONTAINSALL_CHECKS = "The number of contains all calls:";
 
+    // Typed handles of the counters, used on the hot paths
+    public static final Counter FEASIBLE = Counter.of(COUNTER_FEASIBLE);
+    public static final Counter INFEASIBLE = Counter.of(COUNTER_INFEASIBLE);
+    public static final Counter CHOCO_SOLVER_CALLS = Counter.of(COUNTER_CHOCO_SOLVER_CALLS);
+    public static final Counter CONSISTENCY_CHECKS = Counter.of(COUNTER_CONSISTENCY_CHECKS);
+    public static final Counter SIZE_CONSISTENCY_CHECKS = Counter.of(COUNTER_SIZE_CONSISTENCY_CHECKS);
+    public static final Counter UNION_OPERATOR = Counter.of(COUNTER_UNION_OPERATOR);
+    public static final Counter ADD_OPERATOR = Counter.of(COUNTER_ADD_OPERATOR);
+    public static final Counter DIFFERENT_OPERATOR = Counter.of(COUNTER_DIFFERENT_OPERATOR);
+    public static final Counter SPLIT_SET = Counter.of(COUNTER_SPLIT_SET);
+    public static final Counter LEFT_BRANCH_CALLS = Counter.of(COUNTER_LEFT_BRANCH_CALLS);
+    public static final Counter RIGHT_BRANCH_CALLS = Counter.of(COUNTER_RIGHT_BRANCH_CALLS);
+    public static final Counter EXPLORE_NODE_CALLS = Counter.of(COUNTER_EXPLORE_NODE_CALLS);
+    public static final Counter PUSH_QUEUE = Counter.of(COUNTER_PUSH_QUEUE);
+    public static final Counter POP_QUEUE = Counter.of(COUNTER_POP_QUEUE);
+    public static final Counter ISMINIMAL_CALLS = Counter.of(COUNTER_ISMINIMAL_CALLS);
+    public static final Counter CONTAINSALL_CHECKS = Counter.of(COUNTER_CONTAINSALL_CHECKS);
+
     // Timers
     public static final String TIMER_FIRST = "Time for first:";
     public static final String TIMER_ALL = "Time for all:";
@@ -0,0 +1,84 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A typed handle of a counter.
+ *
+ * A handle is registered once per counter name and gets a dense id, so that
+ * evaluators can keep the counter values in arrays instead of maps keyed by the names.
+ * Use handles in static final fields for the counters on hot paths, e.g.,
+ * <code>private static final Counter QUICKXPLAIN_CALLS = Counter.of(COUNTER_QUICKXPLAIN_CALLS);</code>
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public final class Counter {
+
+    private static final Map<String, Counter> registry = new ConcurrentHashMap<>();
+    private static final List<Counter> counters = new CopyOnWriteArrayList<>();
+    private static final ReentrantLock registering = new ReentrantLock();
+
+    private final String name;
+    private final int id;
+
+    private Counter(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Returns the handle of the counter with the given name, registers the counter if needed.
+     */
+    public static Counter of(@NonNull String name) {
+        Counter counter = registry.get(name);
+        return counter != null ? counter : register(name);
+    }
+
+    private static Counter register(String name) {
+        registering.lock();
+        try {
+            return registry.computeIfAbsent(name, n -> {
+                Counter counter = new Counter(n, counters.size());
+                counters.add(counter);
+                return counter;
+            });
+        } finally {
+            registering.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of registered counters, which is greater than the id of any handle.
+     */
+    public static int size() {
+        return counters.size();
+    }
+
+    /**
+     * Returns the counter with the given id.
+     */
+    public static Counter get(int id) {
+        return counters.get(id);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
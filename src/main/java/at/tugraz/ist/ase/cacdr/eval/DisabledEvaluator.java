@@ -0,0 +1,54 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval;
+
+/**
+ * An evaluator which ignores all counters and timers, used when the instrumentation is switched off.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class DisabledEvaluator implements IEvaluator {
+
+    @Override
+    public void incrementCounter(String name) {
+    }
+
+    @Override
+    public void incrementCounter(String name, int step) {
+    }
+
+    @Override
+    public void increment(Counter counter) {
+    }
+
+    @Override
+    public void increment(Counter counter, int step) {
+    }
+
+    @Override
+    public void start(String timer) {
+    }
+
+    @Override
+    public void stop(String timer) {
+    }
+
+    @Override
+    public void stop(String timer, boolean save) {
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public String getEvaluationResults() {
+        return "";
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval;
+
+import at.tugraz.ist.ase.eval.evaluator.PerformanceEvaluator;
+
+/**
+ * An evaluator which delegates to the static counters and timers of {@link PerformanceEvaluator},
+ * i.e., the evaluator shared by all sessions which don't have their own evaluator.
+ * The counters stay keyed by their names, since the results of the global context are read
+ * with the static methods of {@link PerformanceEvaluator}, e.g., {@link CAEvaluator#printPerformance()}.
+ * The typed {@link Counter} handles only pay off with a {@link SessionEvaluator}, see SessionContext#create().
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class GlobalEvaluator implements IEvaluator {
+
+    @Override
+    public void incrementCounter(String name) {
+        PerformanceEvaluator.incrementCounter(name);
+    }
+
+    @Override
+    public void incrementCounter(String name, int step) {
+        PerformanceEvaluator.incrementCounter(name, step);
+    }
+
+    @Override
+    public void start(String timer) {
+        PerformanceEvaluator.start(timer);
+    }
+
+    @Override
+    public void stop(String timer) {
+        PerformanceEvaluator.stop(timer);
+    }
+
+    @Override
+    public void stop(String timer, boolean save) {
+        PerformanceEvaluator.stop(timer, save);
+    }
+
+    @Override
+    public void reset() {
+        PerformanceEvaluator.reset();
+    }
+
+    @Override
+    public String getEvaluationResults() {
+        return PerformanceEvaluator.getEvaluationResults();
+    }
+}
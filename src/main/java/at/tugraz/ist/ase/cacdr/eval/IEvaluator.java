@@ -0,0 +1,57 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval;
+
+/**
+ * Collects the counters and timers of the algorithms.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public interface IEvaluator {
+
+    void incrementCounter(String name);
+
+    void incrementCounter(String name, int step);
+
+    /**
+     * Increments a counter by its typed handle.
+     * The default falls back to the lookup by the name of the counter.
+     */
+    default void increment(Counter counter) {
+        incrementCounter(counter.getName());
+    }
+
+    default void increment(Counter counter, int step) {
+        incrementCounter(counter.getName(), step);
+    }
+
+    /**
+     * Reports the current value of a measured quantity, e.g., the number of open nodes.
+     * The evaluators which don't track gauges ignore it.
+     */
+    default void gauge(String name, long value) {
+    }
+
+    void start(String timer);
+
+    /**
+     * Stops a timer and saves the elapsed time.
+     */
+    void stop(String timer);
+
+    /**
+     * Stops a timer.
+     * @param save false - to discard the elapsed time
+     */
+    void stop(String timer, boolean save);
+
+    void reset();
+
+    String getEvaluationResults();
+}
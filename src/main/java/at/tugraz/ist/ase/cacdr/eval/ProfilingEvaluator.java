@@ -0,0 +1,186 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor.*;
+import static at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker.TIMER_SOLVER;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.*;
+
+/**
+ * An evaluator which delegates to another evaluator and profiles the HS construction
+ * of a session, i.e., the time to the first diagnosis, the times between the diagnoses,
+ * the numbers of checks per diagnosis and conflict, the share of the solver time,
+ * and the peak number of open nodes.
+ *
+ * The profile is derived from the timers and counters which the HS constructors
+ * and the checkers already report, so the profiled code stays unchanged:
+ * <pre>
+ * ProfilingEvaluator profiler = new ProfilingEvaluator(new SessionEvaluator());
+ * ChocoConsistencyChecker checker = new ChocoConsistencyChecker(model, new SessionContext(profiler, new SessionTracer()));
+ * ...
+ * hsdag.construct();
+ * ProfilingReport report = profiler.getReport("HSDAG-QuickXPlain");
+ * </pre>
+ *
+ * Like a session context, a profiling evaluator must not be shared by concurrent sessions.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class ProfilingEvaluator implements IEvaluator {
+
+    private final IEvaluator evaluator;
+
+    private long constructionStart = -1;
+    private long constructionTime = 0;
+    private long firstDiagnosis = -1;
+    private long lastDiagnosis = -1;
+    private final List<Long> diagnosisIntervals = new ArrayList<>();
+    private long conflicts = 0;
+
+    private long checks = 0;
+    private long solverCalls = 0;
+    private long solverStart = -1;
+    private long solverTime = 0;
+    private long peakOpenNodes = 0;
+
+    public ProfilingEvaluator(@NonNull IEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    @Override
+    public void incrementCounter(String name) {
+        incrementCounter(name, 1);
+    }
+
+    @Override
+    public void incrementCounter(String name, int step) {
+        if (COUNTER_CONSISTENCY_CHECKS.equals(name)) {
+            checks += step;
+        } else if (COUNTER_CHOCO_SOLVER_CALLS.equals(name)) {
+            solverCalls += step;
+        }
+        evaluator.incrementCounter(name, step);
+    }
+
+    @Override
+    public void increment(Counter counter) {
+        increment(counter, 1);
+    }
+
+    @Override
+    public void increment(Counter counter, int step) {
+        if (counter == CONSISTENCY_CHECKS) {
+            checks += step;
+        } else if (counter == CHOCO_SOLVER_CALLS) {
+            solverCalls += step;
+        }
+        evaluator.increment(counter, step);
+    }
+
+    @Override
+    public void gauge(String name, long value) {
+        if (GAUGE_OPEN_NODES.equals(name)) {
+            peakOpenNodes = Math.max(peakOpenNodes, value);
+        }
+        evaluator.gauge(name, value);
+    }
+
+    @Override
+    public void start(String timer) {
+        if (TIMER_SOLVER.equals(timer)) {
+            solverStart = System.nanoTime();
+        } else if (TIMER_HS_CONSTRUCTION_SESSION.equals(timer)) {
+            constructionStart = System.nanoTime();
+        }
+        evaluator.start(timer);
+    }
+
+    @Override
+    public void stop(String timer) {
+        stop(timer, true);
+    }
+
+    @Override
+    public void stop(String timer, boolean save) {
+        long now = System.nanoTime();
+        if (TIMER_SOLVER.equals(timer) && solverStart != -1) {
+            solverTime += now - solverStart;
+            solverStart = -1;
+        } else if (TIMER_HS_CONSTRUCTION_SESSION.equals(timer) && constructionStart != -1) {
+            constructionTime += now - constructionStart;
+            constructionStart = -1;
+        } else if (TIMER_DIAGNOSIS.equals(timer) && save) {
+            // the HS constructors save the diagnosis timer when a diagnosis is found
+            if (firstDiagnosis == -1) {
+                firstDiagnosis = constructionTime + elapsedConstruction(now);
+            } else {
+                diagnosisIntervals.add(constructionTime + elapsedConstruction(now) - lastDiagnosis);
+            }
+            lastDiagnosis = constructionTime + elapsedConstruction(now);
+        } else if (TIMER_CONFLICT.equals(timer) && save) {
+            // the HS constructors save the conflict timer when new labels are computed
+            conflicts++;
+        }
+        evaluator.stop(timer, save);
+    }
+
+    private long elapsedConstruction(long now) {
+        return constructionStart == -1 ? 0 : now - constructionStart;
+    }
+
+    @Override
+    public void reset() {
+        constructionStart = -1;
+        constructionTime = 0;
+        firstDiagnosis = -1;
+        lastDiagnosis = -1;
+        diagnosisIntervals.clear();
+        conflicts = 0;
+        checks = 0;
+        solverCalls = 0;
+        solverStart = -1;
+        solverTime = 0;
+        peakOpenNodes = 0;
+        evaluator.reset();
+    }
+
+    @Override
+    public String getEvaluationResults() {
+        return evaluator.getEvaluationResults();
+    }
+
+    /**
+     * Returns the profile of the constructions since the last reset.
+     * The times are measured in the construction time, so the pauses between
+     * resumed constructions don't count.
+     * @param name the name of the profiled run, e.g., the algorithm and the knowledge base
+     */
+    public ProfilingReport getReport(@NonNull String name) {
+        int diagnoses = firstDiagnosis == -1 ? 0 : diagnosisIntervals.size() + 1;
+        long totalTime = constructionTime + elapsedConstruction(System.nanoTime());
+
+        return ProfilingReport.builder()
+                .name(name)
+                .diagnoses(diagnoses)
+                .conflicts(conflicts)
+                .totalTime(totalTime)
+                .timeToFirstDiagnosis(firstDiagnosis)
+                .diagnosisIntervals(diagnosisIntervals)
+                .checks(checks)
+                .solverCalls(solverCalls)
+                .solverTime(solverTime)
+                .peakOpenNodes(peakOpenNodes)
+                .build();
+    }
+}
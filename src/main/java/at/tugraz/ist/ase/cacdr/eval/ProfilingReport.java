@@ -0,0 +1,219 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval;
+
+import at.tugraz.ist.ase.cacdr.common.JsonUtils;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The profile of an HS construction, see {@link ProfilingEvaluator}.
+ *
+ * A report is a named, ordered set of metrics. The times are given in nanoseconds,
+ * and a metric is NaN if it's undefined, e.g., the time to the first diagnosis
+ * if no diagnosis is found. The reports can be exported as JSON or CSV,
+ * and the CSV files can be read again to compare the runs of different releases.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public class ProfilingReport {
+
+    public static final String DIAGNOSES = "diagnoses";
+    public static final String CONFLICTS = "conflicts";
+    public static final String TOTAL_TIME = "totalTime";
+    public static final String TIME_TO_FIRST_DIAGNOSIS = "timeToFirstDiagnosis";
+    public static final String DIAGNOSIS_INTERVAL_MIN = "diagnosisIntervalMin";
+    public static final String DIAGNOSIS_INTERVAL_MEDIAN = "diagnosisIntervalMedian";
+    public static final String DIAGNOSIS_INTERVAL_P90 = "diagnosisIntervalP90";
+    public static final String DIAGNOSIS_INTERVAL_MAX = "diagnosisIntervalMax";
+    public static final String DIAGNOSIS_INTERVAL_MEAN = "diagnosisIntervalMean";
+    public static final String CHECKS = "checks";
+    public static final String SOLVER_CALLS = "solverCalls";
+    public static final String CHECKS_PER_DIAGNOSIS = "checksPerDiagnosis";
+    public static final String CHECKS_PER_CONFLICT = "checksPerConflict";
+    public static final String SOLVER_TIME = "solverTime";
+    public static final String SOLVER_TIME_SHARE = "solverTimeShare";
+    public static final String PEAK_OPEN_NODES = "peakOpenNodes";
+
+    private final String name;
+    private final Map<String, Double> metrics;
+
+    public ProfilingReport(@NonNull String name, @NonNull Map<String, Double> metrics) {
+        this.name = name;
+        this.metrics = Collections.unmodifiableMap(new LinkedHashMap<>(metrics));
+    }
+
+    /**
+     * Computes the metrics of a construction.
+     * @param timeToFirstDiagnosis -1 if no diagnosis is found
+     * @param diagnosisIntervals the times between two consecutive diagnoses
+     */
+    @Builder
+    private static ProfilingReport create(@NonNull String name, int diagnoses, long conflicts, long totalTime,
+                                          long timeToFirstDiagnosis, @NonNull List<Long> diagnosisIntervals,
+                                          long checks, long solverCalls, long solverTime, long peakOpenNodes) {
+        List<Long> intervals = new ArrayList<>(diagnosisIntervals);
+        Collections.sort(intervals);
+
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        metrics.put(DIAGNOSES, (double) diagnoses);
+        metrics.put(CONFLICTS, (double) conflicts);
+        metrics.put(TOTAL_TIME, (double) totalTime);
+        metrics.put(TIME_TO_FIRST_DIAGNOSIS, timeToFirstDiagnosis == -1 ? Double.NaN : timeToFirstDiagnosis);
+        metrics.put(DIAGNOSIS_INTERVAL_MIN, percentile(intervals, 0));
+        metrics.put(DIAGNOSIS_INTERVAL_MEDIAN, percentile(intervals, 0.5));
+        metrics.put(DIAGNOSIS_INTERVAL_P90, percentile(intervals, 0.9));
+        metrics.put(DIAGNOSIS_INTERVAL_MAX, percentile(intervals, 1));
+        metrics.put(DIAGNOSIS_INTERVAL_MEAN, intervals.isEmpty() ? Double.NaN
+                : intervals.stream().mapToLong(Long::longValue).average().orElse(Double.NaN));
+        metrics.put(CHECKS, (double) checks);
+        metrics.put(SOLVER_CALLS, (double) solverCalls);
+        metrics.put(CHECKS_PER_DIAGNOSIS, diagnoses == 0 ? Double.NaN : (double) checks / diagnoses);
+        metrics.put(CHECKS_PER_CONFLICT, conflicts == 0 ? Double.NaN : (double) checks / conflicts);
+        metrics.put(SOLVER_TIME, (double) solverTime);
+        metrics.put(SOLVER_TIME_SHARE, totalTime == 0 ? Double.NaN : (double) solverTime / totalTime);
+        metrics.put(PEAK_OPEN_NODES, (double) peakOpenNodes);
+
+        return new ProfilingReport(name, metrics);
+    }
+
+    /**
+     * Returns the nearest-rank percentile of the sorted values, or NaN if there are no values.
+     */
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(p * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    public double get(@NonNull String metric) {
+        Double value = metrics.get(metric);
+        checkArgument(value != null, "Unknown metric %s", metric);
+        return value;
+    }
+
+    /**
+     * Compares this report with the report of a previous run.
+     * @return a table with the values of both runs and the relative changes
+     */
+    public String compare(@NonNull ProfilingReport baseline) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-25s %18s %18s %10s%n", name, "baseline", "current", "change"));
+        for (Map.Entry<String, Double> entry : metrics.entrySet()) {
+            double current = entry.getValue();
+            double previous = baseline.getMetrics().getOrDefault(entry.getKey(), Double.NaN);
+            double change = previous == 0 || Double.isNaN(previous) || Double.isNaN(current)
+                    ? Double.NaN : (current - previous) / previous * 100;
+
+            sb.append(String.format("%-25s %18s %18s %10s%n", entry.getKey(), format(previous), format(current),
+                    Double.isNaN(change) ? "-" : String.format("%+.1f%%", change)));
+        }
+        return sb.toString();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"name\":").append(JsonUtils.quote(name));
+        metrics.forEach((metric, value) -> sb.append(",\"").append(metric).append("\":")
+                .append(Double.isNaN(value) ? "null" : format(value)));
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Writes the reports as a JSON array.
+     */
+    public static void writeJson(@NonNull Path file, @NonNull List<ProfilingReport> reports) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("[\n");
+            for (int i = 0; i < reports.size(); i++) {
+                writer.write("  " + reports.get(i).toJson() + (i < reports.size() - 1 ? ",\n" : "\n"));
+            }
+            writer.write("]\n");
+        }
+    }
+
+    /**
+     * Writes the reports as CSV, one report per row. The columns are the metrics of the first report.
+     */
+    public static void writeCsv(@NonNull Path file, @NonNull List<ProfilingReport> reports) throws IOException {
+        checkArgument(!reports.isEmpty(), "No reports to write");
+
+        Set<String> columns = reports.get(0).getMetrics().keySet();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("name," + String.join(",", columns));
+            writer.newLine();
+            for (ProfilingReport report : reports) {
+                StringBuilder row = new StringBuilder(escapeCsv(report.getName()));
+                for (String column : columns) {
+                    double value = report.getMetrics().getOrDefault(column, Double.NaN);
+                    row.append(',').append(Double.isNaN(value) ? "" : format(value));
+                }
+                writer.write(row.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Reads the reports written by {@link #writeCsv(Path, List)}.
+     */
+    public static List<ProfilingReport> readCsv(@NonNull Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        checkArgument(!lines.isEmpty() && lines.get(0).startsWith("name,"), "%s is not a profiling report", file);
+
+        String[] columns = lines.get(0).split(",");
+        List<ProfilingReport> reports = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            // the name is the only quoted field
+            int nameEnd = line.startsWith("\"") ? line.indexOf("\",", 1) + 1 : line.indexOf(',');
+            String name = line.substring(0, nameEnd).replaceAll("^\"|\"$", "").replace("\"\"", "\"");
+            String[] values = line.substring(nameEnd + 1).split(",", -1);
+            checkArgument(values.length == columns.length - 1, "Wrong number of values in %s", line);
+
+            Map<String, Double> metrics = new LinkedHashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                metrics.put(columns[i + 1], values[i].isEmpty() ? Double.NaN : Double.parseDouble(values[i]));
+            }
+            reports.add(new ProfilingReport(name, metrics));
+        }
+        return reports;
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "-";
+        }
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    private static String escapeCsv(String s) {
+        return s.contains(",") || s.contains("\"") ? "\"" + s.replace("\"", "\"\"") + "\"" : s;
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
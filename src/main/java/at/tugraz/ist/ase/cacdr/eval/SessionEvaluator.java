@@ -0,0 +1,168 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An evaluator whose counters and timers belong to a single diagnosis session.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class SessionEvaluator implements IEvaluator {
+
+    /**
+     * The counter values indexed by the ids of the {@link Counter} handles
+     */
+    private volatile LongAdder[] counters = new LongAdder[Counter.size()];
+    private final ReentrantLock growing = new ReentrantLock();
+    private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> totalTimes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> numberOfTimes = new ConcurrentHashMap<>();
+
+    @Override
+    public void incrementCounter(String name) {
+        increment(Counter.of(name), 1);
+    }
+
+    @Override
+    public void incrementCounter(String name, int step) {
+        increment(Counter.of(name), step);
+    }
+
+    @Override
+    public void increment(Counter counter) {
+        increment(counter, 1);
+    }
+
+    @Override
+    public void increment(Counter counter, int step) {
+        LongAdder[] values = counters;
+        int id = counter.getId();
+        LongAdder value = id < values.length ? values[id] : null;
+        if (value == null) {
+            value = createValue(id);
+        }
+        value.add(step);
+    }
+
+    private LongAdder createValue(int id) {
+        growing.lock();
+        try {
+            LongAdder[] values = counters;
+            if (id >= values.length) {
+                values = Arrays.copyOf(values, Math.max(id + 1, Counter.size()));
+            } else if (values[id] != null) {
+                return values[id];
+            } else {
+                values = values.clone();
+            }
+            values[id] = new LongAdder();
+            counters = values;
+            return values[id];
+        } finally {
+            growing.unlock();
+        }
+    }
+
+    /**
+     * Returns the value of a counter, 0 if the counter isn't used.
+     */
+    public long getCounter(String name) {
+        return getCounter(Counter.of(name));
+    }
+
+    public long getCounter(Counter counter) {
+        LongAdder[] values = counters;
+        int id = counter.getId();
+        return id < values.length && values[id] != null ? values[id].sum() : 0;
+    }
+
+    /**
+     * Returns the values of the used counters by their names.
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        LongAdder[] values = counters;
+        for (int id = 0; id < values.length; id++) {
+            if (values[id] != null) {
+                result.put(Counter.get(id).getName(), values[id].sum());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void start(String timer) {
+        startTimes.put(timer, System.nanoTime());
+    }
+
+    @Override
+    public void stop(String timer) {
+        stop(timer, true);
+    }
+
+    @Override
+    public void stop(String timer, boolean save) {
+        Long start = startTimes.remove(timer);
+        if (start != null && save) {
+            totalTimes.computeIfAbsent(timer, k -> new LongAdder()).add(System.nanoTime() - start);
+            numberOfTimes.computeIfAbsent(timer, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Returns the total saved time of a timer in nanoseconds, 0 if the timer isn't used.
+     */
+    public long getTotalTime(String timer) {
+        LongAdder time = totalTimes.get(timer);
+        return time == null ? 0 : time.sum();
+    }
+
+    /**
+     * Returns the total saved times of the used timers in nanoseconds by their names.
+     */
+    public Map<String, Long> getTotalTimes() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        totalTimes.forEach((name, value) -> result.put(name, value.sum()));
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        growing.lock();
+        try {
+            counters = new LongAdder[Counter.size()];
+        } finally {
+            growing.unlock();
+        }
+        startTimes.clear();
+        totalTimes.clear();
+        numberOfTimes.clear();
+    }
+
+    @Override
+    public String getEvaluationResults() {
+        StringBuilder sb = new StringBuilder();
+        LongAdder[] values = counters;
+        for (int id = 0; id < values.length; id++) {
+            if (values[id] != null) {
+                sb.append(Counter.get(id).getName()).append(" ").append(values[id].sum()).append("\n");
+            }
+        }
+        totalTimes.forEach((name, value) -> sb.append(name).append(" ").append(value.sum())
+                .append(" ns (").append(numberOfTimes.get(name).sum()).append(" times)\n"));
+        return sb.toString();
+    }
+}
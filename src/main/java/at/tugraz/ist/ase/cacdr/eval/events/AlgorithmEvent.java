@@ -0,0 +1,66 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval.events;
+
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import jdk.jfr.*;
+
+import java.util.Set;
+
+/**
+ * A JFR event of a call of an algorithm's entry point, e.g., QuickXPlain.findConflictSet.
+ *
+ * <pre>
+ * AlgorithmEvent event = AlgorithmEvent.begin("QuickXPlain", C, B);
+ * ...
+ * event.finish(result);
+ * </pre>
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Name("at.tugraz.ist.ase.cacdr.Algorithm")
+@Label("Algorithm")
+@Category({"CA-CDR", "Algorithm"})
+@StackTrace(false)
+public class AlgorithmEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("C")
+    @Description("The size of the consideration set")
+    public int sizeC;
+
+    @Label("B")
+    @Description("The size of the background knowledge, or of all constraints")
+    public int sizeB;
+
+    @Label("Result")
+    @Description("The size of the returned conflict or diagnosis, 0 if there is none")
+    public int result;
+
+    public static AlgorithmEvent begin(String algorithm, Set<Constraint> C, Set<Constraint> B) {
+        AlgorithmEvent event = new AlgorithmEvent();
+        if (event.isEnabled()) {
+            event.algorithm = algorithm;
+            event.sizeC = C.size();
+            event.sizeB = B.size();
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(Set<Constraint> result) {
+        if (shouldCommit()) {
+            this.result = result.size();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval.events;
+
+
+import jdk.jfr.*;
+
+/**
+ * A JFR event of a consistency check, its duration is the solver time.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Name("at.tugraz.ist.ase.cacdr.ConsistencyCheck")
+@Label("Consistency Check")
+@Category({"CA-CDR", "Checker"})
+@StackTrace(false)
+public class ConsistencyCheckEvent extends Event {
+
+    @Label("Constraints")
+    @Description("The number of posted Choco constraints")
+    public int constraints;
+
+    @Label("Consistent")
+    public boolean consistent;
+}
@@ -0,0 +1,37 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval.events;
+
+
+import jdk.jfr.*;
+
+/**
+ * A JFR event of expanding an HS-tree node.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Name("at.tugraz.ist.ase.cacdr.NodeExpand")
+@Label("HS Node Expand")
+@Category({"CA-CDR", "HS-tree"})
+@StackTrace(false)
+public class NodeExpandEvent extends Event {
+
+    @Label("Node")
+    public long node;
+
+    @Label("Level")
+    public int level;
+
+    @Label("Generated Children")
+    public int generated;
+
+    @Label("Reused Children")
+    @Description("The number of children reused by the HS-dag")
+    public int reused;
+}
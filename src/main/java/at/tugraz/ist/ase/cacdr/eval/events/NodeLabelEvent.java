@@ -0,0 +1,41 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval.events;
+
+
+import jdk.jfr.*;
+
+/**
+ * A JFR event of labeling an HS-tree node.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Name("at.tugraz.ist.ase.cacdr.NodeLabel")
+@Label("HS Node Label")
+@Category({"CA-CDR", "HS-tree"})
+@StackTrace(false)
+public class NodeLabelEvent extends Event {
+
+    @Label("Node")
+    public long node;
+
+    @Label("Level")
+    public int level;
+
+    @Label("Reused")
+    @Description("true if a known conflict labels the node, false if the labeler computed the label")
+    public boolean reused;
+
+    @Label("Diagnosis")
+    @Description("true if the node has no label, i.e., its path labels are a diagnosis")
+    public boolean diagnosis;
+
+    @Label("Label Size")
+    public int labelSize;
+}
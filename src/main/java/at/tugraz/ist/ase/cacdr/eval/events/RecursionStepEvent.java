@@ -0,0 +1,53 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval.events;
+
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import jdk.jfr.*;
+
+import java.util.Set;
+
+/**
+ * An instant JFR event of a recursion step of QuickXPlain, FastDiag, or FlexDiag.
+ * Disabled by default since there are many steps per call, enable it in the JFR settings if needed.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Name("at.tugraz.ist.ase.cacdr.RecursionStep")
+@Label("Recursion Step")
+@Category({"CA-CDR", "Algorithm"})
+@Enabled(false)
+@StackTrace(false)
+public class RecursionStepEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("C")
+    @Description("The size of the consideration set of the step")
+    public int sizeC;
+
+    @Label("B")
+    @Description("The size of the background knowledge of the step")
+    public int sizeB;
+
+    /**
+     * Commits the event if it's enabled. The sizes of the sets (which can be views) are only computed then.
+     */
+    public static void emit(String algorithm, Set<Constraint> C, Set<Constraint> B) {
+        RecursionStepEvent event = new RecursionStepEvent();
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.sizeC = C.size();
+            event.sizeB = B.size();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown by a scheduled checker if its session exceeds the budget,
+ * which aborts the algorithm running in the session.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public class BudgetExceededException extends RuntimeException {
+
+    private final long checks;
+    private final long checkTime;
+
+    public BudgetExceededException(String session, long checks, long checkTime) {
+        super("The session " + session + " exceeded its budget [checks=" + checks + ", checkTime=" + checkTime + "ns]");
+        this.checks = checks;
+        this.checkTime = checkTime;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The lease of a warm checker from a {@link KnowledgeBasePool}.
+ * Closing the lease returns the checker to the pool:
+ * <pre>
+ * try (CheckerLease lease = pool.lease()) {
+ *     WarmChecker checker = lease.getChecker();
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class CheckerLease implements AutoCloseable {
+
+    private final KnowledgeBasePool pool;
+    @Getter
+    private final WarmChecker checker;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    CheckerLease(@NonNull KnowledgeBasePool pool, @NonNull WarmChecker checker) {
+        this.pool = pool;
+        this.checker = checker;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            pool.release(checker);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static at.tugraz.ist.ase.cacdr.common.JsonUtils.*;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A lightweight HTTP service on the loopback interface, which keeps knowledge bases
+ * with warm checkers resident (see {@link KnowledgeBasePool}).
+ *
+ * The endpoints take the knowledge base as the query parameter <code>kb</code>
+ * and return JSON:
+ * <ul>
+ *     <li><code>GET /conflict?kb=...</code> - a minimal conflict identified by QuickXPlain</li>
+ *     <li><code>GET /diagnosis?kb=...</code> - a minimal diagnosis identified by FastDiagV3</li>
+ *     <li><code>GET /diagnoses?kb=...[&amp;max=n]</code> - all (or the first n) minimal diagnoses
+ *     identified by the HS-dag with QuickXPlain</li>
+ *     <li><code>GET /stats</code> - the numbers of received, computed, and batched requests,
+ *     and the queueing delays of the checks</li>
+ * </ul>
+ * The optional parameters <code>maxChecks</code> and <code>maxTime</code> (in milliseconds of solver time)
+ * set the budget of a computation, see {@link SessionBudget}. A computation exceeding its budget
+ * is aborted with the status 422.
+ *
+ * Concurrent requests which are equal are batched, i.e., the result is computed once
+ * and returned to all waiting requests.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class DiagnosisService {
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final Map<String, FairCheckScheduler> knowledgeBases = new ConcurrentHashMap<>();
+    private final int maxSessions;
+    private final long admissionTimeout;
+
+    /**
+     * The requests being computed, keyed by the endpoint and the parameters
+     */
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong computed = new AtomicLong();
+    private final AtomicLong batched = new AtomicLong();
+
+    /**
+     * The requests and the computations run on session threads (see {@link SessionExecutors}).
+     * The checks of the computations are scheduled fairly on the checker pools (see {@link FairCheckScheduler}).
+     * If a knowledge base has <code>maxSessions</code> running computations, a new computation waits
+     * at most <code>admissionTimeout</code> milliseconds, otherwise the request is rejected
+     * with the status 503.
+     *
+     * @param port the port on the loopback interface, 0 - an ephemeral port
+     * @param maxSessions the maximal number of running computations per knowledge base, 0 - unbounded
+     * @param admissionTimeout the time in milliseconds a computation waits for its admission
+     */
+    @Builder
+    public DiagnosisService(int port, int maxSessions, long admissionTimeout) throws IOException {
+        checkArgument(maxSessions >= 0 && admissionTimeout >= 0, "The limits must not be negative");
+
+        this.maxSessions = maxSessions;
+        this.admissionTimeout = admissionTimeout;
+        this.workers = SessionExecutors.newSessionExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.setExecutor(SessionExecutors.newSessionExecutor());
+
+        server.createContext("/conflict", exchange -> handle(exchange, "conflict"));
+        server.createContext("/diagnosis", exchange -> handle(exchange, "diagnosis"));
+        server.createContext("/diagnoses", exchange -> handle(exchange, "diagnoses"));
+        server.createContext("/stats", exchange -> respond(exchange, 200, "{\"received\":" + received.get()
+                + ",\"computed\":" + computed.get() + ",\"batched\":" + batched.get()
+                + ",\"knowledgeBases\":" + toJson(new TreeSet<>(knowledgeBases.keySet()))
+                + ",\"scheduling\":" + schedulingStats() + "}"));
+    }
+
+    /**
+     * Makes a knowledge base resident.
+     * @param name the name of the knowledge base in the requests
+     * @param factory creates an initialized instance of the knowledge base
+     * @param poolSize the number of warm checkers
+     */
+    public void register(@NonNull String name, @NonNull Callable<CDRModel> factory, int poolSize) throws Exception {
+        checkState(!knowledgeBases.containsKey(name), "The knowledge base %s is already registered", name);
+        FairCheckScheduler scheduler = FairCheckScheduler.builder()
+                .pool(new KnowledgeBasePool(name, factory, poolSize))
+                .maxSessions(maxSessions).build();
+
+        // another thread may have registered the same name while the pool was warming up
+        if (knowledgeBases.putIfAbsent(name, scheduler) != null) {
+            scheduler.getPool().dispose();
+            throw new IllegalStateException("The knowledge base " + name + " is already registered");
+        }
+    }
+
+    public void start() {
+        server.start();
+        log.info("Diagnosis service is listening on {}", server.getAddress());
+    }
+
+    public void stop() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+        workers.shutdownNow();
+        knowledgeBases.values().forEach(scheduler -> scheduler.getPool().dispose());
+        knowledgeBases.clear();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the base URI of the service, e.g., http://127.0.0.1:8080
+     */
+    public URI getUri() {
+        String host = server.getAddress().getAddress().getHostAddress();
+        return URI.create("http://" + (host.contains(":") ? "[" + host + "]" : host) + ":" + getPort());
+    }
+
+    private void handle(HttpExchange exchange, String endpoint) throws IOException {
+        received.incrementAndGet();
+        try {
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            String kb = params.get("kb");
+            if (kb == null) {
+                respond(exchange, 400, error("Missing parameter kb"));
+                return;
+            }
+            FairCheckScheduler scheduler = knowledgeBases.get(kb);
+            if (scheduler == null) {
+                respond(exchange, 404, error("Unknown knowledge base " + kb));
+                return;
+            }
+            int max = Integer.parseInt(params.getOrDefault("max", "-1"));
+            SessionBudget budget = SessionBudget.builder()
+                    .maxChecks(Long.parseLong(params.getOrDefault("maxChecks", "0")))
+                    .maxCheckTime(TimeUnit.MILLISECONDS.toNanos(Long.parseLong(params.getOrDefault("maxTime", "0"))))
+                    .build();
+
+            String key = endpoint + "|" + kb + "|" + max + "|" + budget.getMaxChecks() + "|" + budget.getMaxCheckTime();
+            CompletableFuture<String> created = new CompletableFuture<>();
+            CompletableFuture<String> result = inFlight.putIfAbsent(key, created);
+            if (result == null) {
+                result = created;
+                workers.execute(() -> compute(key, created, scheduler, budget, endpoint, max));
+            } else {
+                batched.incrementAndGet();
+            }
+
+            respond(exchange, 200, result.get());
+        } catch (NumberFormatException e) {
+            respond(exchange, 400, error("Invalid numeric parameter"));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BudgetExceededException) {
+                respond(exchange, 422, error(e.getCause().getMessage()));
+                return;
+            }
+            if (e.getCause() instanceof RejectedExecutionException) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 503, error(e.getCause().getMessage()));
+                return;
+            }
+            log.error("Request {} failed", exchange.getRequestURI(), e.getCause());
+            respond(exchange, 500, error(String.valueOf(e.getCause().getMessage())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, error("Interrupted"));
+        }
+    }
+
+    private void compute(String key, CompletableFuture<String> future, FairCheckScheduler scheduler,
+                         SessionBudget budget, String endpoint, int max) {
+        try (ScheduledSession session = scheduler.tryOpenSession(budget, admissionTimeout, TimeUnit.MILLISECONDS)) {
+            if (session == null) {
+                throw new RejectedExecutionException("The knowledge base " + scheduler.getPool().getName() + " is saturated");
+            }
+
+            long start = System.nanoTime();
+            List<Set<Constraint>> result = run(session.getModel(), session.getChecker(), endpoint, max);
+            long time = System.nanoTime() - start;
+            computed.incrementAndGet();
+
+            future.complete("{\"kb\":" + toJson(scheduler.getPool().getName()) + ",\"type\":" + toJson(endpoint)
+                    + ",\"time\":" + time + ",\"checks\":" + session.getChecks()
+                    + ",\"queueingDelay\":" + session.getQueueingDelay() + ",\"result\":" + toJson(result) + "}");
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            // the later equal requests are computed again
+            inFlight.remove(key, future);
+        }
+    }
+
+    private List<Set<Constraint>> run(CDRModel model, IConsistencyChecker checker, String endpoint, int max) {
+        Set<Constraint> C = model.getPossiblyFaultyConstraints();
+        Set<Constraint> B = model.getCorrectConstraints();
+
+        switch (endpoint) {
+            case "conflict": {
+                Set<Constraint> cs = new QuickXPlain(checker).findConflictSet(C, B);
+                return cs.isEmpty() ? List.of() : List.of(cs);
+            }
+            case "diagnosis": {
+                Set<Constraint> diag = new FastDiagV3(checker).findDiagnosis(C, B);
+                return diag.isEmpty() ? List.of() : List.of(diag);
+            }
+            case "diagnoses": {
+                QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                        .C(C)
+                        .B(B).build();
+                HSDAG hsdag = new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+                hsdag.setMaxNumberOfDiagnoses(max);
+                hsdag.construct();
+                return hsdag.getDiagnoses();
+            }
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    private String schedulingStats() {
+        StringJoiner joiner = new StringJoiner(",", "{", "}");
+        new TreeMap<>(knowledgeBases).forEach((name, scheduler) -> joiner.add(toJson(name)
+                + ":{\"activeSessions\":" + scheduler.getActiveSessions()
+                + ",\"waitingChecks\":" + scheduler.getWaitingChecks()
+                + ",\"scheduledChecks\":" + scheduler.getScheduledChecks()
+                + ",\"averageQueueingDelay\":" + Math.round(scheduler.getAverageQueueingDelay())
+                + ",\"maxQueueingDelay\":" + scheduler.getMaxQueueingDelay() + "}"));
+        return joiner.toString();
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String param : query.split("&")) {
+            int i = param.indexOf('=');
+            if (i > 0) {
+                params.put(URLDecoder.decode(param.substring(0, i), StandardCharsets.UTF_8),
+                        URLDecoder.decode(param.substring(i + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + toJson(message) + "}";
+    }
+}
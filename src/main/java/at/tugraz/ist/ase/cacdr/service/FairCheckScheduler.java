@@ -0,0 +1,232 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Schedules the consistency checks of concurrent sessions on the warm checkers of a {@link KnowledgeBasePool},
+ * so that a huge diagnosis doesn't starve the small ones.
+ *
+ * <ul>
+ *     <li><b>Fair interleaving</b> - the checks are scheduled one at a time with start-time fair queuing.
+ *     Each waiting check is tagged with the solver time its session has consumed, but at least
+ *     with the tag of the last granted check. An idle checker is granted to the check with the smallest tag,
+ *     hence the sessions get equal shares of the solver time, and a new session doesn't wait
+ *     for the backlog of the running sessions.</li>
+ *     <li><b>Budgets</b> - a session exceeding its {@link SessionBudget} gets
+ *     a {@link BudgetExceededException} on its next check.</li>
+ *     <li><b>Admission control</b> - at most <code>maxSessions</code> sessions are admitted at the same time.
+ *     {@link #openSession} waits for a free slot, {@link #tryOpenSession} gives up after a timeout,
+ *     so that a saturated pool pushes back on the callers.</li>
+ *     <li><b>Queueing delay</b> - the time from the submission of a check to the grant of a checker
+ *     is measured per session and in total.</li>
+ * </ul>
+ *
+ * The scheduler has to own the pool, i.e., the pool must not be leased by other means.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class FairCheckScheduler {
+
+    @Getter
+    private final KnowledgeBasePool pool;
+    @Getter
+    private final int maxSessions;
+
+    private final Semaphore admission;
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(Comparator
+            .comparingLong((Ticket t) -> t.tag)
+            .thenComparingLong(t -> t.sequence));
+    private int idle;
+    private long virtualTime = 0;
+    private long sequence = 0;
+
+    private final LongAdder scheduledChecks = new LongAdder();
+    private final LongAdder totalQueueingDelay = new LongAdder();
+    private final AtomicLong maxQueueingDelay = new AtomicLong();
+
+    /**
+     * @param pool the pool of the warm checkers
+     * @param maxSessions the maximal number of admitted sessions, 0 - unbounded
+     */
+    @Builder
+    public FairCheckScheduler(@NonNull KnowledgeBasePool pool, int maxSessions) {
+        checkArgument(maxSessions >= 0, "The maximal number of sessions must not be negative");
+
+        this.pool = pool;
+        this.maxSessions = maxSessions;
+        this.admission = new Semaphore(maxSessions == 0 ? Integer.MAX_VALUE : maxSessions, true);
+        this.idle = pool.getSize();
+    }
+
+    /**
+     * Waits until the session is admitted.
+     */
+    public ScheduledSession openSession(@NonNull SessionBudget budget) throws InterruptedException {
+        admission.acquire();
+        return createSession(budget);
+    }
+
+    /**
+     * Waits at most the given time until the session is admitted.
+     * @return the session, or null if the scheduler is saturated
+     */
+    public ScheduledSession tryOpenSession(@NonNull SessionBudget budget, long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException {
+        if (!admission.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return createSession(budget);
+    }
+
+    private ScheduledSession createSession(SessionBudget budget) {
+        activeSessions.incrementAndGet();
+        String id = pool.getName() + "#" + sessionIds.incrementAndGet();
+        log.debug("Session {} is admitted [budget checks={}, checkTime={}]", id, budget.getMaxChecks(), budget.getMaxCheckTime());
+        return new ScheduledSession(this, id, budget, SessionContext.create());
+    }
+
+    void close(ScheduledSession session) {
+        log.debug("Session {} is closed [checks={}, checkTime={}, queueingDelay={}]", session.getId(),
+                session.getChecks(), session.getCheckTime(), session.getQueueingDelay());
+        activeSessions.decrementAndGet();
+        admission.release();
+    }
+
+    /**
+     * Waits until the next check of the session is granted a checker.
+     */
+    Grant acquire(ScheduledSession session) throws InterruptedException {
+        long submitted = System.nanoTime();
+        Ticket ticket;
+
+        lock.lock();
+        try {
+            ticket = new Ticket(Math.max(session.getFinishTag(), virtualTime), sequence++);
+            waiting.add(ticket);
+            try {
+                while (waiting.peek() != ticket || idle == 0) {
+                    changed.await();
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(ticket);
+                changed.signalAll();
+                throw e;
+            }
+            waiting.remove();
+            idle--;
+            virtualTime = ticket.tag;
+            // the next ticket may be served by another idle checker
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        long delay = System.nanoTime() - submitted;
+        scheduledChecks.increment();
+        totalQueueingDelay.add(delay);
+        maxQueueingDelay.accumulateAndGet(delay, Math::max);
+
+        try {
+            return new Grant(pool.lease(), ticket.tag, delay);
+        } catch (InterruptedException e) {
+            returnChecker();
+            throw e;
+        }
+    }
+
+    void release(ScheduledSession session, Grant grant, long checkTime) {
+        session.recordCheck(grant.delay, checkTime, grant.tag);
+        grant.lease.close();
+        returnChecker();
+    }
+
+    private void returnChecker() {
+        lock.lock();
+        try {
+            idle++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of checks waiting for a checker.
+     */
+    public int getWaitingChecks() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public long getScheduledChecks() {
+        return scheduledChecks.sum();
+    }
+
+    /**
+     * Returns the average queueing delay of the checks in nanoseconds.
+     */
+    public double getAverageQueueingDelay() {
+        long checks = scheduledChecks.sum();
+        return checks == 0 ? 0 : (double) totalQueueingDelay.sum() / checks;
+    }
+
+    /**
+     * Returns the maximal queueing delay of a check in nanoseconds.
+     */
+    public long getMaxQueueingDelay() {
+        return maxQueueingDelay.get();
+    }
+
+    @RequiredArgsConstructor
+    private static class Ticket {
+        private final long tag;
+        private final long sequence;
+    }
+
+    /**
+     * A checker granted to a check.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    static class Grant {
+        private final CheckerLease lease;
+        private final long tag;
+        private final long delay;
+    }
+}
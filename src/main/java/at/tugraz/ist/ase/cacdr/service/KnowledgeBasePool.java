@@ -0,0 +1,128 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A resident knowledge base with a pool of warm checkers.
+ * The knowledge base instances are created and warmed up once, when the pool is created.
+ * A session leases a checker, runs the algorithm, and closes the lease.
+ *
+ * The leases are bounded by a fair semaphore with one permit per checker, i.e., per solver
+ * instance, so the waiting sessions get the checkers in their arrival order. The pool doesn't
+ * use monitors, hence sessions on virtual threads (see {@link SessionExecutors}) aren't pinned
+ * to their carrier threads while they wait for a lease.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class KnowledgeBasePool {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int size;
+
+    /**
+     * The canonical instance of the knowledge base, see {@link WarmChecker#translate(java.util.Collection)}
+     */
+    @Getter
+    private final CDRModel model;
+
+    private final List<WarmChecker> checkers = new ArrayList<>();
+    private final Queue<WarmChecker> idle = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits;
+
+    /**
+     * @param name the name of the knowledge base in the requests
+     * @param factory creates an initialized instance of the knowledge base
+     * @param size the number of warm checkers, i.e., the number of sessions running an algorithm at the same time
+     */
+    public KnowledgeBasePool(@NonNull String name, @NonNull Callable<CDRModel> factory, int size) throws Exception {
+        checkArgument(size > 0, "The pool size must be positive");
+
+        this.name = name;
+        this.size = size;
+        this.permits = new Semaphore(size, true);
+
+        this.model = factory.call();
+        for (int i = 0; i < size; i++) {
+            // the checkers serve the requests without instrumentation
+            CDRModel instance = i == 0 ? model : factory.call();
+            WarmChecker checker = new WarmChecker(instance, model, SessionContext.disabled());
+            checker.warmUp();
+
+            checkers.add(checker);
+            idle.add(checker);
+        }
+        log.info("Knowledge base {} is resident with {} warm checkers", name, size);
+    }
+
+    /**
+     * Waits for an idle checker.
+     */
+    public CheckerLease lease() throws InterruptedException {
+        permits.acquire();
+        return new CheckerLease(this, idle.remove());
+    }
+
+    /**
+     * Waits for an idle checker at most the given time.
+     * @return the lease, or null if no checker became idle in time
+     */
+    public CheckerLease tryLease(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        if (!permits.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return new CheckerLease(this, idle.remove());
+    }
+
+    /**
+     * Runs a task of the calling session on a leased checker.
+     */
+    public <T> T execute(@NonNull Function<WarmChecker, T> task) throws InterruptedException {
+        try (CheckerLease lease = lease()) {
+            return task.apply(lease.getChecker());
+        }
+    }
+
+    /**
+     * Returns the number of idle checkers.
+     */
+    public int getAvailable() {
+        return permits.availablePermits();
+    }
+
+    void release(@NonNull WarmChecker checker) {
+        idle.add(checker);
+        permits.release();
+    }
+
+    public void dispose() {
+        checkers.forEach(WarmChecker::dispose);
+        checkers.clear();
+        idle.clear();
+    }
+}
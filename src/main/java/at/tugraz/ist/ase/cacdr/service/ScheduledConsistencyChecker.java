@@ -0,0 +1,73 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Collection;
+
+/**
+ * The checker of a {@link ScheduledSession}. Each check waits for its turn
+ * in the {@link FairCheckScheduler}, and runs on a leased warm checker.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+class ScheduledConsistencyChecker implements IConsistencyChecker {
+
+    private final FairCheckScheduler scheduler;
+    private final ScheduledSession session;
+
+    @Getter
+    private final SessionContext context;
+
+    ScheduledConsistencyChecker(@NonNull FairCheckScheduler scheduler, @NonNull ScheduledSession session,
+                                @NonNull SessionContext context) {
+        this.scheduler = scheduler;
+        this.session = session;
+        this.context = context;
+    }
+
+    /**
+     * @throws BudgetExceededException if the session exceeded its budget
+     */
+    @Override
+    public boolean isConsistent(Collection<Constraint> constraints) {
+        session.checkBudget();
+
+        FairCheckScheduler.Grant grant;
+        try {
+            grant = scheduler.acquire(session);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a checker", e);
+        }
+
+        long start = System.nanoTime();
+        try {
+            WarmChecker warm = grant.getLease().getChecker();
+            return warm.getChecker().isConsistent(warm.translate(constraints));
+        } finally {
+            scheduler.release(session, grant, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void reset() {
+        // the warm checkers reset their models after each check
+    }
+
+    @Override
+    public void dispose() {
+        // the warm checkers belong to the pool
+    }
+}
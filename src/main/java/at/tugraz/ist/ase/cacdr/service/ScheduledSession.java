@@ -0,0 +1,95 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A session admitted by a {@link FairCheckScheduler}. The algorithms of the session
+ * use the constraints of {@link #getModel()} and the checker {@link #getChecker()},
+ * whose checks are scheduled fairly with the checks of the other sessions.
+ *
+ * A session runs one algorithm at a time, and has to be closed to admit further sessions.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public class ScheduledSession implements AutoCloseable {
+
+    private final String id;
+    private final SessionBudget budget;
+    private final IConsistencyChecker checker;
+
+    @Getter(AccessLevel.NONE)
+    private final FairCheckScheduler scheduler;
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    // statistics, only updated by the thread running the session
+    private long checks = 0;
+    private long checkTime = 0;
+    private long queueingDelay = 0;
+    private long maxQueueingDelay = 0;
+
+    /**
+     * The virtual finish time of the last check, see {@link FairCheckScheduler}
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private long finishTag = 0;
+
+    ScheduledSession(@NonNull FairCheckScheduler scheduler, @NonNull String id, @NonNull SessionBudget budget,
+                     @NonNull SessionContext context) {
+        this.scheduler = scheduler;
+        this.id = id;
+        this.budget = budget;
+        this.checker = new ScheduledConsistencyChecker(scheduler, this, context);
+    }
+
+    /**
+     * Returns the canonical instance of the knowledge base.
+     */
+    public CDRModel getModel() {
+        return scheduler.getPool().getModel();
+    }
+
+    /**
+     * Returns the average queueing delay of the checks in nanoseconds.
+     */
+    public double getAverageQueueingDelay() {
+        return checks == 0 ? 0 : (double) queueingDelay / checks;
+    }
+
+    void checkBudget() {
+        if (budget.isExceeded(checks, checkTime)) {
+            throw new BudgetExceededException(id, checks, checkTime);
+        }
+    }
+
+    void recordCheck(long delay, long time, long tag) {
+        checks++;
+        checkTime += time;
+        queueingDelay += delay;
+        maxQueueingDelay = Math.max(maxQueueingDelay, delay);
+        finishTag = tag + time;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            scheduler.close(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The budget of a scheduled session, see {@link FairCheckScheduler}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+@Builder
+public class SessionBudget {
+
+    public static final SessionBudget UNBOUNDED = SessionBudget.builder().build();
+
+    /**
+     * The maximal number of consistency checks, 0 - unbounded
+     */
+    private final long maxChecks;
+
+    /**
+     * The maximal solver time in nanoseconds, 0 - unbounded.
+     * The checks run exclusively on the solver instances, so the solver time
+     * is the CPU time the session spends in the solver.
+     */
+    private final long maxCheckTime;
+
+    public boolean isExceeded(long checks, long checkTime) {
+        return (maxChecks > 0 && checks >= maxChecks) || (maxCheckTime > 0 && checkTime >= maxCheckTime);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors running the diagnosis sessions.
+ *
+ * On Java 21 or later, each session runs on its own virtual thread, so that thousands
+ * of sessions waiting for a checker lease don't occupy platform threads.
+ * The number of sessions running an algorithm at the same time is bounded
+ * by the checker leases of the {@link KnowledgeBasePool}s, not by the executor.
+ * On older Java versions, the sessions run on a cached pool of platform threads.
+ *
+ * The virtual-thread executor is looked up by reflection, because the library is compiled for Java 17.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+@UtilityClass
+public class SessionExecutors {
+
+    private final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+    private final Method IS_VIRTUAL = findIsVirtual();
+
+    /**
+     * true - if the sessions run on virtual threads
+     */
+    public boolean isVirtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor starting a new thread for each session,
+     * i.e., a virtual thread if supported, otherwise a platform thread.
+     */
+    public ExecutorService newSessionExecutor() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are unavailable, falling back to platform threads", e);
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * true - if the given thread is a virtual thread
+     */
+    public boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private Method findVirtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private Method findIsVirtual() {
+        try {
+            return Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
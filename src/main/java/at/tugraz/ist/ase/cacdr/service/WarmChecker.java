@@ -0,0 +1,103 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A knowledge base instance with its own checker. Since a checker posts and unposts
+ * the constraints of its Choco model, each pooled checker needs its own instance
+ * of the knowledge base, and the algorithms have to use the constraints of this instance.
+ *
+ * Alternatively, the algorithms can use the constraints of the canonical instance
+ * of the pool, which are translated to the constraints of this instance by {@link #translate(Collection)}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public class WarmChecker {
+
+    private final CDRModel model;
+    private final ChocoConsistencyChecker checker;
+
+    /**
+     * Maps the constraints of the canonical instance to the constraints of this instance,
+     * null - if this is the canonical instance
+     */
+    private final Map<Constraint, Constraint> translation;
+
+    public WarmChecker(@NonNull CDRModel model, @NonNull SessionContext context) {
+        this(model, model, context);
+    }
+
+    /**
+     * @param canonical the canonical instance of the knowledge base, created by the same factory,
+     *                  so that its constraints are in the same order
+     */
+    public WarmChecker(@NonNull CDRModel model, @NonNull CDRModel canonical, @NonNull SessionContext context) {
+        this.model = model;
+        this.checker = new ChocoConsistencyChecker(model, context);
+
+        if (model == canonical) {
+            this.translation = null;
+        } else {
+            List<Constraint> own = new ArrayList<>(model.getAllConstraints());
+            List<Constraint> other = new ArrayList<>(canonical.getAllConstraints());
+            checkArgument(own.size() == other.size(), "The knowledge base instances have different constraints");
+
+            this.translation = new IdentityHashMap<>(own.size());
+            for (int i = 0; i < own.size(); i++) {
+                translation.put(other.get(i), own.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the constraints of this instance which correspond to the given constraints of the canonical instance.
+     */
+    public Collection<Constraint> translate(@NonNull Collection<Constraint> constraints) {
+        if (translation == null) {
+            return constraints;
+        }
+        List<Constraint> translated = new ArrayList<>(constraints.size());
+        for (Constraint constraint : constraints) {
+            Constraint own = translation.get(constraint);
+            checkArgument(own != null, "%s isn't a constraint of the knowledge base", constraint);
+            translated.add(own);
+        }
+        return translated;
+    }
+
+    /**
+     * Runs a consistency check, so that the solver and the JIT are warm
+     * before the first request. An empty set of constraints, e.g., a knowledge base
+     * without background knowledge, isn't checked.
+     */
+    public void warmUp() {
+        if (!model.getCorrectConstraints().isEmpty()) {
+            checker.isConsistent(model.getCorrectConstraints());
+        }
+        if (!model.getAllConstraints().isEmpty()) {
+            checker.isConsistent(model.getAllConstraints());
+        }
+    }
+
+    public void dispose() {
+        checker.dispose();
+    }
+}
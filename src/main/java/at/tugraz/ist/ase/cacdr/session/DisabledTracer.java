@@ -0,0 +1,30 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.session;
+
+/**
+ * A tracer without indentation, used when the instrumentation is switched off.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class DisabledTracer implements ITracer {
+
+    @Override
+    public String tab() {
+        return "";
+    }
+
+    @Override
+    public void indent() {
+    }
+
+    @Override
+    public void outdent() {
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.session;
+
+import at.tugraz.ist.ase.common.LoggerUtils;
+
+/**
+ * A tracer which delegates to the global indentation of {@link LoggerUtils}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class GlobalTracer implements ITracer {
+
+    @Override
+    public String tab() {
+        return LoggerUtils.tab;
+    }
+
+    @Override
+    public void indent() {
+        LoggerUtils.indent();
+    }
+
+    @Override
+    public void outdent() {
+        LoggerUtils.outdent();
+    }
+}
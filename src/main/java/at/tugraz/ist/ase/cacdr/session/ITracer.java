@@ -0,0 +1,26 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.session;
+
+/**
+ * Keeps the indentation of the trace logs.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public interface ITracer {
+
+    /**
+     * Returns the current indentation.
+     */
+    String tab();
+
+    void indent();
+
+    void outdent();
+}
@@ -0,0 +1,153 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.session;
+
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.DisabledEvaluator;
+import at.tugraz.ist.ase.cacdr.eval.GlobalEvaluator;
+import at.tugraz.ist.ase.cacdr.eval.IEvaluator;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state of a diagnosis session, i.e., the evaluator, the trace indentation,
+ * and the generator of node ids.
+ *
+ * A session context is passed to a consistency checker, from which the algorithms
+ * and the HS constructors using the checker take it. Sessions with their own contexts
+ * can run concurrently in one JVM. The global context keeps the static evaluator
+ * and the global indentation, and is used if no context is given.
+ *
+ * A session context must not be shared by concurrently running algorithms.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public class SessionContext {
+
+    /**
+     * The system property switching off the counters, timers, and trace indentation
+     * of the global context, e.g., -Dcacdr.instrumentation=false in production
+     */
+    public static final String INSTRUMENTATION_PROPERTY = "cacdr.instrumentation";
+
+    private static final SessionContext GLOBAL = Boolean.parseBoolean(System.getProperty(INSTRUMENTATION_PROPERTY, "true"))
+            ? new SessionContext(new GlobalEvaluator(), new GlobalTracer())
+            : disabled();
+
+    private final IEvaluator evaluator;
+    private final ITracer tracer;
+    private final AtomicLong nodeIdGenerator = new AtomicLong(-1);
+
+    /**
+     * false - if the counters, timers, and trace indentation are no-ops
+     */
+    private final boolean instrumented;
+
+    public SessionContext(@NonNull IEvaluator evaluator, @NonNull ITracer tracer) {
+        this.evaluator = evaluator;
+        this.tracer = tracer;
+        this.instrumented = !(evaluator instanceof DisabledEvaluator);
+    }
+
+    /**
+     * Returns the context shared by all sessions which don't have their own context.
+     */
+    public static SessionContext global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Creates a context with its own evaluator and trace indentation.
+     */
+    public static SessionContext create() {
+        return new SessionContext(new SessionEvaluator(), new SessionTracer());
+    }
+
+    /**
+     * Creates a context without instrumentation, i.e., the counters, timers,
+     * and trace indentation are no-ops. The node ids are still generated.
+     */
+    public static SessionContext disabled() {
+        return new SessionContext(new DisabledEvaluator(), new DisabledTracer());
+    }
+
+    public long nextNodeId() {
+        return nodeIdGenerator.incrementAndGet();
+    }
+
+    public void resetNodeIds() {
+        nodeIdGenerator.set(-1);
+    }
+
+    // shortcuts for the evaluator and the tracer
+
+    public void incrementCounter(String name) {
+        if (instrumented) {
+            evaluator.incrementCounter(name);
+        }
+    }
+
+    public void incrementCounter(String name, int step) {
+        if (instrumented) {
+            evaluator.incrementCounter(name, step);
+        }
+    }
+
+    public void increment(Counter counter) {
+        if (instrumented) {
+            evaluator.increment(counter);
+        }
+    }
+
+    public void increment(Counter counter, int step) {
+        if (instrumented) {
+            evaluator.increment(counter, step);
+        }
+    }
+
+    public void gauge(String name, long value) {
+        if (instrumented) {
+            evaluator.gauge(name, value);
+        }
+    }
+
+    public void start(String timer) {
+        if (instrumented) {
+            evaluator.start(timer);
+        }
+    }
+
+    public void stop(String timer) {
+        if (instrumented) {
+            evaluator.stop(timer);
+        }
+    }
+
+    public void stop(String timer, boolean save) {
+        if (instrumented) {
+            evaluator.stop(timer, save);
+        }
+    }
+
+    public String tab() {
+        return tracer.tab();
+    }
+
+    public void indent() {
+        tracer.indent();
+    }
+
+    public void outdent() {
+        tracer.outdent();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.session;
+
+/**
+ * A tracer whose indentation belongs to a single diagnosis session.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class SessionTracer implements ITracer {
+
+    private static final String INDENT = "  ";
+
+    private String tab = "";
+
+    @Override
+    public String tab() {
+        return tab;
+    }
+
+    @Override
+    public void indent() {
+        tab = tab + INDENT;
+    }
+
+    @Override
+    public void outdent() {
+        if (tab.length() >= INDENT.length()) {
+            tab = tab.substring(INDENT.length());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.snapshot;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static at.tugraz.ist.ase.cacdr.snapshot.SnapshotFormat.MAGIC;
+import static at.tugraz.ist.ase.cacdr.snapshot.SnapshotFormat.VERSION;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A compiled knowledge base in a compact binary form, i.e., its variables and domains,
+ * the structure of its Choco constraints, and the constraint index (see {@link SnapshotFormat}).
+ *
+ * A snapshot is created by a {@link SnapshotBuilder} when the source format is parsed,
+ * and can be written to a file. {@link #read(Path)} maps the file into memory without copying it,
+ * and {@link #instantiate()} rehydrates a new knowledge base from the mapped bytes,
+ * which skips parsing and translating the source format. Since the snapshot is immutable,
+ * it can instantiate the knowledge bases of concurrent sessions, e.g., as the factory of a
+ * {@link at.tugraz.ist.ase.cacdr.service.KnowledgeBasePool}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Getter
+public class KnowledgeBaseSnapshot {
+
+    /**
+     * The extension of the snapshot files
+     */
+    public static final String EXTENSION = ".cdrs";
+
+    private final String name;
+    private final int numVariables;
+    private final int numTerms;
+    private final int numConstraints;
+
+    /**
+     * The read-only bytes of the snapshot
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The position of the variable section
+     */
+    private final int bodyOffset;
+
+    KnowledgeBaseSnapshot(@NonNull ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        ByteBuffer in = buffer.duplicate();
+        in.position(0);
+        checkArgument(in.remaining() >= 8 && in.getInt() == MAGIC, "Not a knowledge base snapshot");
+        int version = in.getInt();
+        checkArgument(version == VERSION, "Unsupported snapshot version %s", version);
+
+        this.name = readString(in);
+        this.numVariables = in.getInt();
+        this.numTerms = in.getInt();
+        this.numConstraints = in.getInt();
+        this.bodyOffset = in.position();
+    }
+
+    /**
+     * Maps a snapshot file into memory.
+     */
+    public static KnowledgeBaseSnapshot read(@NonNull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after closing the channel
+            return new KnowledgeBaseSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public void write(@NonNull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = buffer.duplicate();
+            out.position(0);
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * Creates a new initialized knowledge base from the snapshot.
+     */
+    public SnapshotModel instantiate() {
+        SnapshotModel model = new SnapshotModel(this);
+        model.initialize();
+        return model;
+    }
+
+    /**
+     * Returns the size of the snapshot in bytes.
+     */
+    public int size() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Returns a new view of the bytes, positioned at the variable section.
+     */
+    ByteBuffer body() {
+        ByteBuffer in = buffer.duplicate();
+        in.position(bodyOffset);
+        return in;
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        checkArgument(length >= 0 && length <= in.remaining(), "Corrupted snapshot");
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int[] readInts(ByteBuffer in) {
+        int length = in.getInt();
+        checkArgument(length >= 0 && length <= in.remaining() / Integer.BYTES, "Corrupted snapshot");
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.getInt();
+        }
+        return values;
+    }
+}
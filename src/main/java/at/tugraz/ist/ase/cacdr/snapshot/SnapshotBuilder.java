@@ -0,0 +1,297 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.snapshot;
+
+import lombok.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static at.tugraz.ist.ase.cacdr.snapshot.SnapshotFormat.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Compiles a knowledge base into a {@link KnowledgeBaseSnapshot}, e.g., in a parser of a source format.
+ * The variables and terms are referred to by the indexes returned by the builder methods,
+ * which mirror the corresponding methods of the Choco model:
+ * <pre>
+ * SnapshotBuilder builder = new SnapshotBuilder("kb");
+ * int x = builder.intVar("x", 0, 5);
+ * int y = builder.intVar("y", 0, 5);
+ * builder.addConstraint("x &lt; y", false, builder.arithm(x, "&lt;", y));
+ * builder.addConstraint("x = 1 or y = 1", true, builder.or(builder.arithmConstant(x, "=", 1),
+ *                                                          builder.arithmConstant(y, "=", 1)));
+ * KnowledgeBaseSnapshot snapshot = builder.build();
+ * </pre>
+ * A term nested in a logical term is reified, so it shouldn't be a term of a constraint, too.
+ *
+ * An initialized {@link at.tugraz.ist.ase.cdrmodel.CDRModel} can't be compiled into a snapshot,
+ * since the public API of Choco doesn't expose the structure of a posted constraint.
+ * A knowledge base has to describe its constraints to the builder when it is parsed or generated.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class SnapshotBuilder {
+
+    private final String name;
+
+    private final ByteArrayOutputStream variableBytes = new ByteArrayOutputStream();
+    private final DataOutputStream variables = new DataOutputStream(variableBytes);
+    private final ByteArrayOutputStream termBytes = new ByteArrayOutputStream();
+    private final DataOutputStream terms = new DataOutputStream(termBytes);
+    private final ByteArrayOutputStream constraintBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constraints = new DataOutputStream(constraintBytes);
+
+    private int numVariables = 0;
+    private int numTerms = 0;
+    private int numConstraints = 0;
+
+    public SnapshotBuilder(@NonNull String name) {
+        this.name = name;
+    }
+
+    // variables
+
+    public int intVar(@NonNull String name, int lb, int ub) {
+        checkArgument(lb <= ub, "The domain of %s is empty", name);
+        try {
+            writeString(variables, name);
+            variables.writeByte(BOUNDED);
+            variables.writeInt(lb);
+            variables.writeInt(ub);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numVariables++;
+    }
+
+    public int intVar(@NonNull String name, @NonNull int[] values) {
+        checkArgument(values.length > 0, "The domain of %s is empty", name);
+        try {
+            writeString(variables, name);
+            variables.writeByte(ENUMERATED);
+            writeInts(variables, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numVariables++;
+    }
+
+    public int boolVar(@NonNull String name) {
+        return intVar(name, 0, 1);
+    }
+
+    // terms
+
+    public int arithm(int x, @NonNull String op, int y) {
+        checkVariable(x);
+        checkVariable(y);
+        return term(ARITHM_VAR, x, encode(op), y);
+    }
+
+    public int arithmConstant(int x, @NonNull String op, int c) {
+        checkVariable(x);
+        return term(ARITHM_CONSTANT, x, encode(op), c);
+    }
+
+    public int arithm(int x, @NonNull String op1, int y, @NonNull String op2, int c) {
+        checkVariable(x);
+        checkVariable(y);
+        return term(ARITHM_VAR_CONSTANT, x, encode(op1), y, encode(op2), c);
+    }
+
+    public int sum(@NonNull int[] vars, @NonNull String op, int c) {
+        checkVariables(vars);
+        try {
+            terms.writeByte(SUM);
+            writeInts(terms, vars);
+            terms.writeByte(encode(op));
+            terms.writeInt(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numTerms++;
+    }
+
+    /**
+     * @param feasible true - the tuples are the allowed ones, false - the forbidden ones
+     */
+    public int table(@NonNull int[] vars, @NonNull int[][] tuples, boolean feasible) {
+        checkVariables(vars);
+        try {
+            terms.writeByte(TABLE);
+            writeInts(terms, vars);
+            terms.writeInt(tuples.length);
+            terms.writeBoolean(feasible);
+            for (int[] tuple : tuples) {
+                checkArgument(tuple.length == vars.length, "The tuples must have %s values", vars.length);
+                for (int value : tuple) {
+                    terms.writeInt(value);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numTerms++;
+    }
+
+    public int member(int x, @NonNull int[] values) {
+        return membership(MEMBER, x, values);
+    }
+
+    public int notMember(int x, @NonNull int[] values) {
+        return membership(NOT_MEMBER, x, values);
+    }
+
+    public int and(@NonNull int... subterms) {
+        return logical(AND, subterms);
+    }
+
+    public int or(@NonNull int... subterms) {
+        return logical(OR, subterms);
+    }
+
+    public int not(int subterm) {
+        checkTerm(subterm);
+        try {
+            terms.writeByte(NOT);
+            terms.writeInt(subterm);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numTerms++;
+    }
+
+    // constraints
+
+    /**
+     * Adds a constraint of the knowledge base, consisting of the given terms.
+     * @param correct true - a correct constraint, false - a possibly faulty constraint
+     */
+    public void addConstraint(@NonNull String name, boolean correct, @NonNull int... constraintTerms) {
+        checkArgument(constraintTerms.length > 0, "The constraint %s has no terms", name);
+        for (int term : constraintTerms) {
+            checkTerm(term);
+        }
+        try {
+            writeString(constraints, name);
+            constraints.writeBoolean(correct);
+            writeInts(constraints, constraintTerms);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        numConstraints++;
+    }
+
+    public KnowledgeBaseSnapshot build() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(variableBytes.size() + termBytes.size()
+                    + constraintBytes.size() + 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, name);
+            out.writeInt(numVariables);
+            out.writeInt(numTerms);
+            out.writeInt(numConstraints);
+            variableBytes.writeTo(out);
+            termBytes.writeTo(out);
+            constraintBytes.writeTo(out);
+            out.flush();
+
+            return new KnowledgeBaseSnapshot(ByteBuffer.wrap(bytes.toByteArray()).asReadOnlyBuffer());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int term(byte kind, int x, byte op, int y) {
+        try {
+            terms.writeByte(kind);
+            terms.writeInt(x);
+            terms.writeByte(op);
+            terms.writeInt(y);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numTerms++;
+    }
+
+    private int term(byte kind, int x, byte op1, int y, byte op2, int c) {
+        try {
+            terms.writeByte(kind);
+            terms.writeInt(x);
+            terms.writeByte(op1);
+            terms.writeInt(y);
+            terms.writeByte(op2);
+            terms.writeInt(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numTerms++;
+    }
+
+    private int membership(byte kind, int x, int[] values) {
+        checkVariable(x);
+        try {
+            terms.writeByte(kind);
+            terms.writeInt(x);
+            writeInts(terms, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numTerms++;
+    }
+
+    private int logical(byte kind, int[] subterms) {
+        checkArgument(subterms.length > 0, "A logical term needs subterms");
+        for (int subterm : subterms) {
+            checkTerm(subterm);
+        }
+        try {
+            terms.writeByte(kind);
+            writeInts(terms, subterms);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return numTerms++;
+    }
+
+    private void checkVariable(int x) {
+        checkArgument(x >= 0 && x < numVariables, "Unknown variable %s", x);
+    }
+
+    private void checkVariables(int[] vars) {
+        checkArgument(vars.length > 0, "No variables are given");
+        for (int x : vars) {
+            checkVariable(x);
+        }
+    }
+
+    private void checkTerm(int term) {
+        checkArgument(term >= 0 && term < numTerms, "Unknown term %s", term);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}
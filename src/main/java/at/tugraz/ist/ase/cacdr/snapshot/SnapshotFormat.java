@@ -0,0 +1,66 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.snapshot;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The constants of the binary snapshot format.
+ *
+ * A snapshot consists of a header (magic, version, name, and the numbers of variables,
+ * terms and constraints) followed by three sections:
+ * <ul>
+ *     <li>the variables - name, and bounds or enumerated domain</li>
+ *     <li>the terms - the Choco constraints of the knowledge base, where the logical terms
+ *     (and, or, not) refer to previous terms by their indexes</li>
+ *     <li>the constraints - name, whether it's a correct constraint, and the indexes of its terms</li>
+ * </ul>
+ * All numbers are big-endian ints, a string is its length followed by its UTF-8 bytes.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x434B4253; // CKBS
+    static final int VERSION = 1;
+
+    // variable kinds
+    static final byte BOUNDED = 0;
+    static final byte ENUMERATED = 1;
+
+    // term kinds
+    static final byte ARITHM_VAR = 0; // x op y
+    static final byte ARITHM_CONSTANT = 1; // x op c
+    static final byte ARITHM_VAR_CONSTANT = 2; // x op1 y op2 c
+    static final byte SUM = 3;
+    static final byte TABLE = 4;
+    static final byte MEMBER = 5;
+    static final byte NOT_MEMBER = 6;
+    static final byte AND = 7;
+    static final byte OR = 8;
+    static final byte NOT = 9;
+
+    static final List<String> OPERATORS = List.of("=", "!=", "<", ">", "<=", ">=", "+", "-", "*", "/");
+
+    private SnapshotFormat() {
+    }
+
+    static byte encode(String operator) {
+        int index = OPERATORS.indexOf(operator);
+        checkArgument(index >= 0, "Unknown operator %s", operator);
+        return (byte) index;
+    }
+
+    static String decode(byte operator) {
+        checkArgument(operator >= 0 && operator < OPERATORS.size(), "Unknown operator %s", operator);
+        return OPERATORS.get(operator);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.snapshot;
+
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.IChocoModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.snapshot.KnowledgeBaseSnapshot.readInts;
+import static at.tugraz.ist.ase.cacdr.snapshot.KnowledgeBaseSnapshot.readString;
+import static at.tugraz.ist.ase.cacdr.snapshot.SnapshotFormat.*;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A knowledge base rehydrated from a {@link KnowledgeBaseSnapshot}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class SnapshotModel extends CDRModel implements IChocoModel {
+
+    @Getter
+    private final Model model;
+
+    private final KnowledgeBaseSnapshot snapshot;
+
+    public SnapshotModel(@NonNull KnowledgeBaseSnapshot snapshot) {
+        super(snapshot.getName());
+
+        this.snapshot = snapshot;
+        this.model = new Model(snapshot.getName());
+    }
+
+    @Override
+    public void initialize() {
+        log.debug("Rehydrating {} [variables={}, terms={}, constraints={}]", getName(),
+                snapshot.getNumVariables(), snapshot.getNumTerms(), snapshot.getNumConstraints());
+
+        ByteBuffer in = snapshot.body();
+
+        IntVar[] vars = new IntVar[snapshot.getNumVariables()];
+        for (int i = 0; i < vars.length; i++) {
+            String name = readString(in);
+            byte kind = in.get();
+            vars[i] = kind == BOUNDED
+                    ? model.intVar(name, in.getInt(), in.getInt())
+                    : model.intVar(name, readInts(in));
+        }
+
+        org.chocosolver.solver.constraints.Constraint[] terms =
+                new org.chocosolver.solver.constraints.Constraint[snapshot.getNumTerms()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = readTerm(in, vars, terms);
+        }
+
+        Set<Constraint> C = new LinkedHashSet<>();
+        Set<Constraint> B = new LinkedHashSet<>();
+        for (int i = 0; i < snapshot.getNumConstraints(); i++) {
+            Constraint constraint = new Constraint(readString(in));
+            boolean correct = in.get() != 0;
+            for (int term : readInts(in)) {
+                constraint.addChocoConstraint(terms[term]);
+            }
+            (correct ? B : C).add(constraint);
+        }
+
+        setPossiblyFaultyConstraints(C);
+        setCorrectConstraints(B);
+    }
+
+    private org.chocosolver.solver.constraints.Constraint readTerm(ByteBuffer in, IntVar[] vars,
+                                                                  org.chocosolver.solver.constraints.Constraint[] terms) {
+        byte kind = in.get();
+        switch (kind) {
+            case ARITHM_VAR: {
+                IntVar x = vars[in.getInt()];
+                String op = decode(in.get());
+                return model.arithm(x, op, vars[in.getInt()]);
+            }
+            case ARITHM_CONSTANT: {
+                IntVar x = vars[in.getInt()];
+                String op = decode(in.get());
+                return model.arithm(x, op, in.getInt());
+            }
+            case ARITHM_VAR_CONSTANT: {
+                IntVar x = vars[in.getInt()];
+                String op1 = decode(in.get());
+                IntVar y = vars[in.getInt()];
+                String op2 = decode(in.get());
+                return model.arithm(x, op1, y, op2, in.getInt());
+            }
+            case SUM: {
+                IntVar[] sumVars = variables(readInts(in), vars);
+                String op = decode(in.get());
+                return model.sum(sumVars, op, in.getInt());
+            }
+            case TABLE: {
+                IntVar[] tableVars = variables(readInts(in), vars);
+                int numTuples = in.getInt();
+                Tuples tuples = new Tuples(in.get() != 0);
+                for (int t = 0; t < numTuples; t++) {
+                    int[] tuple = new int[tableVars.length];
+                    for (int v = 0; v < tuple.length; v++) {
+                        tuple[v] = in.getInt();
+                    }
+                    tuples.add(tuple);
+                }
+                return model.table(tableVars, tuples);
+            }
+            case MEMBER: {
+                IntVar x = vars[in.getInt()];
+                return model.member(x, readInts(in));
+            }
+            case NOT_MEMBER: {
+                IntVar x = vars[in.getInt()];
+                return model.notMember(x, readInts(in));
+            }
+            case AND:
+                return model.and(subterms(readInts(in), terms));
+            case OR:
+                return model.or(subterms(readInts(in), terms));
+            case NOT:
+                return subterms(new int[]{in.getInt()}, terms)[0].getOpposite();
+            default:
+                throw new IllegalArgumentException("Unknown term kind " + kind);
+        }
+    }
+
+    private static IntVar[] variables(int[] indexes, IntVar[] vars) {
+        IntVar[] result = new IntVar[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            result[i] = vars[indexes[i]];
+        }
+        return result;
+    }
+
+    private static org.chocosolver.solver.constraints.Constraint[] subterms(int[] indexes,
+                                                                          org.chocosolver.solver.constraints.Constraint[] terms) {
+        org.chocosolver.solver.constraints.Constraint[] result =
+                new org.chocosolver.solver.constraints.Constraint[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            checkArgument(indexes[i] >= 0 && indexes[i] < terms.length && terms[indexes[i]] != null, "Corrupted snapshot");
+            result[i] = terms[indexes[i]];
+        }
+        return result;
+    }
+}
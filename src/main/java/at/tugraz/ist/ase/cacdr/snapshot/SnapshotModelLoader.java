@@ -0,0 +1,32 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.snapshot;
+
+import at.tugraz.ist.ase.cacdr.cli.IModelLoader;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+
+import java.nio.file.Path;
+
+/**
+ * Loads the knowledge base snapshots (*.cdrs) for the {@link at.tugraz.ist.ase.cacdr.cli.BatchDiagnosis}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+public class SnapshotModelLoader implements IModelLoader {
+
+    @Override
+    public boolean supports(Path file) {
+        return file.getFileName().toString().endsWith(KnowledgeBaseSnapshot.EXTENSION);
+    }
+
+    @Override
+    public CDRModel load(Path file) throws Exception {
+        return KnowledgeBaseSnapshot.read(file).instantiate();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms;
+
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.algorithms.MARCO.COUNTER_MARCO_SEEDS;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static at.tugraz.ist.ase.common.ConstraintUtils.convertToStringWithMessage;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MARCOTest {
+
+    @Test
+    void testModel1() throws Exception {
+        TestModel1 testModel = new TestModel1();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel2() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel3() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel4() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void shouldStopAtMaxNumbers() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        MARCO marco = new MARCO(new ChocoConsistencyChecker(testModel));
+        marco.setMaxNumberOfConflicts(1);
+        marco.setMaxNumberOfDiagnoses(1);
+        marco.enumerate(testModel.getPossiblyFaultyConstraints(), testModel.getCorrectConstraints());
+
+        assertEquals(1, marco.getConflicts().size());
+        assertEquals(1, marco.getDiagnoses().size());
+        assertTrue(testModel.getExpectedAllConflicts().contains(marco.getConflicts().get(0)));
+        assertTrue(testModel.getExpectedAllDiagnoses().contains(marco.getDiagnoses().get(0)));
+    }
+
+    @Test
+    void shouldStopAtMaxNumberOfDiagnosesOnly() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        SessionContext context = SessionContext.create();
+        MARCO marco = new MARCO(new ChocoConsistencyChecker(testModel, context));
+        marco.setMaxNumberOfDiagnoses(1);
+        marco.enumerate(testModel.getPossiblyFaultyConstraints(), testModel.getCorrectConstraints());
+        long seeds = ((SessionEvaluator) context.getEvaluator()).getCounter(COUNTER_MARCO_SEEDS);
+
+        SessionContext allContext = SessionContext.create();
+        MARCO all = new MARCO(new ChocoConsistencyChecker(testModel, allContext));
+        all.enumerate(testModel.getPossiblyFaultyConstraints(), testModel.getCorrectConstraints());
+        long allSeeds = ((SessionEvaluator) allContext.getEvaluator()).getCounter(COUNTER_MARCO_SEEDS);
+
+        // the unset maximum number of conflicts doesn't force the enumeration of all conflicts
+        assertEquals(1, marco.getDiagnoses().size());
+        assertTrue(testModel.getExpectedAllDiagnoses().contains(marco.getDiagnoses().get(0)));
+        assertTrue(seeds < allSeeds, "seeds: " + seeds + ", all seeds: " + allSeeds);
+    }
+
+    @Test
+    void shouldStopAtMaxNumberOfConflictsOnly() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        MARCO marco = new MARCO(new ChocoConsistencyChecker(testModel));
+        marco.setMaxNumberOfConflicts(1);
+        marco.enumerate(testModel.getPossiblyFaultyConstraints(), testModel.getCorrectConstraints());
+
+        assertEquals(1, marco.getConflicts().size());
+        assertTrue(testModel.getExpectedAllConflicts().contains(marco.getConflicts().get(0)));
+        assertTrue(marco.getDiagnoses().size() < testModel.getExpectedAllDiagnoses().size());
+    }
+
+    private void check(CDRModel testModel, List<Set<Constraint>> expectedConflicts,
+                       List<Set<Constraint>> expectedDiagnoses) {
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        MARCO marco = new MARCO(checker);
+
+        List<Set<Constraint>> streamedConflicts = new ArrayList<>();
+        List<Set<Constraint>> streamedDiagnoses = new ArrayList<>();
+
+        CAEvaluator.reset();
+        marco.enumerate(testModel.getPossiblyFaultyConstraints(), testModel.getCorrectConstraints(),
+                streamedConflicts::add, streamedDiagnoses::add);
+
+        System.out.println("=========================================");
+        System.out.println(convertToStringWithMessage(marco.getConflicts(), "Conflict"));
+        System.out.println(convertToStringWithMessage(marco.getDiagnoses(), "Diagnosis"));
+        printPerformance();
+
+        assertAll(() -> assertEquals(new HashSet<>(expectedConflicts), new HashSet<>(marco.getConflicts())),
+                () -> assertEquals(new HashSet<>(expectedDiagnoses), new HashSet<>(marco.getDiagnoses())),
+                () -> assertEquals(marco.getConflicts(), streamedConflicts),
+                () -> assertEquals(marco.getDiagnoses(), streamedDiagnoses));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms;
+
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimalDiagTest {
+
+    @Test
+    void shouldFindMinimalCardinalityDiagnoses_testModel1() throws Exception {
+        TestModel1 testModel = new TestModel1();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses(), () -> { TestModel1 m = new TestModel1(); m.initialize(); return m; });
+    }
+
+    @Test
+    void shouldFindMinimalCardinalityDiagnoses_testModel2() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses(), () -> { TestModel2 m = new TestModel2(); m.initialize(); return m; });
+    }
+
+    @Test
+    void shouldFindMinimalCardinalityDiagnoses_testModel3() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses(), () -> { TestModel3 m = new TestModel3(); m.initialize(); return m; });
+    }
+
+    @Test
+    void shouldFindMinimalCardinalityDiagnoses_testModel4() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses(), () -> { TestModel4 m = new TestModel4(); m.initialize(); return m; });
+    }
+
+    @Test
+    void shouldFindMinimalCardinalityDiagnoses_testModel5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses(), () -> { TestModel5 m = new TestModel5(); m.initialize(); return m; });
+    }
+
+    @Test
+    void shouldPreferDiagnosisWithLowestWeight() throws Exception {
+        Callable<CDRModel> factory = () -> { TestModel5 m = new TestModel5(); m.initialize(); return m; };
+        TestModel5 testModel = (TestModel5) factory.call();
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        // the largest diagnosis gets the lowest weight, since every other diagnosis
+        // relaxes a constraint outside of it
+        Set<Constraint> target = testModel.getExpectedAllDiagnoses().stream()
+                .max(Comparator.comparingInt(Set::size)).orElseThrow();
+        Map<Constraint, Integer> weights = new HashMap<>();
+        for (Constraint constraint : C) {
+            weights.put(constraint, target.contains(constraint) ? 1 : C.size() + 1);
+        }
+
+        OptimalDiag optimalDiag = new OptimalDiag(testModel, factory);
+        optimalDiag.setWeights(weights);
+
+        assertEquals(target, optimalDiag.findDiagnosis(C, B));
+        assertEquals(List.of(target), optimalDiag.findAllDiagnoses(C, B));
+
+        assertThrows(IllegalArgumentException.class, () -> optimalDiag.setWeights(Map.of(target.iterator().next(), 0)));
+    }
+
+    @Test
+    void shouldReturnEmptyDiagnosisForConsistentConstraints() throws Exception {
+        Callable<CDRModel> factory = () -> { TestModel1 m = new TestModel1(); m.initialize(); return m; };
+        CDRModel testModel = factory.call();
+
+        OptimalDiag optimalDiag = new OptimalDiag(testModel, factory);
+        assertTrue(optimalDiag.findDiagnosis(Collections.emptySet(), testModel.getCorrectConstraints()).isEmpty());
+    }
+
+    private void check(CDRModel testModel, List<Set<Constraint>> expected, Callable<CDRModel> factory) {
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        int minSize = expected.stream().mapToInt(Set::size).min().orElse(0);
+        Set<Set<Constraint>> expectedOptimal = expected.stream()
+                .filter(diag -> diag.size() == minSize)
+                .collect(Collectors.toSet());
+
+        OptimalDiag optimalDiag = new OptimalDiag(testModel, factory);
+
+        CAEvaluator.reset();
+        Set<Constraint> diag = optimalDiag.findDiagnosis(C, B);
+        List<Set<Constraint>> allDiag = optimalDiag.findAllDiagnoses(C, B);
+
+        System.out.println("=========================================");
+        System.out.println("Optimal diagnoses found by OptimalDiag:");
+        System.out.println(allDiag);
+        printPerformance();
+
+        assertTrue(expectedOptimal.contains(diag));
+        assertEquals(expectedOptimal, new HashSet<>(allDiag));
+        assertEquals(allDiag.size(), new HashSet<>(allDiag).size());
+
+        optimalDiag.setMaxNumberOfDiagnoses(1);
+        assertEquals(1, optimalDiag.findAllDiagnoses(C, B).size());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.decomposition;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cacdr.snapshot.KnowledgeBaseSnapshot;
+import at.tugraz.ist.ase.cacdr.snapshot.SnapshotBuilder;
+import at.tugraz.ist.ase.cacdr.snapshot.SnapshotModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.COUNTER_CONSISTENCY_CHECKS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecomposedDiagnosisTest {
+
+    private ExecutorService executor;
+    private KnowledgeBaseSnapshot snapshot;
+    private SnapshotModel model;
+
+    /**
+     * Three modules over disjoint variables: the cycle x0 &lt; x1 &lt; x0, the cycle x2 &lt; x3 &lt; x4 &lt; x2,
+     * and the consistent x5 &lt; x6 with the correct constraint x6 &lt;= 4.
+     */
+    @BeforeEach
+    void setUp() {
+        SnapshotBuilder builder = new SnapshotBuilder("modular");
+        int[] x = new int[7];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = builder.intVar("x" + i, 0, 5);
+        }
+
+        int[][] edges = {{0, 1}, {1, 0}, {2, 3}, {3, 4}, {4, 2}, {5, 6}};
+        for (int[] edge : edges) {
+            builder.addConstraint("x" + edge[0] + " < x" + edge[1], false, builder.arithm(x[edge[0]], "<", x[edge[1]]));
+        }
+        builder.addConstraint("x0 >= 0", true, builder.arithmConstant(x[0], ">=", 0));
+        builder.addConstraint("x6 <= 4", true, builder.arithmConstant(x[6], "<=", 4));
+
+        snapshot = builder.build();
+        model = snapshot.instantiate();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldDecomposeIntoComponents() {
+        List<Component> components = ConstraintGraph.decompose(model.getPossiblyFaultyConstraints(), model.getCorrectConstraints());
+
+        assertEquals(3, components.size());
+        assertEquals(Set.of("x0 < x1", "x1 < x0"), names(components.get(0).getC()));
+        assertEquals(Set.of("x0 >= 0"), names(components.get(0).getB()));
+        assertEquals(Set.of("x2 < x3", "x3 < x4", "x4 < x2"), names(components.get(1).getC()));
+        assertTrue(components.get(1).getB().isEmpty());
+        assertEquals(Set.of("x5 < x6"), names(components.get(2).getC()));
+        assertEquals(Set.of("x6 <= 4"), names(components.get(2).getB()));
+    }
+
+    @Test
+    void shouldResolveViews() {
+        Model chocoModel = new Model("views");
+        IntVar x = chocoModel.intVar("x", 0, 5);
+        IntVar y = chocoModel.intVar("y", 0, 5);
+        IntVar z = chocoModel.intVar("z", 0, 5);
+
+        Constraint xy = new Constraint("x < y");
+        xy.addChocoConstraint(chocoModel.arithm(x, "<", y));
+        // only shares x with x < y, through the view x + 2
+        Constraint view = new Constraint("x + 2 = 4");
+        view.addChocoConstraint(chocoModel.arithm(chocoModel.intOffsetView(x, 2), "=", 4));
+        Constraint other = new Constraint("z > 1");
+        other.addChocoConstraint(chocoModel.arithm(z, ">", 1));
+
+        List<Component> components = ConstraintGraph.decompose(new LinkedHashSet<>(List.of(xy, view, other)), Set.of());
+
+        assertEquals(2, components.size());
+        assertEquals(Set.of(xy, view), components.get(0).getC());
+        assertEquals(Set.of(other), components.get(1).getC());
+    }
+
+    @Test
+    void shouldCombineResultsOfComponents() {
+        DecomposedDiagnosis decomposed = new DecomposedDiagnosis(model, snapshot::instantiate, executor);
+        Set<Constraint> C = model.getPossiblyFaultyConstraints();
+        Set<Constraint> B = model.getCorrectConstraints();
+
+        // the monolithic HS-dag
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(model);
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder().C(C).B(B).build();
+        HSDAG hsdag = new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+        hsdag.construct();
+
+        List<Set<Constraint>> diagnoses = decomposed.findAllDiagnoses(C, B);
+        assertEquals(6, diagnoses.size());
+        assertEquals(new HashSet<>(hsdag.getDiagnoses()), new HashSet<>(diagnoses));
+        assertEquals(new HashSet<>(hsdag.getConflicts()), new HashSet<>(decomposed.findAllConflicts(C, B)));
+
+        assertEquals(Set.of("x0 < x1", "x1 < x0"), names(decomposed.findConflictSet(C, B)));
+
+        Set<Constraint> diag = decomposed.findDiagnosis(C, B);
+        assertTrue(diagnoses.contains(diag));
+
+        decomposed.setMaxNumberOfDiagnoses(4);
+        List<Set<Constraint>> first = decomposed.findAllDiagnoses(C, B);
+        assertEquals(4, first.size());
+        assertTrue(diagnoses.containsAll(first));
+    }
+
+    @Test
+    void shouldCountChecksOfAllComponents() {
+        SessionContext context = SessionContext.create();
+        DecomposedDiagnosis decomposed = new DecomposedDiagnosis(model, snapshot::instantiate, executor, context);
+        decomposed.findAllDiagnoses(model.getPossiblyFaultyConstraints(), model.getCorrectConstraints());
+
+        // the first component alone
+        SessionContext first = SessionContext.create();
+        Component component = ConstraintGraph.decompose(model.getPossiblyFaultyConstraints(), model.getCorrectConstraints()).get(0);
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(model, first);
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder().C(component.getC()).B(component.getB()).build();
+        new HSDAG(new QuickXPlainLabeler(checker, parameter), checker).construct();
+
+        SessionEvaluator evaluator = (SessionEvaluator) context.getEvaluator();
+        assertEquals(3, evaluator.getCounter(DecomposedDiagnosis.COUNTER_COMPONENTS));
+        assertTrue(evaluator.getCounter(COUNTER_CONSISTENCY_CHECKS)
+                > ((SessionEvaluator) first.getEvaluator()).getCounter(COUNTER_CONSISTENCY_CHECKS));
+    }
+
+    @Test
+    void shouldReturnEmptyResultsForConsistentComponents() {
+        DecomposedDiagnosis decomposed = new DecomposedDiagnosis(model, snapshot::instantiate, executor);
+        Set<Constraint> C = model.getPossiblyFaultyConstraints().stream()
+                .filter(c -> c.toString().equals("x5 < x6") || c.toString().equals("x0 < x1"))
+                .collect(Collectors.toSet());
+
+        assertTrue(decomposed.findAllDiagnoses(C, model.getCorrectConstraints()).isEmpty());
+        assertTrue(decomposed.findDiagnosis(C, model.getCorrectConstraints()).isEmpty());
+        assertTrue(decomposed.findConflictSet(C, model.getCorrectConstraints()).isEmpty());
+    }
+
+    private Set<String> names(Set<Constraint> constraints) {
+        return constraints.stream().map(Constraint::toString).collect(Collectors.toSet());
+    }
+}
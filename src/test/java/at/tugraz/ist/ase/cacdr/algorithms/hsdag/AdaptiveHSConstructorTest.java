@@ -0,0 +1,132 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.FastDiagV3Labeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV3Parameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the adaptive HS constructor finds the same diagnoses as the HS-dags using a fixed labeler.
+ * The construction times are compared by {@link at.tugraz.ist.ase.cacdr.benchmark.AdaptiveHSConstructorBenchmark}.
+ */
+class AdaptiveHSConstructorTest {
+
+    @Test
+    void testModel1() throws Exception {
+        TestModel1 testModel = new TestModel1();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel2() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel3() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel4() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void shouldRelabelWithSmallerExchangedLabel() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        HSDAG hsdag = new HSDAG(createConflictLabeler(checker, testModel), checker);
+        hsdag.construct();
+
+        // an exchanged label which is a proper subset of the root label
+        Set<Constraint> rootLabel = hsdag.getRoot().getLabel();
+        Constraint removed = rootLabel.iterator().next();
+        Set<Constraint> smaller = new LinkedHashSet<>(rootLabel);
+        smaller.remove(removed);
+
+        assertEquals(List.of(smaller), hsdag.addMinimalConflicts(List.of(smaller)));
+        assertEquals(smaller, hsdag.getRoot().getLabel());
+        assertFalse(hsdag.getRoot().getChildren().containsKey(removed));
+        assertTrue(hsdag.getConflicts().contains(smaller));
+        assertFalse(hsdag.getConflicts().contains(rootLabel));
+
+        // a label with an existing subset isn't added
+        assertTrue(hsdag.addMinimalConflicts(List.of(rootLabel)).isEmpty());
+    }
+
+    private void check(CDRModel testModel, List<Set<Constraint>> expectedDiagnoses) {
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        // HS-dag with QuickXPlain
+        HSDAG qx = new HSDAG(createConflictLabeler(checker, testModel), checker);
+        qx.construct();
+
+        // HS-dag with FastDiag - the conflicts are the diagnoses
+        HSDAG fd = new HSDAG(createDiagnosisLabeler(checker, testModel), checker);
+        fd.construct();
+
+        AdaptiveHSConstructor adaptive = new AdaptiveHSConstructor(createConflictLabeler(checker, testModel),
+                createDiagnosisLabeler(checker, testModel), checker);
+        adaptive.construct();
+
+        assertEquals(new HashSet<>(expectedDiagnoses), new HashSet<>(qx.getDiagnoses()));
+        assertEquals(new HashSet<>(expectedDiagnoses), new HashSet<>(fd.getConflicts()));
+        assertEquals(new HashSet<>(expectedDiagnoses), new HashSet<>(adaptive.getDiagnoses()));
+    }
+
+    private QuickXPlainLabeler createConflictLabeler(ChocoConsistencyChecker checker, CDRModel testModel) {
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        return new QuickXPlainLabeler(checker, parameter);
+    }
+
+    private FastDiagV3Labeler createDiagnosisLabeler(ChocoConsistencyChecker checker, CDRModel testModel) {
+        FastDiagV3Parameters parameter = FastDiagV3Parameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        return new FastDiagV3Labeler(checker, parameter);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel5;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor.COUNTER_CONSTRUCTED_NODES;
+import static at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker.TIMER_SOLVER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs several diagnosis sessions concurrently. Each session has its own model, checker, and context,
+ * hence the sessions must find the same diagnoses and report the same counters as a session running alone.
+ */
+class ConcurrentSessionsTest {
+
+    private static final int SESSIONS = 4;
+
+    @Test
+    void shouldIsolateConcurrentSessions() throws Exception {
+        SessionContext alone = SessionContext.create();
+        List<Set<Constraint>> expected = diagnose(alone);
+        long expectedNodes = ((SessionEvaluator) alone.getEvaluator()).getCounter(COUNTER_CONSTRUCTED_NODES);
+
+        ExecutorService executor = Executors.newFixedThreadPool(SESSIONS);
+        try {
+            List<SessionContext> contexts = new ArrayList<>();
+            List<Future<List<Set<Constraint>>>> results = new ArrayList<>();
+            for (int i = 0; i < SESSIONS; i++) {
+                SessionContext context = SessionContext.create();
+                contexts.add(context);
+                results.add(executor.submit(() -> diagnose(context)));
+            }
+
+            for (int i = 0; i < SESSIONS; i++) {
+                SessionEvaluator evaluator = (SessionEvaluator) contexts.get(i).getEvaluator();
+
+                assertEquals(new HashSet<>(expected), new HashSet<>(results.get(i).get()));
+                assertEquals(expectedNodes, evaluator.getCounter(COUNTER_CONSTRUCTED_NODES));
+                assertTrue(evaluator.getTotalTime(TIMER_SOLVER) > 0);
+                assertEquals("", contexts.get(i).tab());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<Set<Constraint>> diagnose(SessionContext context) throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel, context);
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(quickXplain, checker);
+        hsdag.construct();
+
+        return hsdag.getDiagnoses();
+    }
+}
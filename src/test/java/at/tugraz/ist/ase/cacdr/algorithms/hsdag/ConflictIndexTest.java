@@ -0,0 +1,121 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictIndexTest {
+
+    private Constraint a, b, c, d, e;
+    private ConflictIndex index;
+
+    @BeforeEach
+    void setUp() {
+        a = new Constraint("a");
+        b = new Constraint("b");
+        c = new Constraint("c");
+        d = new Constraint("d");
+        e = new Constraint("e");
+
+        index = new ConflictIndex();
+        index.add(Set.of(a, b));
+        index.add(Set.of(c, d));
+        index.add(Set.of(a, c, e));
+    }
+
+    @Test
+    void shouldFindSubsets() {
+        assertAll(() -> assertTrue(index.hasSubset(Set.of(a, b))),
+                () -> assertTrue(index.hasSubset(Set.of(a, b, e))),
+                () -> assertTrue(index.hasSubset(Set.of(a, c, d))),
+                () -> assertFalse(index.hasSubset(Set.of(a, c))),
+                () -> assertFalse(index.hasSubset(Set.of(b, d, e))),
+                () -> assertFalse(index.hasSubset(Collections.emptySet())));
+    }
+
+    @Test
+    void shouldFindProperSupersets() {
+        assertAll(() -> assertEquals(List.of(Set.of(a, b), Set.of(a, c, e)), index.getSupersets(Set.of(a))),
+                () -> assertEquals(List.of(Set.of(a, c, e)), index.getSupersets(Set.of(a, c))),
+                () -> assertEquals(Collections.emptyList(), index.getSupersets(Set.of(a, b))),
+                () -> assertEquals(Collections.emptyList(), index.getSupersets(Set.of(b, c))),
+                () -> assertEquals(3, index.getSupersets(Collections.emptySet()).size()));
+    }
+
+    @Test
+    void shouldFindDisjointConflicts() {
+        assertAll(() -> assertEquals(List.of(Set.of(c, d)), index.getDisjointConflicts(Set.of(a), false)),
+                () -> assertEquals(List.of(Set.of(a, b), Set.of(c, d), Set.of(a, c, e)),
+                        index.getDisjointConflicts(Collections.emptySet(), false)),
+                () -> assertEquals(List.of(Set.of(a, b)), index.getDisjointConflicts(Set.of(e), true)),
+                () -> assertEquals(Collections.emptyList(), index.getDisjointConflicts(Set.of(a, c), false)));
+    }
+
+    @Test
+    void shouldClear() {
+        assertEquals(3, index.size());
+
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertFalse(index.hasSubset(Set.of(a, b, c, d, e)));
+        assertTrue(index.getDisjointConflicts(Collections.emptySet(), false).isEmpty());
+    }
+
+    @Test
+    void shouldMatchLinearScanOnManyConflicts() {
+        Random random = new Random(29);
+        List<Constraint> constraints = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            constraints.add(new Constraint("c" + i));
+        }
+
+        ConflictIndex largeIndex = new ConflictIndex();
+        List<Set<Constraint>> conflicts = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Set<Constraint> conflict = randomSet(random, constraints, 2 + random.nextInt(4));
+            conflicts.add(conflict);
+            largeIndex.add(conflict);
+        }
+        assertEquals(conflicts.size(), largeIndex.size());
+
+        for (int i = 0; i < 500; i++) {
+            Set<Constraint> set = randomSet(random, constraints, 1 + random.nextInt(40));
+
+            boolean hasSubset = conflicts.stream().anyMatch(set::containsAll);
+            List<Set<Constraint>> supersets = conflicts.stream()
+                    .filter(cs -> cs.size() > set.size() && cs.containsAll(set))
+                    .collect(Collectors.toList());
+            List<Set<Constraint>> disjoint = conflicts.stream()
+                    .filter(cs -> Collections.disjoint(cs, set))
+                    .collect(Collectors.toList());
+
+            assertEquals(hasSubset, largeIndex.hasSubset(set), set.toString());
+            assertEquals(supersets, largeIndex.getSupersets(set), set.toString());
+            assertEquals(disjoint, largeIndex.getDisjointConflicts(set, false), set.toString());
+            assertEquals(disjoint.isEmpty() ? Collections.emptyList() : List.of(disjoint.get(0)),
+                    largeIndex.getDisjointConflicts(set, true), set.toString());
+        }
+    }
+
+    private Set<Constraint> randomSet(Random random, List<Constraint> constraints, int size) {
+        Set<Constraint> set = new LinkedHashSet<>();
+        while (set.size() < size) {
+            set.add(constraints.get(random.nextInt(constraints.size())));
+        }
+        return set;
+    }
+}
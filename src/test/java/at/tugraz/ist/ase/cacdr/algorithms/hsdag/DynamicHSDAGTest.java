@@ -0,0 +1,161 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.COUNTER_CONSISTENCY_CHECKS;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static at.tugraz.ist.ase.common.ConstraintUtils.convertToStringWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DynamicHSDAGTest {
+    @Test
+    void shouldRepairAfterRemovingConstraint_testQX4() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        // the user removes the first requirement
+        Set<Constraint> C = new LinkedHashSet<>(testModel.getPossiblyFaultyConstraints());
+        C.remove(C.iterator().next());
+
+        check(testModel, C, testModel.getCorrectConstraints());
+    }
+
+    @Test
+    void shouldRepairAfterRemovingConstraint_testQX5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        // the user removes the last requirement
+        List<Constraint> constraints = new ArrayList<>(testModel.getPossiblyFaultyConstraints());
+        Set<Constraint> C = new LinkedHashSet<>(constraints.subList(0, constraints.size() - 1));
+
+        check(testModel, C, testModel.getCorrectConstraints());
+    }
+
+    @Test
+    void shouldRepairAfterMovingConstraintToBackground_testQX5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel, SessionContext.create());
+        Set<Constraint> allC = testModel.getPossiblyFaultyConstraints();
+        Constraint moved = allC.iterator().next();
+
+        // the user fixes the first requirement, i.e., it becomes a part of B
+        Set<Constraint> C = new LinkedHashSet<>(allC);
+        C.remove(moved);
+        Set<Constraint> B = new LinkedHashSet<>(testModel.getCorrectConstraints());
+        B.add(moved);
+
+        DynamicHSDAG hsdag = new DynamicHSDAG(createLabeler(checker, allC, testModel.getCorrectConstraints()), checker);
+        hsdag.construct();
+        hsdag.update(createLabeler(checker, C, B));
+
+        // the re-minimized conflicts are minimal conflicts of C with B
+        QuickXPlain quickXPlain = new QuickXPlain(checker);
+        for (Set<Constraint> cs : hsdag.getConflicts()) {
+            assertTrue(C.containsAll(cs));
+            assertEquals(cs, quickXPlain.findConflictSet(cs, B));
+        }
+
+        hsdag.construct();
+
+        ChocoConsistencyChecker scratchChecker = new ChocoConsistencyChecker(testModel, SessionContext.create());
+        HSDAG expected = new HSDAG(createLabeler(scratchChecker, C, B), scratchChecker);
+        expected.construct();
+
+        assertEquals(new HashSet<>(expected.getDiagnoses()), new HashSet<>(hsdag.getDiagnoses()));
+    }
+
+    @Test
+    void shouldRepairAfterRemovingAndAddingConstraint_testQX5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+        Set<Constraint> allC = testModel.getPossiblyFaultyConstraints();
+        Constraint changed = allC.iterator().next();
+
+        Set<Constraint> C = new LinkedHashSet<>(allC);
+        C.remove(changed);
+
+        // the user removes a requirement and adds it again
+        DynamicHSDAG hsdag = new DynamicHSDAG(createLabeler(checker, allC, testModel.getCorrectConstraints()), checker);
+        hsdag.construct();
+        hsdag.update(createLabeler(checker, C, testModel.getCorrectConstraints()));
+        hsdag.construct();
+        hsdag.update(createLabeler(checker, allC, testModel.getCorrectConstraints()));
+
+        CAEvaluator.reset();
+        hsdag.construct();
+        printPerformance();
+
+        assertEquals(new HashSet<>(testModel.getExpectedAllDiagnoses()), new HashSet<>(hsdag.getDiagnoses()));
+    }
+
+    private void check(CDRModel testModel, Set<Constraint> newC, Set<Constraint> newB) {
+        SessionContext context = SessionContext.create();
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel, context);
+
+        // the first session
+        DynamicHSDAG hsdag = new DynamicHSDAG(createLabeler(checker, testModel.getPossiblyFaultyConstraints(),
+                testModel.getCorrectConstraints()), checker);
+        hsdag.construct();
+
+        // the second session
+        hsdag.update(createLabeler(checker, newC, newB));
+
+        SessionEvaluator evaluator = (SessionEvaluator) context.getEvaluator();
+        evaluator.reset();
+        hsdag.construct();
+        long incrementalChecks = evaluator.getCounter(COUNTER_CONSISTENCY_CHECKS);
+
+        System.out.println("=========================================");
+        System.out.println("Diagnoses found by DynamicHSDAG after the update:");
+        System.out.println(convertToStringWithMessage(hsdag.getDiagnoses(), "Diagnosis"));
+
+        // HS-dag from scratch
+        SessionContext scratchContext = SessionContext.create();
+        ChocoConsistencyChecker scratchChecker = new ChocoConsistencyChecker(testModel, scratchContext);
+        HSDAG expected = new HSDAG(createLabeler(scratchChecker, newC, newB), scratchChecker);
+        expected.construct();
+        long scratchChecks = ((SessionEvaluator) scratchContext.getEvaluator()).getCounter(COUNTER_CONSISTENCY_CHECKS);
+
+        System.out.println("Diagnoses found by HSDAG from scratch:");
+        System.out.println(convertToStringWithMessage(expected.getDiagnoses(), "Diagnosis"));
+        System.out.println("Consistency checks [incremental=" + incrementalChecks + ", from scratch=" + scratchChecks + "]");
+
+        assertEquals(new HashSet<>(expected.getDiagnoses()), new HashSet<>(hsdag.getDiagnoses()));
+        // the retained conflicts and diagnoses save consistency checks
+        assertTrue(incrementalChecks < scratchChecks,
+                "incremental: " + incrementalChecks + ", from scratch: " + scratchChecks);
+    }
+
+    private QuickXPlainLabeler createLabeler(ChocoConsistencyChecker checker, Set<Constraint> C, Set<Constraint> B) {
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        return new QuickXPlainLabeler(checker, parameter);
+    }
+}
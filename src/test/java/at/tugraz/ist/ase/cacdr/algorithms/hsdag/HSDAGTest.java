@@ -18,19 +18,30 @@ import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV2Parameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV3Parameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FlexDiagParameters;
 import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.IterativeDeepeningStrategy;
 import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
 import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.model.SyntheticModel;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
 import at.tugraz.ist.ase.cdrmodel.test.model.*;
 import at.tugraz.ist.ase.knowledgebases.core.Constraint;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import static at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor.*;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.COUNTER_CONSISTENCY_CHECKS;
 import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
 import static at.tugraz.ist.ase.common.ConstraintUtils.convertToString;
 import static at.tugraz.ist.ase.common.ConstraintUtils.convertToStringWithMessage;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HSDAGTest {
     @Test
@@ -989,4 +1000,221 @@ class HSDAGTest {
 
         assertEquals(testModel.getExpectedAllDiagnoses(), allDiagnoses);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindAllDiagnosesWithFewParameters_testQX5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        // run the hsdag to find diagnoses
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(quickXplain, checker);
+        hsdag.setMaxNodesWithParameters(1); // evict nodes whenever more than one processed node holds its parameters
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        List<Set<Constraint>> allDiagnoses = hsdag.getDiagnoses();
+        List<Set<Constraint>> allConflictSets = hsdag.getConflicts();
+
+        System.out.println("=========================================");
+        System.out.println("Diagnoses found by HSDAG + QuickXplain with evicted parameters:");
+        System.out.println(convertToStringWithMessage(allDiagnoses, "Diagnosis"));
+        printPerformance();
+
+        assertEquals(testModel.getExpectedAllConflicts(), allConflictSets);
+        assertEquals(testModel.getExpectedAllDiagnoses(), allDiagnoses);
+    }
+
+    @Test
+    void shouldBoundRetainedParametersWithRealisticBudget() {
+        SyntheticModel model = SyntheticModel.builder()
+                .seed(26)
+                .numVariables(60)
+                .numConstraints(120)
+                .numConflicts(4)
+                .minConflictSize(2)
+                .maxConflictSize(4)
+                .overlap(0.3)
+                .correctRatio(0.5)
+                .build();
+        model.initialize();
+
+        final int budget = 20;
+        SessionContext context = SessionContext.create();
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(model, context);
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(model.getPossiblyFaultyConstraints())
+                .B(model.getCorrectConstraints()).build();
+        HSDAG hsdag = new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+        hsdag.setMaxNodesWithParameters(budget);
+        hsdag.construct();
+
+        // the same construction without a limit
+        SessionContext unboundedContext = SessionContext.create();
+        ChocoConsistencyChecker unboundedChecker = new ChocoConsistencyChecker(model, unboundedContext);
+        HSDAG unbounded = new HSDAG(new QuickXPlainLabeler(unboundedChecker, parameter), unboundedChecker);
+        unbounded.construct();
+
+        SessionEvaluator evaluator = (SessionEvaluator) context.getEvaluator();
+        SessionEvaluator unboundedEvaluator = (SessionEvaluator) unboundedContext.getEvaluator();
+        long evictions = evaluator.getCounter(COUNTER_EVICTIONS);
+        long tracked = evaluator.getCounter(COUNTER_CONSTRUCTED_NODES) + evaluator.getCounter(COUNTER_RECOMPUTED_PARAMETERS);
+
+        assertEquals(new HashSet<>(model.getExpectedAllConflicts()), new HashSet<>(hsdag.getConflicts()));
+        assertEquals(new HashSet<>(model.getExpectedAllDiagnoses()), new HashSet<>(hsdag.getDiagnoses()));
+        assertTrue(evictions > 0);
+        // an eviction needs more than budget nodes holding parameters, so it doesn't run after each node
+        assertTrue(evictions * budget <= tracked, evictions + " evictions for " + tracked + " tracked nodes");
+        // the evicted nodes are still reused, hence no node and no check is added
+        assertEquals(unboundedEvaluator.getCounter(COUNTER_CONSTRUCTED_NODES), evaluator.getCounter(COUNTER_CONSTRUCTED_NODES));
+        assertEquals(unboundedEvaluator.getCounter(COUNTER_CONSISTENCY_CHECKS), evaluator.getCounter(COUNTER_CONSISTENCY_CHECKS));
+    }
+
+    @Test
+    void shouldResumeFromCheckpoint_testQX5(@TempDir Path tempDir) throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+        Path checkpoint = tempDir.resolve("hsdag.ckp");
+
+        // run the hsdag until the first diagnosis is found
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        HSDAG hsdag = new HSDAG(quickXplain, checker);
+        hsdag.setMaxNumberOfDiagnoses(1);
+        hsdag.setCheckpointFile(checkpoint);
+        hsdag.setCheckpointInterval(1);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        assertEquals(1, hsdag.getDiagnoses().size());
+
+        // resume the construction with a new hsdag
+        HSDAG resumedHsdag = new HSDAG(quickXplain, checker);
+        resumedHsdag.restoreCheckpoint(checkpoint);
+        resumedHsdag.construct();
+
+        List<Set<Constraint>> allDiagnoses = resumedHsdag.getDiagnoses();
+        List<Set<Constraint>> allConflictSets = resumedHsdag.getConflicts();
+
+        System.out.println("=========================================");
+        System.out.println("Diagnoses found by the resumed HSDAG + QuickXplain:");
+        System.out.println(convertToStringWithMessage(allDiagnoses, "Diagnosis"));
+        printPerformance();
+
+        assertEquals(testModel.getExpectedAllConflicts(), allConflictSets);
+        assertEquals(testModel.getExpectedAllDiagnoses(), allDiagnoses);
+    }
+
+    @Test
+    void shouldResumeFromCheckpointWithNonMinimalLabeler_testFlexD5(@TempDir Path tempDir) throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> AC = testModel.getAllConstraints();
+        Path checkpoint = tempDir.resolve("hsdag.ckp");
+
+        // FlexDiag with m > 1 returns diagnoses which are not necessarily minimal,
+        // hence the hsdag relabels and cleans up nodes
+        FlexDiagParameters params = FlexDiagParameters.builder()
+                .S(C)
+                .AC(AC)
+                .m(2)
+                .build();
+        FlexDiagLabeler flexDiag = new FlexDiagLabeler(checker, params);
+
+        // the uninterrupted construction
+        HSDAG expectedHsdag = new HSDAG(flexDiag, checker);
+        expectedHsdag.construct();
+
+        // run the hsdag until the first hitting set is found
+        HSDAG hsdag = new HSDAG(flexDiag, checker);
+        hsdag.setMaxNumberOfDiagnoses(1);
+        hsdag.setCheckpointFile(checkpoint);
+        hsdag.setCheckpointInterval(1);
+        hsdag.construct();
+
+        assertEquals(1, hsdag.getDiagnoses().size());
+        assertThrows(IllegalArgumentException.class, () -> hsdag.setCheckpointInterval(0));
+
+        // resume the construction with a new hsdag
+        HSDAG resumedHsdag = new HSDAG(flexDiag, checker);
+        resumedHsdag.restoreCheckpoint(checkpoint);
+        resumedHsdag.construct();
+
+        System.out.println("=========================================");
+        System.out.println("Diagnoses found by the resumed HSDAG + FlexDiag:");
+        System.out.println(convertToStringWithMessage(resumedHsdag.getConflicts(), "Diagnosis"));
+        printPerformance();
+
+        assertEquals(new HashSet<>(expectedHsdag.getConflicts()), new HashSet<>(resumedHsdag.getConflicts()));
+        assertEquals(new HashSet<>(expectedHsdag.getDiagnoses()), new HashSet<>(resumedHsdag.getDiagnoses()));
+    }
+
+    @Test
+    void shouldResumeFromCheckpointWithIterativeDeepening_testQX5(@TempDir Path tempDir) throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+        Path checkpoint = tempDir.resolve("hsdag.ckp");
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        // run the hsdag until the first diagnosis is found
+        HSDAG hsdag = new HSDAG(quickXplain, checker);
+        IterativeDeepeningStrategy strategy = new IterativeDeepeningStrategy();
+        hsdag.setNodeSelectionStrategy(strategy);
+        hsdag.setMaxNumberOfDiagnoses(1);
+        hsdag.setCheckpointFile(checkpoint);
+        hsdag.setCheckpointInterval(1);
+        hsdag.construct();
+
+        assertEquals(1, hsdag.getDiagnoses().size());
+
+        // a different node selection strategy cannot resume the construction
+        HSDAG breadthFirstHsdag = new HSDAG(quickXplain, checker);
+        assertThrows(IllegalStateException.class, () -> breadthFirstHsdag.restoreCheckpoint(checkpoint));
+
+        // resume the construction with a new hsdag, which continues with the stored depth limit
+        HSDAG resumedHsdag = new HSDAG(quickXplain, checker);
+        IterativeDeepeningStrategy resumedStrategy = new IterativeDeepeningStrategy();
+        resumedHsdag.setNodeSelectionStrategy(resumedStrategy);
+        resumedHsdag.restoreCheckpoint(checkpoint);
+
+        assertEquals(strategy.getDepthLimit(), resumedStrategy.getDepthLimit());
+
+        resumedHsdag.construct();
+
+        assertEquals(new HashSet<>(testModel.getExpectedAllConflicts()), new HashSet<>(resumedHsdag.getConflicts()));
+        assertEquals(new HashSet<>(testModel.getExpectedAllDiagnoses()), new HashSet<>(resumedHsdag.getDiagnoses()));
+    }
+}
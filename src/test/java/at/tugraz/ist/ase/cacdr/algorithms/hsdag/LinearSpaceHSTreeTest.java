@@ -0,0 +1,110 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.FastDiagV2Labeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.FastDiagV3Labeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV2Parameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.FastDiagV3Parameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static at.tugraz.ist.ase.common.ConstraintUtils.convertToStringWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LinearSpaceHSTreeTest {
+    @Test
+    void testFastDiagV3_1() throws Exception {
+        TestModel1 testModel = new TestModel1();
+        testModel.initialize();
+
+        checkFastDiagV3(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testFastDiagV3_2() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        checkFastDiagV3(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testFastDiagV3_3() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        checkFastDiagV3(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testFastDiagV3_4() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        checkFastDiagV3(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testFastDiagV3_5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        checkFastDiagV3(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testFastDiagV2_5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        FastDiagV2Parameters params = FastDiagV2Parameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .AC(testModel.getAllConstraints()).build();
+        FastDiagV2Labeler fastDiag = new FastDiagV2Labeler(checker, params);
+
+        check(new LinearSpaceHSTree(fastDiag, checker), testModel.getExpectedAllDiagnoses());
+    }
+
+    private void checkFastDiagV3(CDRModel testModel, List<Set<Constraint>> expectedDiagnoses) {
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        FastDiagV3Parameters params = FastDiagV3Parameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        FastDiagV3Labeler fastDiag = new FastDiagV3Labeler(checker, params);
+
+        check(new LinearSpaceHSTree(fastDiag, checker), expectedDiagnoses);
+    }
+
+    private void check(LinearSpaceHSTree hsTree, List<Set<Constraint>> expectedDiagnoses) {
+        CAEvaluator.reset();
+        hsTree.construct();
+
+        System.out.println("=========================================");
+        System.out.println("Diagnoses found by LinearSpaceHSTree:");
+        System.out.println(convertToStringWithMessage(hsTree.getDiagnoses(), "Diagnosis"));
+        printPerformance();
+
+        // the depth-first construction returns the diagnoses in a different order
+        assertEquals(new HashSet<>(expectedDiagnoses), new HashSet<>(hsTree.getDiagnoses()));
+        assertEquals(expectedDiagnoses.size(), hsTree.getDiagnoses().size());
+    }
+}
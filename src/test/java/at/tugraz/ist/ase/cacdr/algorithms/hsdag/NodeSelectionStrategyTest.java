@@ -0,0 +1,139 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.*;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that all node selection strategies find the same diagnoses.
+ * The time to the first k diagnoses is measured by
+ * {@link at.tugraz.ist.ase.cacdr.benchmark.NodeSelectionBenchmark}.
+ */
+class NodeSelectionStrategyTest {
+
+    private static final int K = 2;
+
+    @Test
+    void testModel1() throws Exception {
+        TestModel1 testModel = new TestModel1();
+        testModel.initialize();
+
+        compareStrategies(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel2() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        compareStrategies(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel3() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        compareStrategies(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel4() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        compareStrategies(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testModel5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        compareStrategies(testModel, testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void shouldFindAllDiagnosesWithSmallestConflictStrategy() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        HSDAG hsdag = createHSDAG(testModel);
+        hsdag.setConflictSelectionStrategy(new SmallestConflictStrategy());
+        hsdag.construct();
+
+        assertEquals(new HashSet<>(testModel.getExpectedAllDiagnoses()), new HashSet<>(hsdag.getDiagnoses()));
+    }
+
+    private void compareStrategies(CDRModel testModel, List<Set<Constraint>> expectedDiagnoses) {
+        Map<String, Supplier<INodeSelectionStrategy>> strategies = new LinkedHashMap<>();
+        strategies.put("breadth-first", BreadthFirstStrategy::new);
+        strategies.put("depth-first", DepthFirstStrategy::new);
+        strategies.put("uniform-cost", UniformCostStrategy::new);
+        strategies.put("best-first", () -> new BestFirstStrategy(faultProbabilities(testModel)));
+        strategies.put("iterative deepening", IterativeDeepeningStrategy::new);
+
+        for (Map.Entry<String, Supplier<INodeSelectionStrategy>> entry : strategies.entrySet()) {
+            // the first k diagnoses
+            HSDAG hsdag = createHSDAG(testModel);
+            hsdag.setNodeSelectionStrategy(entry.getValue().get());
+            hsdag.setMaxNumberOfDiagnoses(K);
+            hsdag.construct();
+
+            assertEquals(Math.min(K, expectedDiagnoses.size()), hsdag.getDiagnoses().size(), entry.getKey());
+            // a strategy which doesn't find minimal diagnoses first could stop at a superset
+            for (Set<Constraint> diag : hsdag.getDiagnoses()) {
+                assertTrue(expectedDiagnoses.stream().anyMatch(diag::containsAll), entry.getKey());
+            }
+
+            // all diagnoses
+            hsdag = createHSDAG(testModel);
+            hsdag.setNodeSelectionStrategy(entry.getValue().get());
+            hsdag.construct();
+
+            assertEquals(new HashSet<>(expectedDiagnoses), new HashSet<>(hsdag.getDiagnoses()), entry.getKey());
+        }
+    }
+
+    private HSDAG createHSDAG(CDRModel testModel) {
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        return new HSDAG(quickXplain, checker);
+    }
+
+    /**
+     * Assigns higher fault probabilities to the later constraints.
+     */
+    private Map<Constraint, Double> faultProbabilities(CDRModel testModel) {
+        Map<Constraint, Double> probabilities = new HashMap<>();
+        List<Constraint> C = new ArrayList<>(testModel.getPossiblyFaultyConstraints());
+        for (int i = 0; i < C.size(); i++) {
+            probabilities.put(C.get(i), 0.4 * (i + 1) / (C.size() + 1));
+        }
+        return probabilities;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.BestFirstStrategy;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel4;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel5;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static at.tugraz.ist.ase.common.ConstraintUtils.convertToStringWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKDiagnosesTest {
+
+    private static final int K = 2;
+
+    @Test
+    void shouldFindMostProbableDiagnoses_testQX4() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        check(testModel, faultProbabilities(testModel, 0.4));
+    }
+
+    @Test
+    void shouldFindMostProbableDiagnoses_testQX5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        check(testModel, faultProbabilities(testModel, 0.4));
+    }
+
+    @Test
+    void shouldFindMostProbableDiagnosesWithHighProbabilities_testQX5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        // some fault probabilities are greater than 0.5
+        check(testModel, faultProbabilities(testModel, 0.9));
+    }
+
+    private void check(CDRModel testModel, Map<Constraint, Double> probabilities) {
+        // all diagnoses ranked by their probabilities
+        HSDAG all = createHSDAG(testModel);
+        all.construct();
+
+        BestFirstStrategy ranking = new BestFirstStrategy(probabilities, 0.01, testModel.getPossiblyFaultyConstraints());
+        List<Set<Constraint>> expected = new ArrayList<>(all.getDiagnoses());
+        expected.sort(Comparator.comparingDouble((Set<Constraint> diag) -> -ranking.probability(diag)));
+
+        // the k most probable diagnoses
+        HSDAG hsdag = createHSDAG(testModel);
+        hsdag.setFaultProbabilities(probabilities, 0.01);
+        hsdag.setMaxNumberOfDiagnoses(K);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        System.out.println("=========================================");
+        System.out.println("The " + K + " most probable diagnoses:");
+        System.out.println(convertToStringWithMessage(hsdag.getTopDiagnoses(), "Diagnosis"));
+        for (Set<Constraint> diag : hsdag.getTopDiagnoses()) {
+            System.out.println(diag + ": " + ranking.probability(diag));
+        }
+        printPerformance();
+
+        assertEquals(expected.subList(0, Math.min(K, expected.size())), hsdag.getTopDiagnoses());
+        // the construction keeps all identified diagnoses
+        assertEquals(hsdag.getTopDiagnoses(), hsdag.getDiagnoses().subList(0, hsdag.getTopDiagnoses().size()));
+        assertTrue(expected.containsAll(hsdag.getDiagnoses()));
+    }
+
+    private HSDAG createHSDAG(CDRModel testModel) {
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        return new HSDAG(quickXplain, checker);
+    }
+
+    /**
+     * Assigns distinct fault probabilities up to the given maximum, the later constraints get higher ones.
+     */
+    private Map<Constraint, Double> faultProbabilities(CDRModel testModel, double max) {
+        Map<Constraint, Double> probabilities = new HashMap<>();
+        List<Constraint> C = new ArrayList<>(testModel.getPossiblyFaultyConstraints());
+        for (int i = 0; i < C.size(); i++) {
+            probabilities.put(C.get(i), max * (i + 1) / (C.size() + 1));
+        }
+        return probabilities;
+    }
+}
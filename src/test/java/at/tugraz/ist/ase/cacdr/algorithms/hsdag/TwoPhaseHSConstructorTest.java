@@ -0,0 +1,115 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.algorithms.hsdag;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static at.tugraz.ist.ase.common.ConstraintUtils.convertToStringWithMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TwoPhaseHSConstructorTest {
+    @Test
+    void testQX1() throws Exception {
+        TestModel1 testModel = new TestModel1();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testQX2() throws Exception {
+        TestModel2 testModel = new TestModel2();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testQX3() throws Exception {
+        TestModel3 testModel = new TestModel3();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testQX4() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void testQX5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        check(testModel, testModel.getExpectedAllConflicts(), testModel.getExpectedAllDiagnoses());
+    }
+
+    @Test
+    void shouldSkipConflictCollectionWithCompleteConflicts_testQX5() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        TwoPhaseHSConstructor constructor = createConstructor(testModel);
+        constructor.setConflicts(new LinkedList<>(testModel.getExpectedAllConflicts()));
+        constructor.setConflictsComplete(true);
+
+        CAEvaluator.reset();
+        constructor.construct();
+        printPerformance();
+
+        assertEquals(new HashSet<>(testModel.getExpectedAllDiagnoses()), new HashSet<>(constructor.getDiagnoses()));
+    }
+
+    private void check(CDRModel testModel, List<Set<Constraint>> expectedConflicts,
+                       List<Set<Constraint>> expectedDiagnoses) {
+        TwoPhaseHSConstructor constructor = createConstructor(testModel);
+
+        CAEvaluator.reset();
+        constructor.construct();
+
+        System.out.println("=========================================");
+        System.out.println("Diagnoses found by TwoPhaseHSConstructor + QuickXplain:");
+        System.out.println(convertToStringWithMessage(constructor.getDiagnoses(), "Diagnosis"));
+        System.out.println("Conflict sets found by TwoPhaseHSConstructor + QuickXplain:");
+        System.out.println(convertToStringWithMessage(constructor.getConflicts(), "Conflict set"));
+        printPerformance();
+
+        // the orders differ from the HS-dag's orders
+        assertEquals(new HashSet<>(expectedConflicts), new HashSet<>(constructor.getConflicts()));
+        assertEquals(new HashSet<>(expectedDiagnoses), new HashSet<>(constructor.getDiagnoses()));
+    }
+
+    private TwoPhaseHSConstructor createConstructor(CDRModel testModel) {
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, parameter);
+
+        return new TwoPhaseHSConstructor(quickXplain, checker);
+    }
+}
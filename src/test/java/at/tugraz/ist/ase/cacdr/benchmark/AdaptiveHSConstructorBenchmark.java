@@ -0,0 +1,44 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.AdaptiveHSConstructor;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.LabelerFactory;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares the identification of all diagnoses with the adaptive HS constructor
+ * and with the HS-dags using a fixed labeler.
+ */
+public class AdaptiveHSConstructorBenchmark extends ModelBenchmark {
+
+    @Param({"QuickXPlain", "FastDiagV3", "Adaptive"})
+    public String labeling;
+
+    @Benchmark
+    public List<Set<Constraint>> construct() {
+        AbstractHSConstructor hs = switch (labeling) {
+            case "QuickXPlain", "FastDiagV3" -> new HSDAG(LabelerFactory.create(labeling, checker, C, B, AC), checker);
+            case "Adaptive" -> new AdaptiveHSConstructor(LabelerFactory.create("QuickXPlain", checker, C, B, AC),
+                    LabelerFactory.create("FastDiagV3", checker, C, B, AC), checker);
+            default -> throw new IllegalArgumentException("Unknown labeling " + labeling);
+        };
+        hs.construct();
+        // with the diagnosis labeler, the conflicts of the HS-dag are the diagnoses
+        return labeling.equals("FastDiagV3") ? hs.getConflicts() : hs.getDiagnoses();
+    }
+}
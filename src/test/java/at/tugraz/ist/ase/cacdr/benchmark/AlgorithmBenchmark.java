@@ -0,0 +1,52 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV2;
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Set;
+
+/**
+ * Benchmarks the identification of one conflict or one diagnosis.
+ */
+public class AlgorithmBenchmark extends ModelBenchmark {
+
+    private QuickXPlain quickXPlain;
+    private FastDiagV2 fastDiagV2;
+    private FastDiagV3 fastDiagV3;
+
+    @Setup(Level.Trial)
+    public void setUpAlgorithms() {
+        quickXPlain = new QuickXPlain(checker);
+        fastDiagV2 = new FastDiagV2(checker);
+        fastDiagV3 = new FastDiagV3(checker);
+    }
+
+    @Benchmark
+    public Set<Constraint> quickXPlain() {
+        return quickXPlain.findConflictSet(C, B);
+    }
+
+    @Benchmark
+    public Set<Constraint> fastDiagV2() {
+        return fastDiagV2.findDiagnosis(C, AC);
+    }
+
+    @Benchmark
+    public Set<Constraint> fastDiagV3() {
+        return fastDiagV3.findDiagnosis(C, B);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+
+import at.tugraz.ist.ase.cacdr.model.SyntheticModel;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.test.model.*;
+import lombok.experimental.UtilityClass;
+
+/**
+ * The knowledge bases of the benchmarks, ordered by their sizes.
+ */
+@UtilityClass
+public class BenchmarkModels {
+
+    public CDRModel create(String name) throws Exception {
+        switch (name) {
+            case "TestModel1": {
+                TestModel1 model = new TestModel1();
+                model.initialize();
+                return model;
+            }
+            case "TestModel2": {
+                TestModel2 model = new TestModel2();
+                model.initialize();
+                return model;
+            }
+            case "TestModel3": {
+                TestModel3 model = new TestModel3();
+                model.initialize();
+                return model;
+            }
+            case "TestModel4": {
+                TestModel4 model = new TestModel4();
+                model.initialize();
+                return model;
+            }
+            case "TestModel5": {
+                TestModel5 model = new TestModel5();
+                model.initialize();
+                return model;
+            }
+            case "Synthetic100":
+                return synthetic(100);
+            case "Synthetic1000":
+                return synthetic(1000);
+            case "Synthetic10000":
+                return synthetic(10000);
+            case "SyntheticOverlapping100":
+                return overlapping(100);
+            case "SyntheticOverlapping1000":
+                return overlapping(1000);
+            default:
+                throw new IllegalArgumentException("Unknown benchmark model " + name);
+        }
+    }
+
+    /**
+     * A synthetic knowledge base with the given number of constraints and a fixed seed.
+     */
+    private CDRModel synthetic(int numConstraints) {
+        SyntheticModel model = SyntheticModel.builder()
+                .seed(numConstraints)
+                .numVariables(numConstraints / 2)
+                .numConstraints(numConstraints)
+                .numConflicts(5)
+                .minConflictSize(2)
+                .maxConflictSize(5)
+                .overlap(0.3)
+                .correctRatio(0.5)
+                .build();
+        model.initialize();
+        return model;
+    }
+
+    /**
+     * A synthetic knowledge base whose conflicts mostly share constraints with each other.
+     */
+    private CDRModel overlapping(int numConstraints) {
+        SyntheticModel model = SyntheticModel.builder()
+                .seed(numConstraints)
+                .numVariables(numConstraints / 2)
+                .numConstraints(numConstraints)
+                .numConflicts(10)
+                .minConflictSize(2)
+                .maxConflictSize(4)
+                .overlap(0.8)
+                .correctRatio(0.5)
+                .build();
+        model.initialize();
+        return model;
+    }
+}
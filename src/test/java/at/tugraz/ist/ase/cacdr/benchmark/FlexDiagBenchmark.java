@@ -0,0 +1,40 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+
+import at.tugraz.ist.ase.cacdr.algorithms.FlexDiag;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Set;
+
+/**
+ * Benchmarks FlexDiag with different values of m.
+ */
+public class FlexDiagBenchmark extends ModelBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int m;
+
+    private FlexDiag flexDiag;
+
+    @Setup(Level.Trial)
+    public void setUpAlgorithm() {
+        flexDiag = new FlexDiag(checker);
+    }
+
+    @Benchmark
+    public Set<Constraint> flexDiag() {
+        return flexDiag.findDiagnosis(C, AC, m);
+    }
+}
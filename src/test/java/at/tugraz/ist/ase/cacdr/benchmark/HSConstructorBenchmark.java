@@ -0,0 +1,50 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSTree;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.LabelerFactory;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Benchmarks the identification of all conflicts or diagnoses with the HS-tree and the HS-dag
+ * using each labeler. With the diagnosis labelers, the labels of the nodes are diagnoses.
+ */
+public class HSConstructorBenchmark extends ModelBenchmark {
+
+    @Param({"HSTree", "HSDAG"})
+    public String constructor;
+
+    @Param({"QuickXPlain", "FastDiagV2", "FastDiagV3", "FlexDiag"})
+    public String labeler;
+
+    @Benchmark
+    public List<Set<Constraint>> construct() {
+        AbstractHSConstructor hs = createConstructor(LabelerFactory.create(labeler, checker, C, B, AC));
+        hs.construct();
+        return hs.getConflicts();
+    }
+
+    private AbstractHSConstructor createConstructor(IHSLabelable labelable) {
+        return switch (constructor) {
+            case "HSTree" -> new HSTree(labelable, checker);
+            case "HSDAG" -> new HSDAG(labelable, checker);
+            default -> throw new IllegalArgumentException("Unknown HS constructor " + constructor);
+        };
+    }
+}
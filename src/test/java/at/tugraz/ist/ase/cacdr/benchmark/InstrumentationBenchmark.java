@@ -0,0 +1,67 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.FlexDiag;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Set;
+
+/**
+ * Measures the overhead of the instrumentation, i.e., the counters, timers, and trace indentation
+ * of the global context, of a session context, and of a context with disabled instrumentation.
+ */
+public class InstrumentationBenchmark extends ModelBenchmark {
+
+    @Param({"global", "session", "disabled"})
+    public String instrumentation;
+
+    private QuickXPlain quickXPlain;
+    private FastDiagV3 fastDiag;
+    private FlexDiag flexDiag;
+
+    @Override
+    protected SessionContext createContext() {
+        return switch (instrumentation) {
+            case "global" -> SessionContext.global();
+            case "session" -> SessionContext.create();
+            case "disabled" -> SessionContext.disabled();
+            default -> throw new IllegalArgumentException("Unknown instrumentation " + instrumentation);
+        };
+    }
+
+    @Setup(Level.Trial)
+    public void setUpAlgorithms() {
+        quickXPlain = new QuickXPlain(checker);
+        fastDiag = new FastDiagV3(checker);
+        flexDiag = new FlexDiag(checker);
+    }
+
+    @Benchmark
+    public Set<Constraint> quickXPlain() {
+        return quickXPlain.findConflictSet(C, B);
+    }
+
+    @Benchmark
+    public Set<Constraint> fastDiagV3() {
+        return fastDiag.findDiagnosis(C, B);
+    }
+
+    @Benchmark
+    public Set<Constraint> flexDiag() {
+        return flexDiag.findDiagnosis(C, AC, 1);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The common state of the benchmarks: a knowledge base and a warm checker.
+ *
+ * Each benchmark runs in its own session, so that the counters of an iteration
+ * don't pile up in the static evaluator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class ModelBenchmark {
+
+    @Param({"TestModel1", "TestModel2", "TestModel3", "TestModel4", "TestModel5",
+            "Synthetic100", "Synthetic1000", "Synthetic10000"})
+    public String model;
+
+    protected CDRModel cdrModel;
+    protected SessionContext context;
+    protected ChocoConsistencyChecker checker;
+
+    protected Set<Constraint> C;
+    protected Set<Constraint> B;
+    protected Set<Constraint> AC;
+
+    @Setup(Level.Trial)
+    public void setUpModel() throws Exception {
+        cdrModel = BenchmarkModels.create(model);
+        context = createContext();
+        checker = new ChocoConsistencyChecker(cdrModel, context);
+
+        C = cdrModel.getPossiblyFaultyConstraints();
+        B = cdrModel.getCorrectConstraints();
+        AC = cdrModel.getAllConstraints();
+    }
+
+    protected SessionContext createContext() {
+        return SessionContext.create();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetEvaluator() {
+        context.getEvaluator().reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownModel() {
+        checker.dispose();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.strategy.*;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.*;
+
+/**
+ * Benchmarks the time to the first k diagnoses of the HS-dag with each node selection strategy.
+ */
+public class NodeSelectionBenchmark extends ModelBenchmark {
+
+    @Param({"breadth-first", "depth-first", "uniform-cost", "best-first", "iterative deepening"})
+    public String strategy;
+
+    @Param({"2", "10"})
+    public int k;
+
+    @Benchmark
+    public List<Set<Constraint>> firstDiagnoses() {
+        QuickXPlainLabeler quickXplain = new QuickXPlainLabeler(checker, QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build());
+
+        HSDAG hsdag = new HSDAG(quickXplain, checker);
+        hsdag.setNodeSelectionStrategy(createStrategy());
+        hsdag.setMaxNumberOfDiagnoses(k);
+        hsdag.construct();
+        return hsdag.getDiagnoses();
+    }
+
+    private INodeSelectionStrategy createStrategy() {
+        return switch (strategy) {
+            case "breadth-first" -> new BreadthFirstStrategy();
+            case "depth-first" -> new DepthFirstStrategy();
+            case "uniform-cost" -> new UniformCostStrategy();
+            case "best-first" -> new BestFirstStrategy(faultProbabilities());
+            case "iterative deepening" -> new IterativeDeepeningStrategy();
+            default -> throw new IllegalArgumentException("Unknown node selection strategy " + strategy);
+        };
+    }
+
+    /**
+     * Assigns higher fault probabilities to the later constraints.
+     */
+    private Map<Constraint, Double> faultProbabilities() {
+        Map<Constraint, Double> probabilities = new HashMap<>();
+        List<Constraint> constraints = new ArrayList<>(C);
+        for (int i = 0; i < constraints.size(); i++) {
+            probabilities.put(constraints.get(i), 0.4 * (i + 1) / (constraints.size() + 1));
+        }
+        return probabilities;
+    }
+}
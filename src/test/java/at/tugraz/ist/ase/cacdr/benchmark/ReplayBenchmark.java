@@ -0,0 +1,76 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.RecordingConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.ReplayConsistencyChecker;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Benchmarks the algorithms and the HS-dag without the solver, i.e., with the checks
+ * replayed from a trace which is recorded once per trial.
+ */
+public class ReplayBenchmark extends ModelBenchmark {
+
+    private ReplayConsistencyChecker replayer;
+
+    @Setup(Level.Trial)
+    public void record() {
+        RecordingConsistencyChecker recorder = new RecordingConsistencyChecker(checker, AC);
+        quickXPlain(recorder);
+        fastDiagV3(recorder);
+        hsdag(recorder);
+
+        replayer = new ReplayConsistencyChecker(recorder.getTrace(), context);
+    }
+
+    @Benchmark
+    public Set<Constraint> quickXPlain() {
+        return quickXPlain(replayer);
+    }
+
+    @Benchmark
+    public Set<Constraint> fastDiagV3() {
+        return fastDiagV3(replayer);
+    }
+
+    @Benchmark
+    public List<Set<Constraint>> hsdag() {
+        return hsdag(replayer);
+    }
+
+    private Set<Constraint> quickXPlain(IConsistencyChecker checker) {
+        return new QuickXPlain(checker).findConflictSet(C, B);
+    }
+
+    private Set<Constraint> fastDiagV3(IConsistencyChecker checker) {
+        return new FastDiagV3(checker).findDiagnosis(C, B);
+    }
+
+    private List<Set<Constraint>> hsdag(IConsistencyChecker checker) {
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        HSDAG hsdag = new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+        hsdag.construct();
+        return hsdag.getDiagnoses();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+import at.tugraz.ist.ase.cacdr.model.SyntheticModel;
+import at.tugraz.ist.ase.cacdr.snapshot.KnowledgeBaseSnapshot;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup of a knowledge base, i.e., generating and initializing the model
+ * versus rehydrating it from a snapshot, which is already mapped or read from its file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"Synthetic100", "Synthetic1000", "Synthetic10000"})
+    public String model;
+
+    private KnowledgeBaseSnapshot snapshot;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUpSnapshot() throws Exception {
+        snapshot = ((SyntheticModel) BenchmarkModels.create(model)).toSnapshot();
+        file = Files.createTempFile(model, KnowledgeBaseSnapshot.EXTENSION);
+        snapshot.write(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public CDRModel initialize() throws Exception {
+        return BenchmarkModels.create(model);
+    }
+
+    @Benchmark
+    public CDRModel instantiate() {
+        return snapshot.instantiate();
+    }
+
+    @Benchmark
+    public CDRModel readAndInstantiate() throws Exception {
+        return KnowledgeBaseSnapshot.read(file).instantiate();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.benchmark;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.TwoPhaseHSConstructor;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.LabelerFactory;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the identification of all diagnoses with the two-phase HS constructor
+ * and with the HS-dag on knowledge bases with many overlapping conflicts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TwoPhaseHSConstructorBenchmark {
+
+    @Param({"SyntheticOverlapping100", "SyntheticOverlapping1000"})
+    public String model;
+
+    @Param({"HSDAG", "TwoPhase"})
+    public String constructor;
+
+    private SessionContext context;
+    private ChocoConsistencyChecker checker;
+
+    private Set<Constraint> C;
+    private Set<Constraint> B;
+    private Set<Constraint> AC;
+
+    @Setup(Level.Trial)
+    public void setUpModel() throws Exception {
+        CDRModel cdrModel = BenchmarkModels.create(model);
+        context = SessionContext.create();
+        checker = new ChocoConsistencyChecker(cdrModel, context);
+
+        C = cdrModel.getPossiblyFaultyConstraints();
+        B = cdrModel.getCorrectConstraints();
+        AC = cdrModel.getAllConstraints();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetEvaluator() {
+        context.getEvaluator().reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownModel() {
+        checker.dispose();
+    }
+
+    @Benchmark
+    public List<Set<Constraint>> construct() {
+        AbstractHSConstructor hs = switch (constructor) {
+            case "HSDAG" -> new HSDAG(LabelerFactory.create("QuickXPlain", checker, C, B, AC), checker);
+            case "TwoPhase" -> new TwoPhaseHSConstructor(LabelerFactory.create("QuickXPlain", checker, C, B, AC), checker);
+            default -> throw new IllegalArgumentException("Unknown HS constructor " + constructor);
+        };
+        hs.construct();
+        return hs.getDiagnoses();
+    }
+}
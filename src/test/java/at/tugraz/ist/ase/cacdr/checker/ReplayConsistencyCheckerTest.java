@@ -0,0 +1,82 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.checker;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel5;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.checker.ReplayConsistencyChecker.COUNTER_REPLAYED_CHECKS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayConsistencyCheckerTest {
+
+    @Test
+    void shouldReplayRecordedTrace() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        // record
+        RecordingConsistencyChecker recorder = new RecordingConsistencyChecker(new ChocoConsistencyChecker(testModel),
+                testModel.getAllConstraints());
+        HSDAG recorded = createHSDAG(recorder, C, B);
+        recorded.construct();
+        Set<Constraint> recordedDiag = new FastDiagV3(recorder).findDiagnosis(C, B);
+
+        Path file = Files.createTempFile("cacdr", ".trace");
+        recorder.getTrace().write(file);
+        System.out.println("Recorded " + recorder.getTrace().size() + " checks in " + Files.size(file) + " bytes");
+
+        // replay
+        ConsistencyTrace trace = ConsistencyTrace.read(file, testModel.getAllConstraints());
+        Files.delete(file);
+        assertEquals(recorder.getTrace().size(), trace.size());
+
+        SessionContext context = SessionContext.create();
+        ReplayConsistencyChecker replayer = new ReplayConsistencyChecker(trace, context);
+        HSDAG replayed = createHSDAG(replayer, C, B);
+        replayed.construct();
+        Set<Constraint> replayedDiag = new FastDiagV3(replayer).findDiagnosis(C, B);
+
+        assertEquals(recorded.getConflicts(), replayed.getConflicts());
+        assertEquals(recorded.getDiagnoses(), replayed.getDiagnoses());
+        assertEquals(recordedDiag, replayedDiag);
+        assertTrue(((SessionEvaluator) context.getEvaluator()).getCounter(COUNTER_REPLAYED_CHECKS) > 0);
+    }
+
+    @Test
+    void shouldRejectUnknownCheck() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ReplayConsistencyChecker replayer = new ReplayConsistencyChecker(new ConsistencyTrace(testModel.getAllConstraints()));
+
+        assertThrows(IllegalStateException.class, () -> replayer.isConsistent(testModel.getCorrectConstraints()));
+    }
+
+    private HSDAG createHSDAG(IConsistencyChecker checker, Set<Constraint> C, Set<Constraint> B) {
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        return new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+    }
+}
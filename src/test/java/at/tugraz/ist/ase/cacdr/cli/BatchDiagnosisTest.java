@@ -0,0 +1,79 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchDiagnosisTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldDiagnoseDirectoryInParallel() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            Files.writeString(directory.resolve("kb" + i + ".model"), "TestModel" + i);
+        }
+        Files.writeString(directory.resolve("broken.model"), "UnknownModel");
+        Files.writeString(directory.resolve("readme.txt"), "not a knowledge base");
+
+        BatchOptions options = BatchOptions.parse("--algorithm", "hsdag", "--labeler", "quickxplain",
+                "--threads", "3", "--glob", "*.model", "--loader", TestModelLoader.class.getName(),
+                directory.toString());
+
+        StringWriter writer = new StringWriter();
+        int failed = new BatchDiagnosis(options).run(writer);
+        System.out.println(writer);
+
+        List<String> lines = writer.toString().lines().toList();
+        assertEquals(6, lines.size());
+        assertEquals(1, failed);
+        assertEquals(5, lines.stream().filter(line -> line.contains("\"status\":\"ok\"")).count());
+        assertTrue(lines.stream().anyMatch(line -> line.contains("broken.model") && line.contains("\"status\":\"error\"")));
+        assertTrue(lines.stream()
+                .filter(line -> line.contains("\"status\":\"ok\""))
+                .allMatch(line -> line.contains("\"diagnoses\":[[") && line.contains("\"counters\":{")));
+    }
+
+    @Test
+    void shouldLimitDiagnosesOfDiagnosisLabeler() throws Exception {
+        Path file = Files.writeString(directory.resolve("kb5.model"), "TestModel5");
+
+        for (String labeler : List.of("quickxplain", "fastdiagv3")) {
+            BatchOptions options = BatchOptions.parse("--algorithm", "hsdag", "--labeler", labeler,
+                    "--max-diagnoses", "1", "--loader", TestModelLoader.class.getName(), directory.toString());
+
+            Map<String, Object> result = new BatchDiagnosis(options).diagnose(file);
+
+            assertEquals("ok", result.get("status"), labeler);
+            assertEquals(1, ((List<?>) result.get("diagnoses")).size(), labeler);
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> BatchOptions.parse("--algorithm", "unknown", "kbs"));
+        assertThrows(IllegalArgumentException.class, () -> BatchOptions.parse("--threads", "0", "kbs"));
+        assertThrows(IllegalArgumentException.class, () -> BatchOptions.parse("--algorithm", "hsdag"));
+
+        BatchOptions options = BatchOptions.parse("kbs");
+        assertEquals("hsdag", options.getAlgorithm());
+        assertEquals("quickxplain", options.getLabeler());
+        assertTrue(options.isHSConstructor());
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.cli;
+
+import at.tugraz.ist.ase.cacdr.benchmark.BenchmarkModels;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads the files with the extension .model, which contain the name of a benchmark model, e.g., TestModel5.
+ */
+public class TestModelLoader implements IModelLoader {
+
+    @Override
+    public boolean supports(Path file) {
+        return file.getFileName().toString().endsWith(".model");
+    }
+
+    @Override
+    public CDRModel load(Path file) throws Exception {
+        return BenchmarkModels.create(Files.readString(file).trim());
+    }
+}
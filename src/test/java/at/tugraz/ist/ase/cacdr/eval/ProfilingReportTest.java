@@ -0,0 +1,87 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cacdr.session.SessionTracer;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel5;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static at.tugraz.ist.ase.cacdr.eval.ProfilingReport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingReportTest {
+
+    @Test
+    void shouldProfileConstruction() throws Exception {
+        ProfilingReport report = profile("HSDAG, QuickXPlain");
+        System.out.println(report);
+
+        assertTrue(report.get(DIAGNOSES) > 1);
+        assertTrue(report.get(CONFLICTS) > 0);
+        assertTrue(report.get(CHECKS) > 0);
+        assertTrue(report.get(SOLVER_CALLS) > 0);
+        assertTrue(report.get(PEAK_OPEN_NODES) > 0);
+        assertTrue(report.get(TIME_TO_FIRST_DIAGNOSIS) <= report.get(TOTAL_TIME));
+        assertTrue(report.get(DIAGNOSIS_INTERVAL_MIN) <= report.get(DIAGNOSIS_INTERVAL_MEDIAN));
+        assertTrue(report.get(DIAGNOSIS_INTERVAL_MEDIAN) <= report.get(DIAGNOSIS_INTERVAL_MAX));
+        assertTrue(report.get(SOLVER_TIME_SHARE) > 0 && report.get(SOLVER_TIME_SHARE) <= 1);
+    }
+
+    @Test
+    void shouldExportAndCompareReports() throws Exception {
+        ProfilingReport baseline = profile("HSDAG, QuickXPlain");
+        ProfilingReport current = profile("HSDAG, QuickXPlain");
+
+        Path csv = Files.createTempFile("cacdr", ".csv");
+        Path json = Files.createTempFile("cacdr", ".json");
+        ProfilingReport.writeCsv(csv, List.of(baseline));
+        ProfilingReport.writeJson(json, List.of(baseline, current));
+
+        List<ProfilingReport> read = ProfilingReport.readCsv(csv);
+        assertEquals(1, read.size());
+        assertEquals(baseline.getName(), read.get(0).getName());
+        assertEquals(baseline.get(CHECKS), read.get(0).get(CHECKS));
+        assertTrue(Files.readString(json).contains("\"timeToFirstDiagnosis\""));
+
+        String comparison = current.compare(read.get(0));
+        System.out.println(comparison);
+        // the checks are deterministic
+        assertTrue(comparison.lines().anyMatch(line -> line.startsWith(CHECKS + " ") && line.endsWith("+0.0%")));
+
+        Files.delete(csv);
+        Files.delete(json);
+    }
+
+    private ProfilingReport profile(String name) throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        ProfilingEvaluator profiler = new ProfilingEvaluator(new SessionEvaluator());
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel, new SessionContext(profiler, new SessionTracer()));
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        HSDAG hsdag = new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+        hsdag.construct();
+
+        ProfilingReport report = profiler.getReport(name);
+        assertEquals(hsdag.getDiagnoses().size(), (int) report.get(DIAGNOSES));
+        return report;
+    }
+}
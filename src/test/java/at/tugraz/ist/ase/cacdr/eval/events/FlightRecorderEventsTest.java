@@ -0,0 +1,77 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.eval.events;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel4;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecorderEventsTest {
+
+    @Test
+    void shouldRecordEvents() throws Exception {
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(testModel.getPossiblyFaultyConstraints())
+                .B(testModel.getCorrectConstraints()).build();
+        HSDAG hsdag = new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+
+        Path file = Files.createTempFile("cacdr", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ConsistencyCheckEvent.class).withoutThreshold();
+            recording.enable(AlgorithmEvent.class).withoutThreshold();
+            recording.enable(RecursionStepEvent.class);
+            recording.enable(NodeLabelEvent.class).withoutThreshold();
+            recording.enable(NodeExpandEvent.class).withoutThreshold();
+
+            recording.start();
+            hsdag.construct();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        Map<String, Long> counts = events.stream()
+                .collect(Collectors.groupingBy(e -> e.getEventType().getName(), Collectors.counting()));
+        System.out.println(counts);
+
+        assertTrue(counts.getOrDefault("at.tugraz.ist.ase.cacdr.ConsistencyCheck", 0L) > 0);
+        assertTrue(counts.getOrDefault("at.tugraz.ist.ase.cacdr.Algorithm", 0L) > 0);
+        assertTrue(counts.getOrDefault("at.tugraz.ist.ase.cacdr.RecursionStep", 0L) > 0);
+        assertTrue(counts.getOrDefault("at.tugraz.ist.ase.cacdr.NodeExpand", 0L) > 0);
+
+        // every diagnosis is found by labeling a node
+        long diagnoses = events.stream()
+                .filter(e -> e.getEventType().getName().equals("at.tugraz.ist.ase.cacdr.NodeLabel"))
+                .filter(e -> e.getBoolean("diagnosis"))
+                .count();
+        assertEquals(hsdag.getDiagnoses().size(), diagnoses);
+    }
+}
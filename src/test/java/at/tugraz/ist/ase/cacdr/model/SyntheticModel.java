@@ -0,0 +1,294 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.model;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.MMCS;
+import at.tugraz.ist.ase.cacdr.snapshot.KnowledgeBaseSnapshot;
+import at.tugraz.ist.ase.cacdr.snapshot.SnapshotBuilder;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.cdrmodel.IChocoModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A seeded synthetic knowledge base with planted minimal conflicts and known diagnoses.
+ *
+ * The constraints are precedence constraints (x &lt; y, x &lt;= y) over integer variables.
+ * The variables are split into two disjoint parts:
+ * <ul>
+ *     <li>the conflict part, in which each planted conflict is a directed cycle of x &lt; y constraints.
+ *     A cycle is inconsistent, and becomes consistent after removing any of its constraints.
+ *     With the probability <code>overlap</code>, a new cycle reuses a path of an already planted cycle,
+ *     so that the conflicts share constraints.</li>
+ *     <li>the filler part, whose constraints follow a random topological order of the variables,
+ *     hence they are consistent and never take part in a conflict.</li>
+ * </ul>
+ * Overlapping cycles can close further cycles, so the expected conflicts are all simple cycles
+ * of the conflict part, and the expected diagnoses are their minimal hitting sets.
+ * All planted constraints are possibly faulty, the filler constraints are split between
+ * the possibly faulty and the correct constraints with the ratio <code>correctRatio</code>.
+ *
+ * The same parameters and seed always generate the same knowledge base,
+ * which can also be compiled into a snapshot by {@link #toSnapshot()}.
+ *
+ * @author Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+@Slf4j
+public class SyntheticModel extends CDRModel implements IChocoModel {
+
+    @Getter
+    private final Model model;
+
+    private final long seed;
+    private final int numVariables;
+    private final int numConstraints;
+    private final int numConflicts;
+    private final int minConflictSize;
+    private final int maxConflictSize;
+    private final double overlap;
+    private final double correctRatio;
+
+    @Getter
+    private final List<Set<Constraint>> plantedConflicts = new ArrayList<>();
+    @Getter
+    private List<Set<Constraint>> expectedAllConflicts;
+    @Getter
+    private List<Set<Constraint>> expectedAllDiagnoses;
+
+    // the directed edges x -> y of the conflict part
+    private final Map<Integer, Map<Integer, Constraint>> edges = new LinkedHashMap<>();
+    // the generated constraints, for the snapshot
+    private final Map<Constraint, Precedence> precedences = new HashMap<>();
+    private IntVar[] vars;
+
+    /**
+     * @param seed the seed of the random generator
+     * @param numVariables the number of variables
+     * @param numConstraints the number of constraints, including the constraints of the planted conflicts
+     * @param numConflicts the number of planted conflicts
+     * @param minConflictSize the minimal size of a planted conflict, at least 2
+     * @param maxConflictSize the maximal size of a planted conflict, the sizes are uniformly distributed
+     * @param overlap the probability that a planted conflict shares constraints with a previous one
+     * @param correctRatio the ratio of the filler constraints which are correct constraints
+     */
+    @Builder
+    public SyntheticModel(long seed, int numVariables, int numConstraints, int numConflicts,
+                          int minConflictSize, int maxConflictSize, double overlap, double correctRatio) {
+        super("SyntheticModel[seed=" + seed + ", variables=" + numVariables + ", constraints=" + numConstraints
+                + ", conflicts=" + numConflicts + "]");
+
+        checkArgument(minConflictSize >= 2 && minConflictSize <= maxConflictSize,
+                "The conflict sizes must be in [2, maxConflictSize]");
+        checkArgument(overlap >= 0 && overlap <= 1, "The overlap must be in [0, 1]");
+        checkArgument(correctRatio >= 0 && correctRatio <= 1, "The correct ratio must be in [0, 1]");
+        checkArgument(numVariables >= numConflicts * maxConflictSize + 2,
+                "Not enough variables for the planted conflicts");
+        checkArgument(numConstraints >= numConflicts * maxConflictSize,
+                "Not enough constraints for the planted conflicts");
+        int numFillerVariables = numVariables - numConflicts * maxConflictSize;
+        checkArgument(numConstraints - numConflicts * minConflictSize <= (long) numFillerVariables * (numFillerVariables - 1),
+                "Not enough variables for the filler constraints");
+
+        this.seed = seed;
+        this.numVariables = numVariables;
+        this.numConstraints = numConstraints;
+        this.numConflicts = numConflicts;
+        this.minConflictSize = minConflictSize;
+        this.maxConflictSize = maxConflictSize;
+        this.overlap = overlap;
+        this.correctRatio = correctRatio;
+
+        this.model = new Model(getName());
+    }
+
+    @Override
+    public void initialize() {
+        log.debug("Generating {}", getName());
+
+        Random random = new Random(seed);
+
+        // a domain of size numVariables satisfies every acyclic chain of x < y constraints
+        vars = model.intVarArray("x", numVariables, 0, numVariables);
+
+        Set<Constraint> C = new LinkedHashSet<>();
+        Set<Constraint> B = new LinkedHashSet<>();
+
+        // conflict part
+        int nextVar = 0;
+        for (int i = 0; i < numConflicts; i++) {
+            int size = minConflictSize + random.nextInt(maxConflictSize - minConflictSize + 1);
+
+            List<Integer> cycle = null;
+            if (!plantedConflicts.isEmpty() && random.nextDouble() < overlap) {
+                cycle = reusePath(random, size);
+            }
+            if (cycle == null) {
+                cycle = new ArrayList<>();
+            }
+            while (cycle.size() < size) {
+                cycle.add(nextVar++);
+            }
+
+            Set<Constraint> conflict = new LinkedHashSet<>();
+            for (int j = 0; j < size; j++) {
+                int from = cycle.get(j);
+                int to = cycle.get((j + 1) % size);
+                conflict.add(edges.computeIfAbsent(from, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(to, k -> createConstraint(from, "<", to)));
+            }
+            plantedConflicts.add(conflict);
+            C.addAll(conflict);
+        }
+
+        // filler part
+        List<Integer> order = new ArrayList<>();
+        for (int v = nextVar; v < numVariables; v++) {
+            order.add(v);
+        }
+        Collections.shuffle(order, random);
+
+        while (C.size() + B.size() < numConstraints) {
+            int i = random.nextInt(order.size() - 1);
+            int j = i + 1 + random.nextInt(order.size() - i - 1);
+            Constraint constraint = createConstraint(order.get(i), random.nextBoolean() ? "<" : "<=", order.get(j));
+
+            if (C.contains(constraint) || B.contains(constraint)) {
+                continue; // already generated
+            }
+            if (random.nextDouble() < correctRatio) {
+                B.add(constraint);
+            } else {
+                C.add(constraint);
+            }
+        }
+
+        setPossiblyFaultyConstraints(C);
+        setCorrectConstraints(B);
+
+        expectedAllConflicts = findAllCycles();
+        expectedAllDiagnoses = new MMCS(expectedAllConflicts).enumerate();
+        expectedAllDiagnoses.sort(Comparator.comparingInt(Set::size));
+
+        log.debug("Generated {} [C={}, B={}, conflicts={}, diagnoses={}]", getName(),
+                C.size(), B.size(), expectedAllConflicts.size(), expectedAllDiagnoses.size());
+    }
+
+    /**
+     * Takes a path of 1 to size - 1 edges from a planted cycle, which can be closed
+     * by new variables without duplicating an edge.
+     * @return the variables of the path, or null if the path can't be reused
+     */
+    private List<Integer> reusePath(Random random, int size) {
+        List<Integer> cycle = variablesOf(plantedConflicts.get(random.nextInt(plantedConflicts.size())));
+
+        int length = 1 + random.nextInt(Math.min(size, cycle.size()) - 1); // the number of reused edges
+        int start = random.nextInt(cycle.size());
+
+        List<Integer> path = new ArrayList<>();
+        for (int j = 0; j <= length; j++) {
+            path.add(cycle.get((start + j) % cycle.size()));
+        }
+
+        // the closing edge from the end of the path to its start mustn't exist already
+        if (path.size() == size && edges.getOrDefault(path.get(size - 1), Map.of()).containsKey(path.get(0))) {
+            return null;
+        }
+        return path;
+    }
+
+    private List<Integer> variablesOf(Set<Constraint> conflict) {
+        List<Integer> cycle = new ArrayList<>();
+        for (Constraint constraint : conflict) {
+            edges.forEach((from, targets) -> {
+                if (targets.containsValue(constraint)) {
+                    cycle.add(from);
+                }
+            });
+        }
+        return cycle;
+    }
+
+    /**
+     * Enumerates the simple cycles of the conflict part. Each cycle is started from its smallest variable.
+     */
+    private List<Set<Constraint>> findAllCycles() {
+        List<Set<Constraint>> cycles = new ArrayList<>();
+        for (int start : edges.keySet()) {
+            findCycles(start, start, new LinkedHashSet<>(List.of(start)), new LinkedHashSet<>(), cycles);
+        }
+        cycles.sort(Comparator.comparingInt(Set::size));
+        return cycles;
+    }
+
+    private void findCycles(int start, int current, Set<Integer> visited, LinkedHashSet<Constraint> path,
+                            List<Set<Constraint>> cycles) {
+        for (Map.Entry<Integer, Constraint> edge : edges.getOrDefault(current, Map.of()).entrySet()) {
+            int next = edge.getKey();
+            if (next == start) {
+                LinkedHashSet<Constraint> cycle = new LinkedHashSet<>(path);
+                cycle.add(edge.getValue());
+                cycles.add(cycle);
+            } else if (next > start && visited.add(next)) {
+                path.add(edge.getValue());
+                findCycles(start, next, visited, path, cycles);
+                path.remove(edge.getValue());
+                visited.remove(next);
+            }
+        }
+    }
+
+    /**
+     * Compiles the generated knowledge base into a snapshot, whose constraints have the same names
+     * and the same order. The knowledge base has to be initialized.
+     */
+    public KnowledgeBaseSnapshot toSnapshot() {
+        checkState(vars != null, "The knowledge base isn't initialized");
+
+        SnapshotBuilder builder = new SnapshotBuilder(getName());
+        for (IntVar var : vars) {
+            builder.intVar(var.getName(), var.getLB(), var.getUB());
+        }
+        for (Constraint constraint : getPossiblyFaultyConstraints()) {
+            Precedence precedence = precedences.get(constraint);
+            builder.addConstraint(constraint.toString(), false, builder.arithm(precedence.x, precedence.op, precedence.y));
+        }
+        for (Constraint constraint : getCorrectConstraints()) {
+            Precedence precedence = precedences.get(constraint);
+            builder.addConstraint(constraint.toString(), true, builder.arithm(precedence.x, precedence.op, precedence.y));
+        }
+        return builder.build();
+    }
+
+    private Constraint createConstraint(int x, String op, int y) {
+        Constraint constraint = new Constraint(vars[x].getName() + " " + op + " " + vars[y].getName());
+        constraint.addChocoConstraint(model.arithm(vars[x], op, vars[y]));
+        precedences.put(constraint, new Precedence(x, op, y));
+        return constraint;
+    }
+
+    /**
+     * The constraint x op y, with the indexes of the variables.
+     */
+    @RequiredArgsConstructor
+    private static class Precedence {
+        private final int x;
+        private final String op;
+        private final int y;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.model;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.CAEvaluator;
+import at.tugraz.ist.ase.cacdr.snapshot.SnapshotModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.printPerformance;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticModelTest {
+
+    @Test
+    void shouldGenerateSameModelWithSameSeed() {
+        SyntheticModel first = createModel(1, 0.5);
+        SyntheticModel second = createModel(1, 0.5);
+
+        assertEquals(first.getPossiblyFaultyConstraints().toString(), second.getPossiblyFaultyConstraints().toString());
+        assertEquals(first.getCorrectConstraints().toString(), second.getCorrectConstraints().toString());
+        assertEquals(first.getExpectedAllDiagnoses().toString(), second.getExpectedAllDiagnoses().toString());
+    }
+
+    @Test
+    void shouldPlantMinimalConflicts() {
+        SyntheticModel testModel = createModel(2, 0.5);
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        assertEquals(1000, testModel.getPossiblyFaultyConstraints().size() + testModel.getCorrectConstraints().size());
+        assertTrue(checker.isConsistent(testModel.getCorrectConstraints()));
+
+        for (Set<Constraint> conflict : testModel.getPlantedConflicts()) {
+            assertFalse(checker.isConsistent(conflict));
+
+            for (Constraint constraint : conflict) {
+                Set<Constraint> rest = new HashSet<>(conflict);
+                rest.remove(constraint);
+                assertTrue(checker.isConsistent(rest));
+            }
+        }
+    }
+
+    @Test
+    void shouldFindExpectedConflictsAndDiagnoses() {
+        SyntheticModel testModel = createModel(3, 0.5);
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(testModel);
+
+        Set<Constraint> C = testModel.getPossiblyFaultyConstraints();
+        Set<Constraint> B = testModel.getCorrectConstraints();
+
+        QuickXPlain quickXPlain = new QuickXPlain(checker);
+        assertTrue(testModel.getExpectedAllConflicts().contains(quickXPlain.findConflictSet(C, B)));
+
+        FastDiagV3 fastDiag = new FastDiagV3(checker);
+        assertTrue(testModel.getExpectedAllDiagnoses().contains(fastDiag.findDiagnosis(C, B)));
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(C)
+                .B(B).build();
+        HSDAG hsdag = new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+
+        CAEvaluator.reset();
+        hsdag.construct();
+
+        System.out.println("=========================================");
+        System.out.println(testModel.getName() + ": " + hsdag.getDiagnoses().size() + " diagnoses");
+        printPerformance();
+
+        assertEquals(new HashSet<>(testModel.getExpectedAllConflicts()), new HashSet<>(hsdag.getConflicts()));
+        assertEquals(new HashSet<>(testModel.getExpectedAllDiagnoses()), new HashSet<>(hsdag.getDiagnoses()));
+    }
+
+    @Test
+    void shouldCompileIntoSnapshot() {
+        SyntheticModel testModel = createModel(4, 0.5);
+        SnapshotModel snapshotModel = testModel.toSnapshot().instantiate();
+
+        assertEquals(testModel.getPossiblyFaultyConstraints().toString(), snapshotModel.getPossiblyFaultyConstraints().toString());
+        assertEquals(testModel.getCorrectConstraints().toString(), snapshotModel.getCorrectConstraints().toString());
+
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(snapshotModel);
+        Set<Constraint> diag = new FastDiagV3(checker).findDiagnosis(snapshotModel.getPossiblyFaultyConstraints(),
+                snapshotModel.getCorrectConstraints());
+        assertTrue(testModel.getExpectedAllDiagnoses().stream().anyMatch(expected -> names(expected).equals(names(diag))));
+    }
+
+    private Set<String> names(Set<Constraint> constraints) {
+        return constraints.stream().map(Constraint::toString).collect(Collectors.toSet());
+    }
+
+    private SyntheticModel createModel(long seed, double overlap) {
+        SyntheticModel model = SyntheticModel.builder()
+                .seed(seed)
+                .numVariables(300)
+                .numConstraints(1000)
+                .numConflicts(4)
+                .minConflictSize(2)
+                .maxConflictSize(4)
+                .overlap(overlap)
+                .correctRatio(0.5)
+                .build();
+        model.initialize();
+        return model;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.regression;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A versioned baseline of deterministic counters, e.g., the number of consistency checks,
+ * stored as a properties file with the keys <code>&lt;model&gt;.&lt;algorithm&gt;.&lt;metric&gt;</code>.
+ *
+ * The version has to be increased whenever the meaning of a counter changes,
+ * so that an outdated baseline is regenerated instead of being compared.
+ */
+public class CheckCountBaseline {
+
+    /**
+     * The version of the counted metrics
+     */
+    public static final int VERSION = 1;
+
+    private static final String VERSION_KEY = "version";
+
+    @Getter
+    private final Path file;
+    private final Map<String, Long> values = new TreeMap<>();
+
+    private CheckCountBaseline(@NonNull Path file) {
+        this.file = file;
+    }
+
+    public static CheckCountBaseline load(@NonNull Path file) throws IOException {
+        CheckCountBaseline baseline = new CheckCountBaseline(file);
+        if (!Files.exists(file)) {
+            return baseline;
+        }
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        String version = properties.getProperty(VERSION_KEY, String.valueOf(VERSION));
+        checkState(Integer.parseInt(version) == VERSION,
+                "The baseline %s has version %s instead of %s, regenerate it with -Dcacdr.baseline.update=true",
+                file, version, VERSION);
+
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.equals(VERSION_KEY)) {
+                baseline.values.put(key, Long.parseLong(properties.getProperty(key)));
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * Returns the baseline value of the given key, or null if the key isn't recorded yet.
+     */
+    public Long get(@NonNull String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Returns true if no counter is recorded yet.
+     */
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    public void put(@NonNull String key, long value) {
+        values.put(key, value);
+    }
+
+    /**
+     * Writes the baseline sorted by the keys, so that the diffs of the file stay readable.
+     */
+    public void save() throws IOException {
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# The number of consistency checks, solver calls and HS nodes per model and algorithm.\n");
+            writer.write("# Regenerate with: mvn test -Dtest=CheckCountRegressionTest -Dcacdr.baseline.update=true\n");
+            writer.write(VERSION_KEY + "=" + VERSION + "\n");
+            for (Map.Entry<String, Long> entry : values.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.regression;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV2;
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.FlexDiag;
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSTree;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.IHSLabelable;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.LabelerFactory;
+import at.tugraz.ist.ase.cacdr.benchmark.BenchmarkModels;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.checker.IConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cacdr.session.SessionContext;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+
+import static at.tugraz.ist.ase.cacdr.algorithms.hsdag.AbstractHSConstructor.COUNTER_CONSTRUCTED_NODES;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.COUNTER_CHOCO_SOLVER_CALLS;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.COUNTER_CONSISTENCY_CHECKS;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the number of consistency checks, solver calls and constructed HS nodes,
+ * which are deterministic unlike the runtimes. Each algorithm runs on each model in its own
+ * session, and the counters are compared with the baseline in
+ * <code>src/test/resources/regression/check-counts.properties</code>.
+ * A test fails if a counter exceeds its baseline value. Decreased counters are reported,
+ * so that the baseline can be tightened.
+ *
+ * With <code>-Dcacdr.baseline.update=true</code>, the counters are written to the baseline
+ * instead of being compared. A counter without a recorded baseline value fails the test.
+ * As long as the baseline holds no counters at all, the harness is left out of the test run.
+ */
+class CheckCountRegressionTest {
+
+    private static final Path BASELINE_FILE = Path.of("src", "test", "resources", "regression", "check-counts.properties");
+    private static final boolean UPDATE = Boolean.getBoolean("cacdr.baseline.update");
+
+    private static final List<String> MODELS = List.of("TestModel1", "TestModel2", "TestModel3", "TestModel4",
+            "TestModel5", "Synthetic100");
+    private static final List<String> LABELERS = List.of("QuickXPlain", "FastDiagV2", "FastDiagV3", "FlexDiag");
+
+    private static CheckCountBaseline baseline;
+
+    @BeforeAll
+    static void loadBaseline() throws IOException {
+        baseline = CheckCountBaseline.load(BASELINE_FILE);
+    }
+
+    @AfterAll
+    static void saveBaseline() throws IOException {
+        if (UPDATE) {
+            baseline.save();
+            System.out.println("Updated the baseline " + baseline.getFile().toAbsolutePath());
+        }
+    }
+
+    /**
+     * The counters are compared once a baseline is recorded.
+     */
+    static boolean isBaselineRecorded() throws IOException {
+        return UPDATE || !CheckCountBaseline.load(BASELINE_FILE).isEmpty();
+    }
+
+    @TestFactory
+    @EnabledIf("isBaselineRecorded")
+    List<DynamicTest> checkCounts() {
+        Map<String, Function<Run, Set<?>>> algorithms = new LinkedHashMap<>();
+        algorithms.put("QuickXPlain", run -> new QuickXPlain(run.checker).findConflictSet(run.C, run.B));
+        algorithms.put("FastDiagV2", run -> new FastDiagV2(run.checker).findDiagnosis(run.C, run.AC));
+        algorithms.put("FastDiagV3", run -> new FastDiagV3(run.checker).findDiagnosis(run.C, run.B));
+        algorithms.put("FlexDiag", run -> new FlexDiag(run.checker).findDiagnosis(run.C, run.AC, 1));
+        for (String labeler : LABELERS) {
+            algorithms.put("HSTree-" + labeler, run -> construct(new HSTree(run.createLabeler(labeler), run.checker)));
+            algorithms.put("HSDAG-" + labeler, run -> construct(new HSDAG(run.createLabeler(labeler), run.checker)));
+        }
+
+        List<DynamicTest> tests = new ArrayList<>();
+        for (String model : MODELS) {
+            algorithms.forEach((algorithm, execution) ->
+                    tests.add(DynamicTest.dynamicTest(model + " " + algorithm,
+                            () -> check(model, algorithm, execution))));
+        }
+        return tests;
+    }
+
+    private void check(String modelName, String algorithm, Function<Run, Set<?>> execution) throws Exception {
+        Run run = new Run(BenchmarkModels.create(modelName));
+        execution.apply(run);
+        run.checker.dispose();
+
+        SessionEvaluator evaluator = (SessionEvaluator) run.context.getEvaluator();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("checks", evaluator.getCounter(COUNTER_CONSISTENCY_CHECKS));
+        counts.put("solverCalls", evaluator.getCounter(COUNTER_CHOCO_SOLVER_CALLS));
+        if (algorithm.startsWith("HS")) {
+            counts.put("nodes", evaluator.getCounter(COUNTER_CONSTRUCTED_NODES));
+        }
+
+        String prefix = modelName + "." + algorithm + ".";
+        if (UPDATE) {
+            counts.forEach((metric, count) -> baseline.put(prefix + metric, count));
+            return;
+        }
+
+        List<String> regressions = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            String key = prefix + entry.getKey();
+            Long expected = baseline.get(key);
+            long actual = entry.getValue();
+
+            if (expected == null) {
+                missing.add(key);
+            } else if (actual > expected) {
+                regressions.add(key + ": " + expected + " -> " + actual);
+            } else if (actual < expected) {
+                System.out.println("Improved " + key + ": " + expected + " -> " + actual + ", the baseline can be tightened");
+            }
+        }
+
+        assertTrue(missing.isEmpty(), "No baseline for " + missing + ", record it with -Dcacdr.baseline.update=true");
+        assertTrue(regressions.isEmpty(), "Counter regressions " + regressions);
+    }
+
+    private List<Set<Constraint>> construct(AbstractHSConstructor hs) {
+        hs.construct();
+        return hs.getConflicts();
+    }
+
+    /**
+     * A knowledge base with a checker of its own session.
+     */
+    private static class Run {
+        private final SessionContext context = SessionContext.create();
+        private final IConsistencyChecker checker;
+        private final Set<Constraint> C;
+        private final Set<Constraint> B;
+        private final Set<Constraint> AC;
+
+        private Run(CDRModel model) {
+            this.checker = new ChocoConsistencyChecker(model, context);
+            this.C = model.getPossiblyFaultyConstraints();
+            this.B = model.getCorrectConstraints();
+            this.AC = model.getAllConstraints();
+        }
+
+        private IHSLabelable createLabeler(String labeler) {
+            return LabelerFactory.create(labeler, checker, C, B, AC);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel5;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosisServiceTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private DiagnosisService service;
+    private int expectedDiagnoses;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+        expectedDiagnoses = testModel.getExpectedAllDiagnoses().size();
+
+        service = DiagnosisService.builder()
+                .port(0).build();
+        service.register("model5", () -> {
+            TestModel5 model = new TestModel5();
+            model.initialize();
+            return model;
+        }, 2);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void shouldServeConflictsAndDiagnoses() throws Exception {
+        HttpResponse<String> conflict = get("/conflict?kb=model5");
+        assertEquals(200, conflict.statusCode());
+        assertTrue(conflict.body().contains("\"type\":\"conflict\""));
+
+        HttpResponse<String> diagnosis = get("/diagnosis?kb=model5");
+        assertEquals(200, diagnosis.statusCode());
+        assertTrue(diagnosis.body().contains("\"type\":\"diagnosis\""));
+
+        HttpResponse<String> diagnoses = get("/diagnoses?kb=model5");
+        assertEquals(200, diagnoses.statusCode());
+        System.out.println(diagnoses.body());
+        // the result is a list of diagnoses, each one is a JSON array
+        String result = diagnoses.body().substring(diagnoses.body().indexOf("\"result\":"));
+        assertEquals(expectedDiagnoses, result.split("\\[\"").length - 1);
+
+        HttpResponse<String> first = get("/diagnoses?kb=model5&max=1");
+        assertEquals(1, first.body().split("\\[\"").length - 1);
+    }
+
+    @Test
+    void shouldRejectInvalidRequests() throws Exception {
+        assertEquals(400, get("/diagnosis").statusCode());
+        assertEquals(404, get("/diagnosis?kb=unknown").statusCode());
+        assertEquals(400, get("/diagnoses?kb=model5&max=x").statusCode());
+    }
+
+    @Test
+    void shouldRejectDuplicateRegistration() throws Exception {
+        assertThrows(IllegalStateException.class, () -> service.register("model5", () -> {
+            TestModel5 model = new TestModel5();
+            model.initialize();
+            return model;
+        }, 1));
+        assertEquals(200, get("/diagnosis?kb=model5").statusCode());
+    }
+
+    @Test
+    void shouldBatchConcurrentRequests() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            responses.add(client.sendAsync(request("/diagnoses?kb=model5"), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        String body = null;
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+            String result = response.get().body().replaceAll("\"time\":\\d+,", "");
+            if (body == null) {
+                body = result;
+            }
+            assertEquals(body, result);
+        }
+
+        String stats = get("/stats").body();
+        System.out.println(stats);
+        assertTrue(stats.contains("\"received\":16"));
+        assertTrue(stats.contains("\"knowledgeBases\":[\"model5\"]"));
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(request(path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(service.getUri() + path)).GET().build();
+    }
+}
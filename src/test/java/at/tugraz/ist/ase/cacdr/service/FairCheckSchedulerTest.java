@@ -0,0 +1,137 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel5;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairCheckSchedulerTest {
+
+    private static final int BIG_RUNS = 50;
+
+    @Test
+    void shouldFindDiagnosesOnPooledInstances() throws Exception {
+        TestModel5 testModel = new TestModel5();
+        testModel.initialize();
+
+        FairCheckScheduler scheduler = createScheduler(2, 0);
+        try (ScheduledSession session = scheduler.openSession(SessionBudget.UNBOUNDED)) {
+            // the checks alternate between both warm checkers
+            assertEquals(names(testModel.getExpectedAllDiagnoses()), names(diagnoses(session)));
+            assertTrue(session.getChecks() > 0);
+        }
+        assertEquals(0, scheduler.getActiveSessions());
+        scheduler.getPool().dispose();
+    }
+
+    @Test
+    void shouldAbortSessionExceedingBudget() throws Exception {
+        FairCheckScheduler scheduler = createScheduler(1, 0);
+        try (ScheduledSession session = scheduler.openSession(SessionBudget.builder().maxChecks(3).build())) {
+            assertThrows(BudgetExceededException.class, () -> diagnoses(session));
+            assertEquals(3, session.getChecks());
+        }
+        scheduler.getPool().dispose();
+    }
+
+    @Test
+    void shouldPushBackWhenSaturated() throws Exception {
+        FairCheckScheduler scheduler = createScheduler(1, 1);
+        try (ScheduledSession ignored = scheduler.openSession(SessionBudget.UNBOUNDED)) {
+            assertEquals(1, scheduler.getActiveSessions());
+            assertNull(scheduler.tryOpenSession(SessionBudget.UNBOUNDED, 10, TimeUnit.MILLISECONDS));
+        }
+        try (ScheduledSession session = scheduler.tryOpenSession(SessionBudget.UNBOUNDED, 10, TimeUnit.MILLISECONDS)) {
+            assertNotNull(session);
+        }
+        scheduler.getPool().dispose();
+    }
+
+    @Test
+    void shouldKeepSmallSessionsFast() throws Exception {
+        FairCheckScheduler scheduler = createScheduler(1, 0);
+
+        // the checks of one run of the big session
+        long checksPerRun;
+        try (ScheduledSession probe = scheduler.openSession(SessionBudget.UNBOUNDED)) {
+            diagnoses(probe);
+            checksPerRun = probe.getChecks();
+        }
+        long backlog = BIG_RUNS * checksPerRun;
+
+        ScheduledSession big = scheduler.openSession(SessionBudget.UNBOUNDED);
+        Thread bigThread = new Thread(() -> {
+            for (int i = 0; i < BIG_RUNS; i++) {
+                diagnoses(big);
+            }
+        });
+        long before = scheduler.getScheduledChecks();
+        bigThread.start();
+        while (scheduler.getScheduledChecks() == before) {
+            Thread.onSpinWait();
+        }
+
+        // the small session interleaves its checks with the checks of the big one
+        try (ScheduledSession small = scheduler.openSession(SessionBudget.UNBOUNDED)) {
+            long start = scheduler.getScheduledChecks();
+            Set<Constraint> diag = new FastDiagV3(small.getChecker()).findDiagnosis(
+                    small.getModel().getPossiblyFaultyConstraints(), small.getModel().getCorrectConstraints());
+            long bigChecks = scheduler.getScheduledChecks() - start - small.getChecks();
+
+            assertFalse(diag.isEmpty());
+            assertTrue(small.getChecks() > 0);
+            // the small session doesn't wait for the backlog of the big session
+            assertTrue(bigChecks < backlog / 10,
+                    "The small session waited for " + bigChecks + " of " + backlog + " checks of the big session");
+        }
+
+        bigThread.join();
+        assertEquals(backlog, big.getChecks());
+        big.close();
+        scheduler.getPool().dispose();
+    }
+
+    private FairCheckScheduler createScheduler(int poolSize, int maxSessions) throws Exception {
+        KnowledgeBasePool pool = new KnowledgeBasePool("model5", () -> {
+            TestModel5 model = new TestModel5();
+            model.initialize();
+            return model;
+        }, poolSize);
+        return FairCheckScheduler.builder()
+                .pool(pool)
+                .maxSessions(maxSessions).build();
+    }
+
+    private Set<Set<String>> names(List<Set<Constraint>> diagnoses) {
+        return diagnoses.stream()
+                .map(diag -> diag.stream().map(Constraint::toString).collect(Collectors.toSet()))
+                .collect(Collectors.toSet());
+    }
+
+    private List<Set<Constraint>> diagnoses(ScheduledSession session) {
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(session.getModel().getPossiblyFaultyConstraints())
+                .B(session.getModel().getCorrectConstraints()).build();
+        HSDAG hsdag = new HSDAG(new QuickXPlainLabeler(session.getChecker(), parameter), session.getChecker());
+        hsdag.construct();
+        return hsdag.getDiagnoses();
+    }
+}
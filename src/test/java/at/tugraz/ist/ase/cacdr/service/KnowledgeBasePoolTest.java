@@ -0,0 +1,93 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.service;
+
+import at.tugraz.ist.ase.cacdr.algorithms.FastDiagV3;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel5;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnowledgeBasePoolTest {
+
+    private static final int POOL_SIZE = 2;
+    private static final int SESSIONS = 1000;
+
+    @Test
+    void shouldBoundLeasesBySolverInstances() throws Exception {
+        KnowledgeBasePool pool = new KnowledgeBasePool("model5", () -> {
+            TestModel5 model = new TestModel5();
+            model.initialize();
+            return model;
+        }, POOL_SIZE);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger virtual = new AtomicInteger();
+
+        List<Future<String>> results = new ArrayList<>();
+        ExecutorService executor = SessionExecutors.newSessionExecutor();
+        for (int i = 0; i < SESSIONS; i++) {
+            results.add(executor.submit(() -> {
+                if (SessionExecutors.isVirtual(Thread.currentThread())) {
+                    virtual.incrementAndGet();
+                }
+                return pool.execute(warm -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        return new FastDiagV3(warm.getChecker()).findDiagnosis(
+                                warm.getModel().getPossiblyFaultyConstraints(),
+                                warm.getModel().getCorrectConstraints()).toString();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+            }));
+        }
+
+        Set<String> diagnoses = new HashSet<>();
+        for (Future<String> result : results) {
+            diagnoses.add(result.get());
+        }
+        executor.shutdown();
+        pool.dispose();
+
+        System.out.println("Virtual threads: " + SessionExecutors.isVirtualThreadsSupported()
+                + ", max concurrent leases: " + maxRunning.get());
+        assertEquals(1, diagnoses.size());
+        assertTrue(maxRunning.get() <= POOL_SIZE);
+        assertEquals(SessionExecutors.isVirtualThreadsSupported() ? SESSIONS : 0, virtual.get());
+    }
+
+    @Test
+    void shouldTimeOutWithoutIdleChecker() throws Exception {
+        KnowledgeBasePool pool = new KnowledgeBasePool("model5", () -> {
+            TestModel5 model = new TestModel5();
+            model.initialize();
+            return model;
+        }, 1);
+
+        try (CheckerLease lease = pool.lease()) {
+            assertNotNull(lease.getChecker());
+            assertEquals(0, pool.getAvailable());
+            assertNull(pool.tryLease(10, TimeUnit.MILLISECONDS));
+        }
+        assertEquals(1, pool.getAvailable());
+        pool.dispose();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.session;
+
+import at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cacdr.eval.Counter;
+import at.tugraz.ist.ase.cacdr.eval.SessionEvaluator;
+import at.tugraz.ist.ase.cdrmodel.test.model.TestModel4;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static at.tugraz.ist.ase.cacdr.algorithms.QuickXPlain.COUNTER_QUICKXPLAIN_CALLS;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.COUNTER_UNION_OPERATOR;
+import static at.tugraz.ist.ase.cacdr.eval.CAEvaluator.UNION_OPERATOR;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionContextTest {
+
+    @Test
+    void shouldCountWithNamesAndHandles() {
+        SessionContext context = SessionContext.create();
+        SessionEvaluator evaluator = (SessionEvaluator) context.getEvaluator();
+
+        context.incrementCounter(COUNTER_UNION_OPERATOR);
+        context.increment(UNION_OPERATOR, 2);
+        context.increment(Counter.of("A counter registered after the session:"));
+
+        assertSame(UNION_OPERATOR, Counter.of(COUNTER_UNION_OPERATOR));
+        assertEquals(3, evaluator.getCounter(COUNTER_UNION_OPERATOR));
+        assertEquals(1, evaluator.getCounter("A counter registered after the session:"));
+
+        context.getEvaluator().reset();
+        assertEquals(0, evaluator.getCounter(UNION_OPERATOR));
+    }
+
+    @Test
+    void shouldFindSameConflictWithoutInstrumentation() throws Exception {
+        TestModel4 instrumentedModel = new TestModel4();
+        instrumentedModel.initialize();
+        SessionContext instrumented = SessionContext.create();
+        Set<Constraint> expected = new QuickXPlain(new ChocoConsistencyChecker(instrumentedModel, instrumented))
+                .findConflictSet(instrumentedModel.getPossiblyFaultyConstraints(), instrumentedModel.getCorrectConstraints());
+
+        TestModel4 testModel = new TestModel4();
+        testModel.initialize();
+        SessionContext disabled = SessionContext.disabled();
+        Set<Constraint> conflict = new QuickXPlain(new ChocoConsistencyChecker(testModel, disabled))
+                .findConflictSet(testModel.getPossiblyFaultyConstraints(), testModel.getCorrectConstraints());
+
+        assertEquals(expected.toString(), conflict.toString());
+        assertTrue(((SessionEvaluator) instrumented.getEvaluator()).getCounter(COUNTER_QUICKXPLAIN_CALLS) > 0);
+        assertFalse(disabled.isInstrumented());
+        assertEquals("", disabled.getEvaluator().getEvaluationResults());
+        assertEquals("", disabled.tab());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Consistency-based Algorithms for Conflict Detection and Resolution
+ *
+ * Copyright (c) 2022
+ *
+ * @author: Viet-Man Le (vietman.le@ist.tugraz.at)
+ */
+
+package at.tugraz.ist.ase.cacdr.snapshot;
+
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.HSDAG;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.labeler.QuickXPlainLabeler;
+import at.tugraz.ist.ase.cacdr.algorithms.hsdag.parameters.QuickXPlainParameters;
+import at.tugraz.ist.ase.cacdr.checker.ChocoConsistencyChecker;
+import at.tugraz.ist.ase.cdrmodel.CDRModel;
+import at.tugraz.ist.ase.knowledgebases.core.Constraint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnowledgeBaseSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * C contains the cycles x0 &lt; x1 &lt; x2 &lt; x0 and x3 &lt; x4 &lt; x3, hence 2 conflicts and 6 diagnoses.
+     * B uses all kinds of terms and is satisfied by x5 = 3 and x6 = 1.
+     */
+    private KnowledgeBaseSnapshot createSnapshot() {
+        SnapshotBuilder builder = new SnapshotBuilder("snapshot");
+
+        int[] x = new int[7];
+        for (int i = 0; i < 5; i++) {
+            x[i] = builder.intVar("x" + i, 0, 5);
+        }
+        x[5] = builder.intVar("x5", new int[]{1, 3, 5});
+        x[6] = builder.boolVar("x6");
+
+        int[][] cycles = {{0, 1}, {1, 2}, {2, 0}, {3, 4}, {4, 3}};
+        for (int[] edge : cycles) {
+            builder.addConstraint("x" + edge[0] + " < x" + edge[1], false, builder.arithm(x[edge[0]], "<", x[edge[1]]));
+        }
+
+        builder.addConstraint("sum", true, builder.sum(new int[]{x[5], x[6]}, "<=", 6));
+        builder.addConstraint("table", true, builder.table(new int[]{x[5], x[6]},
+                new int[][]{{1, 0}, {3, 1}, {5, 1}}, true));
+        builder.addConstraint("member", true, builder.member(x[5], new int[]{1, 3, 5}),
+                builder.notMember(x[5], new int[]{2}));
+        builder.addConstraint("and", true, builder.and(builder.arithmConstant(x[6], "=", 1),
+                builder.arithm(x[5], ">", x[6])));
+        builder.addConstraint("or-not", true, builder.or(builder.not(builder.arithmConstant(x[5], "=", 1)),
+                builder.arithmConstant(x[6], "=", 0)));
+        builder.addConstraint("x5 - x6 = 2", true, builder.arithm(x[5], "-", x[6], "=", 2));
+
+        return builder.build();
+    }
+
+    @Test
+    void shouldRehydrateMappedSnapshot() throws Exception {
+        Path file = directory.resolve("kb" + KnowledgeBaseSnapshot.EXTENSION);
+        createSnapshot().write(file);
+
+        KnowledgeBaseSnapshot snapshot = KnowledgeBaseSnapshot.read(file);
+        assertAll(() -> assertEquals("snapshot", snapshot.getName()),
+                () -> assertEquals(7, snapshot.getNumVariables()),
+                () -> assertEquals(11, snapshot.getNumConstraints()),
+                () -> assertEquals(Files.size(file), snapshot.size()));
+
+        SnapshotModel first = snapshot.instantiate();
+        SnapshotModel second = snapshot.instantiate();
+        assertNotSame(first.getModel(), second.getModel());
+        assertEquals(5, first.getPossiblyFaultyConstraints().size());
+        assertEquals(6, first.getCorrectConstraints().size());
+
+        for (SnapshotModel model : List.of(first, second)) {
+            HSDAG hsdag = createHSDAG(model);
+            hsdag.construct();
+
+            assertEquals(Set.of(Set.of("x0 < x1", "x1 < x2", "x2 < x0"), Set.of("x3 < x4", "x4 < x3")),
+                    names(hsdag.getConflicts()));
+            assertEquals(6, hsdag.getDiagnoses().size());
+            assertTrue(names(hsdag.getDiagnoses()).contains(Set.of("x2 < x0", "x4 < x3")));
+        }
+    }
+
+    @Test
+    void shouldLoadSnapshotFiles() throws Exception {
+        Path file = directory.resolve("kb" + KnowledgeBaseSnapshot.EXTENSION);
+        createSnapshot().write(file);
+
+        SnapshotModelLoader loader = new SnapshotModelLoader();
+        assertTrue(loader.supports(file));
+        assertFalse(loader.supports(directory.resolve("kb.model")));
+        assertEquals(5, loader.load(file).getPossiblyFaultyConstraints().size());
+    }
+
+    @Test
+    void shouldRejectCorruptedSnapshot() throws Exception {
+        Path file = directory.resolve("kb" + KnowledgeBaseSnapshot.EXTENSION);
+        createSnapshot().write(file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[0] = 0;
+        Files.write(file, bytes);
+
+        assertThrows(IllegalArgumentException.class, () -> KnowledgeBaseSnapshot.read(file));
+        assertThrows(IllegalArgumentException.class, () -> new SnapshotBuilder("kb").arithm(0, "<", 1));
+    }
+
+    private HSDAG createHSDAG(CDRModel model) {
+        ChocoConsistencyChecker checker = new ChocoConsistencyChecker(model);
+
+        QuickXPlainParameters parameter = QuickXPlainParameters.builder()
+                .C(model.getPossiblyFaultyConstraints())
+                .B(model.getCorrectConstraints()).build();
+        return new HSDAG(new QuickXPlainLabeler(checker, parameter), checker);
+    }
+
+    private Set<Set<String>> names(List<Set<Constraint>> sets) {
+        return sets.stream()
+                .map(set -> set.stream().map(Constraint::toString).collect(Collectors.toSet()))
+                .collect(Collectors.toSet());
+    }
+}